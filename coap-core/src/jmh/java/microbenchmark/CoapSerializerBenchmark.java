@@ -30,6 +30,7 @@ import com.mbed.coap.packet.Opaque;
 import com.mbed.coap.utils.Bytes;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
@@ -50,6 +51,7 @@ public class CoapSerializerBenchmark {
     private final CoapPacket emptyAckCoap = newCoapPacket().emptyAck(5154);
     private final CoapPacket resp1kCoap = newCoapPacket().mid(1098).ack(Code.C205_CONTENT).payload(Bytes.opaqueOfRandom(1024)).build();
     private ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(2048);
 
     public static CoapPacket createCoapPacket() {
         // ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
@@ -101,4 +103,26 @@ public class CoapSerializerBenchmark {
 
         bh.consume(packet2);
     }
+
+    @Benchmark()
+    public void serialize_complex_coap_with_bytebuffer(Blackhole bh) throws CoapException {
+        buffer.clear();
+        CoapSerializer.serialize(complexCoap, buffer);
+        buffer.flip();
+
+        CoapPacket packet2 = CoapSerializer.deserialize(null, buffer);
+
+        bh.consume(packet2);
+    }
+
+    @Benchmark()
+    public void serialize_resp_with_1k_payload_with_bytebuffer(Blackhole bh) throws CoapException {
+        buffer.clear();
+        CoapSerializer.serialize(resp1kCoap, buffer);
+        buffer.flip();
+
+        CoapPacket packet2 = CoapSerializer.deserialize(null, buffer);
+
+        bh.consume(packet2);
+    }
 }
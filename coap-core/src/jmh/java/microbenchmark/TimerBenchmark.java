@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package microbenchmark;
+
+import com.mbed.coap.utils.HashedWheelTimer;
+import com.mbed.coap.utils.Timer;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+Compares timers with typical usage for retransmissions and response timeouts: timeout is scheduled and then
+cancelled, because response arrives before it expires, while many other timeouts are in flight.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(value = 1, jvmArgsPrepend = {"-Xms512m", "-Xmx512m"})
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 1, time = 10)
+public class TimerBenchmark {
+    private static final Duration IN_FLIGHT_DELAY = Duration.ofMinutes(10);
+    private static final Duration DELAY = Duration.ofSeconds(2);
+
+    @Param({"executor", "wheel"})
+    public String timerType;
+
+    @Param({"0", "200000"})
+    public int inFlight;
+
+    private Timer timer;
+    private ScheduledExecutorService executor;
+    private HashedWheelTimer wheelTimer;
+
+    @Setup
+    public void setup() {
+        if (timerType.equals("wheel")) {
+            wheelTimer = new HashedWheelTimer();
+            timer = wheelTimer;
+        } else {
+            executor = Executors.newSingleThreadScheduledExecutor();
+            timer = Timer.toTimer(executor);
+        }
+
+        for (int i = 0; i < inFlight; i++) {
+            timer.schedule(IN_FLIGHT_DELAY, TimerBenchmark::noop);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (wheelTimer != null) {
+            wheelTimer.stop();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void schedule_and_cancel() {
+        Runnable cancel = timer.schedule(DELAY, TimerBenchmark::noop);
+        cancel.run();
+    }
+
+    private static void noop() {
+        // nothing to do
+    }
+}
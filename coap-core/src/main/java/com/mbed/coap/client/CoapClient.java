@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -52,6 +52,10 @@ public class CoapClient implements Closeable {
         return new CoapClient(target, server.clientService(), server::stop, resolvePingResponse);
     }
 
+    public static CoapClient create(InetSocketAddress target, Service<CoapRequest, CoapResponse> clientService, Closeable closeable, Function<CoapResponse, Boolean> resolvePingResponse) {
+        return new CoapClient(target, clientService, closeable, resolvePingResponse);
+    }
+
     CoapClient(InetSocketAddress destination, Service<CoapRequest, CoapResponse> clientService, Closeable closeable, Function<CoapResponse, Boolean> resolvePingResponse) {
         this.destination = destination;
         this.clientService = clientService;
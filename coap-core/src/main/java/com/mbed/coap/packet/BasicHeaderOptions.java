@@ -22,14 +22,15 @@ import com.mbed.coap.exception.CoapMessageFormatException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * Implements CoAP basic header options.
@@ -55,6 +56,9 @@ public class BasicHeaderOptions {
     //
     public static final short DEFAULT_MAX_AGE = 60;
     public static final String DEFAULT_URI_HOST = "";
+    static final int[] OPTION_NUMBERS = {
+            IF_MATCH, URI_HOST, ETAG, IF_NON_MATCH, URI_PORT, LOCATION_PATH, URI_PATH, CONTENT_FORMAT, MAX_AGE, URI_QUERY, ACCEPT, LOCATION_QUERY, PROXY_URI, PROXY_SCHEME, SIZE1
+    };
     //
     private Short contentFormat;
     private Long maxAge;
@@ -72,6 +76,10 @@ public class BasicHeaderOptions {
     private Integer uriPort;
     private Integer size1;
     private Map<Integer, RawOption> unrecognizedOptions;
+    // published with volatile write only after decoded fields are set, so that parsed options can be read from many threads
+    private transient volatile PendingOptions pendingOptions;
+    // guarded by this, set while pending options are being decoded by the owning thread
+    private transient boolean isDecoding;
 
     protected boolean parseOption(int type, Opaque data) {
         switch (type) {
@@ -126,6 +134,144 @@ public class BasicHeaderOptions {
         return true;
     }
 
+    /**
+     * Tells if option with given value length can be decoded on first access instead of while parsing.
+     * Only options which decoding can not fail may be deferred, so that malformed message is still rejected
+     * by de-serializer.
+     *
+     * @param type option number
+     * @param len length of option value
+     * @return true if option can be decoded lazily
+     */
+    protected boolean isLazilyDecodable(int type, int len) {
+        switch (type) {
+            case CONTENT_FORMAT:
+            case MAX_AGE:
+                return len <= 8;
+            case ACCEPT:
+            case URI_PORT:
+            case SIZE1:
+                return len <= 4;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Decodes all not yet decoded options with given number.
+     */
+    final void decodeLazily(int optNumber) {
+        if (pendingOptions == null) {
+            return;
+        }
+        synchronized (this) {
+            PendingOptions pending = pendingOptions;
+            // setters used by parseOption call back here
+            if (pending == null || isDecoding) {
+                return;
+            }
+            isDecoding = true;
+            try {
+                if (!pending.decode(optNumber, this)) {
+                    pendingOptions = null;
+                }
+            } finally {
+                isDecoding = false;
+            }
+        }
+    }
+
+    /**
+     * Decodes all not yet decoded options.
+     */
+    final void decodeLazily() {
+        if (pendingOptions == null) {
+            return;
+        }
+        synchronized (this) {
+            PendingOptions pending = pendingOptions;
+            if (pending == null || isDecoding) {
+                return;
+            }
+            isDecoding = true;
+            try {
+                pending.decodeAll(this);
+                pendingOptions = null;
+            } finally {
+                isDecoding = false;
+            }
+        }
+    }
+
+    private void decodeLazilyCritical(Collection<Integer> customOptions) {
+        if (pendingOptions == null) {
+            return;
+        }
+        synchronized (this) {
+            PendingOptions pending = pendingOptions;
+            if (pending == null) {
+                return;
+            }
+            for (int i = 0; i < pending.count; i++) {
+                int optNumber = pending.optNumber(i);
+                if (optNumber >= 0 && isCritical(optNumber) && !customOptions.contains(optNumber)) {
+                    decodeLazily(optNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Options recorded while parsing but not decoded yet, as (option number, offset, length) entries over message data.
+     */
+    static final class PendingOptions {
+        private final byte[] data;
+        private int[] entries = new int[3 * 8];
+        private int count;
+
+        PendingOptions(byte[] data) {
+            this.data = data;
+        }
+
+        void add(int optNumber, int offset, int len) {
+            if (entries.length == 3 * count) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            int i = 3 * count++;
+            entries[i] = optNumber;
+            entries[i + 1] = offset;
+            entries[i + 2] = len;
+        }
+
+        int optNumber(int index) {
+            return entries[3 * index];
+        }
+
+        /**
+         * @return true if there are still options left to decode
+         */
+        boolean decode(int optNumber, BasicHeaderOptions target) {
+            boolean pending = false;
+            for (int i = 0; i < 3 * count; i += 3) {
+                if (entries[i] == optNumber) {
+                    entries[i] = -1;
+                    target.put(optNumber, Opaque.wrap(data, entries[i + 1], entries[i + 2]));
+                } else if (entries[i] >= 0) {
+                    pending = true;
+                }
+            }
+            return pending;
+        }
+
+        void decodeAll(BasicHeaderOptions target) {
+            for (int i = 0; i < 3 * count; i += 3) {
+                if (entries[i] >= 0) {
+                    target.put(entries[i], Opaque.wrap(data, entries[i + 1], entries[i + 2]));
+                }
+            }
+        }
+    }
+
     /**
      * Returns value for given un-recognize option number.
      *
@@ -133,6 +279,7 @@ public class BasicHeaderOptions {
      * @return byte array value or null if does not exist
      */
     public Opaque getCustomOption(Integer optNumber) {
+        decodeLazily(optNumber);
         if (unrecognizedOptions == null || !unrecognizedOptions.containsKey(optNumber)) {
             return null;
         }
@@ -144,6 +291,7 @@ public class BasicHeaderOptions {
     }
 
     public boolean containsUnrecognisedCriticalOption(final Collection<Integer> customOptions) {
+        decodeLazilyCritical(customOptions);
         if (unrecognizedOptions == null) {
             return false;
         }
@@ -175,12 +323,13 @@ public class BasicHeaderOptions {
      * @return true if header type is a known, false for unknown header option
      */
     public final boolean put(int optionNumber, Opaque data) {
+        decodeLazily(optionNumber);
         if (parseOption(optionNumber, data)) {
             return true;
         }
         //unrecognizeg option header
         if (unrecognizedOptions == null) {
-            unrecognizedOptions = new HashMap<>();
+            unrecognizedOptions = new TreeMap<>();
         }
         if (data != null) {
             unrecognizedOptions.put(optionNumber, new RawOption(optionNumber, data));
@@ -194,65 +343,125 @@ public class BasicHeaderOptions {
     }
 
     /**
-     * Returns list with header options.
-     *
-     * @return sorted list
+     * Known option numbers in ascending order, that {@link #writeOption(int, OptionsWriter)} handles.
      */
-    List<RawOption> getRawOptions() {
-        LinkedList<RawOption> list = new LinkedList<>();
+    int[] optionNumbers() {
+        return OPTION_NUMBERS;
+    }
 
-        if (contentFormat != null) {
-            list.add(RawOption.fromUint(CONTENT_FORMAT, contentFormat.longValue()));
-        }
-        if (maxAge != null && maxAge != DEFAULT_MAX_AGE) {
-            list.add(RawOption.fromUint(MAX_AGE, maxAge));
-        }
-        if (etag != null) {
-            list.add(new RawOption(ETAG, etag));
-        }
-        if (uriHost != null && !uriHost.equals(DEFAULT_URI_HOST)) {
-            list.add(RawOption.fromString(URI_HOST, uriHost));
-        }
-        if (locationPath != null) {
-            list.add(RawOption.fromString(LOCATION_PATH, DataConvertingUtility.split(locationPath, '/')));
-        }
-        if (locationQuery != null) {
-            list.add(RawOption.fromString(LOCATION_QUERY, locationQuery.split("&")));
-        }
-        if (uriPath != null && !uriPath.equals("/")) {
-            list.add(RawOption.fromString(URI_PATH, DataConvertingUtility.split(uriPath, '/')));
-        }
-        if (uriQuery != null) {
-            list.add(RawOption.fromString(URI_QUERY, uriQuery.split("&")));
-        }
-        if (proxyUri != null) {
-            list.add(RawOption.fromString(PROXY_URI, proxyUri));
-        }
-        if (proxyScheme != null) {
-            list.add(RawOption.fromString(PROXY_SCHEME, proxyScheme));
-        }
-        if (this.accept != null) {
-            list.add(RawOption.fromUint(ACCEPT, accept.longValue()));
-        }
-        if (this.uriPort != null) {
-            list.add(RawOption.fromUint(URI_PORT, uriPort.longValue()));
-        }
-        if (ifNonMatch != null && ifNonMatch) {
-            list.add(RawOption.fromEmpty(IF_NON_MATCH));
-        }
-        if (ifMatch != null) {
-            list.add(new RawOption(IF_MATCH, ifMatch));
-        }
-        if (size1 != null) {
-            list.add(RawOption.fromUint(SIZE1, size1.longValue()));
+    /**
+     * Writes option with given number, if it is set.
+     */
+    void writeOption(int optNumber, OptionsWriter writer) {
+        switch (optNumber) {
+            case IF_MATCH:
+                if (ifMatch != null) {
+                    writer.write(IF_MATCH, ifMatch);
+                }
+                break;
+            case URI_HOST:
+                if (uriHost != null && !uriHost.equals(DEFAULT_URI_HOST)) {
+                    writer.writeString(URI_HOST, uriHost);
+                }
+                break;
+            case ETAG:
+                if (etag != null) {
+                    writer.write(ETAG, etag);
+                }
+                break;
+            case IF_NON_MATCH:
+                if (ifNonMatch != null && ifNonMatch) {
+                    writer.writeEmpty(IF_NON_MATCH);
+                }
+                break;
+            case URI_PORT:
+                if (uriPort != null) {
+                    writer.writeUint(URI_PORT, uriPort.longValue());
+                }
+                break;
+            case LOCATION_PATH:
+                if (locationPath != null) {
+                    writer.writeSplit(LOCATION_PATH, locationPath, '/', false);
+                }
+                break;
+            case URI_PATH:
+                if (uriPath != null && !uriPath.equals("/")) {
+                    writer.writeSplit(URI_PATH, uriPath, '/', false);
+                }
+                break;
+            case CONTENT_FORMAT:
+                if (contentFormat != null) {
+                    writer.writeUint(CONTENT_FORMAT, contentFormat.longValue());
+                }
+                break;
+            case MAX_AGE:
+                if (maxAge != null && maxAge != DEFAULT_MAX_AGE) {
+                    writer.writeUint(MAX_AGE, maxAge);
+                }
+                break;
+            case URI_QUERY:
+                if (uriQuery != null) {
+                    writer.writeSplit(URI_QUERY, uriQuery, '&', true);
+                }
+                break;
+            case ACCEPT:
+                if (accept != null) {
+                    writer.writeUint(ACCEPT, accept.longValue());
+                }
+                break;
+            case LOCATION_QUERY:
+                if (locationQuery != null) {
+                    writer.writeSplit(LOCATION_QUERY, locationQuery, '&', true);
+                }
+                break;
+            case PROXY_URI:
+                if (proxyUri != null) {
+                    writer.writeString(PROXY_URI, proxyUri);
+                }
+                break;
+            case PROXY_SCHEME:
+                if (proxyScheme != null) {
+                    writer.writeString(PROXY_SCHEME, proxyScheme);
+                }
+                break;
+            case SIZE1:
+                if (size1 != null) {
+                    writer.writeUint(SIZE1, size1.longValue());
+                }
+                break;
+            default:
+                break;
         }
+    }
 
-        if (unrecognizedOptions != null) {
-            for (RawOption rOpt : unrecognizedOptions.values()) {
-                list.add(rOpt);
+    /**
+     * Writes all options in ascending order, merging known options with unrecognized ones.
+     */
+    private void writeOptions(OptionsWriter writer) {
+        decodeLazily();
+        Iterator<RawOption> unrecognized = unrecognizedOptions != null ? unrecognizedOptions.values().iterator() : Collections.emptyIterator();
+        RawOption nextUnrecognized = unrecognized.hasNext() ? unrecognized.next() : null;
+
+        for (int optNumber : optionNumbers()) {
+            while (nextUnrecognized != null && nextUnrecognized.optNumber < optNumber) {
+                writer.write(nextUnrecognized.optNumber, nextUnrecognized.optValues);
+                nextUnrecognized = unrecognized.hasNext() ? unrecognized.next() : null;
             }
+            writeOption(optNumber, writer);
+        }
+        while (nextUnrecognized != null) {
+            writer.write(nextUnrecognized.optNumber, nextUnrecognized.optValues);
+            nextUnrecognized = unrecognized.hasNext() ? unrecognized.next() : null;
         }
-        return list;
+    }
+
+    /**
+     * Merges option numbers into sorted array without duplicates.
+     */
+    static int[] optionNumbers(int[] base, int... more) {
+        int[] all = Arrays.copyOf(base, base.length + more.length);
+        System.arraycopy(more, 0, all, base.length, more.length);
+        return Arrays.stream(all).distinct().sorted().toArray();
     }
 
     @Override
@@ -263,6 +472,7 @@ public class BasicHeaderOptions {
     }
 
     public void buildToString(StringBuilder sb) {
+        decodeLazily();
         if (uriPath != null) {
             sb.append(" URI:").append(uriPath);
         }
@@ -323,6 +533,7 @@ public class BasicHeaderOptions {
      * @return content format
      */
     public Short getContentFormat() {
+        decodeLazily(CONTENT_FORMAT);
         return contentFormat;
     }
 
@@ -332,6 +543,7 @@ public class BasicHeaderOptions {
      * @param contentFormat content format
      */
     public void setContentFormat(Short contentFormat) {
+        decodeLazily(CONTENT_FORMAT);
         this.contentFormat = contentFormat;
     }
 
@@ -351,6 +563,7 @@ public class BasicHeaderOptions {
      * @return max-age in seconds or null if absent
      */
     public final Long getMaxAge() {
+        decodeLazily(MAX_AGE);
         return maxAge;
     }
 
@@ -358,6 +571,7 @@ public class BasicHeaderOptions {
      * @return max-age in seconds
      */
     public final long getMaxAgeValue() {
+        decodeLazily(MAX_AGE);
         return maxAge != null ? maxAge : DEFAULT_MAX_AGE;
     }
 
@@ -369,6 +583,7 @@ public class BasicHeaderOptions {
      * @param maxAge max-age to set in seconds
      */
     public final void setMaxAge(Long maxAge) {
+        decodeLazily(MAX_AGE);
         this.maxAge = maxAge == null ? null : maxAge & 0xFFFFFFFFL;
     }
 
@@ -376,6 +591,7 @@ public class BasicHeaderOptions {
      * @return first etag from array or null of array is empty
      */
     public final Opaque getEtag() {
+        decodeLazily(ETAG);
         return etag == null ? null : etag[0];
     }
 
@@ -383,6 +599,7 @@ public class BasicHeaderOptions {
      * @param etag the etag to set
      */
     public final void setEtag(Opaque etag) {
+        decodeLazily(ETAG);
         if (etag == null || etag.isEmpty()) {
             this.etag = null;
             return;
@@ -394,10 +611,12 @@ public class BasicHeaderOptions {
     }
 
     public Opaque[] getEtagArray() {
+        decodeLazily(ETAG);
         return etag;
     }
 
     public void setEtag(Opaque[] etag) {
+        decodeLazily(ETAG);
         //test etag
         for (Opaque opaque : etag) {
             if (opaque.size() == 0 || opaque.size() > 8) {
@@ -411,6 +630,7 @@ public class BasicHeaderOptions {
      * @return the uriAuthority
      */
     public final String getUriAuthority() {
+        decodeLazily(URI_HOST);
         return uriHost;
     }
 
@@ -418,10 +638,12 @@ public class BasicHeaderOptions {
      * @param uriHost the uriHost to set
      */
     public final void setUriHost(String uriHost) {
+        decodeLazily(URI_HOST);
         this.uriHost = uriHost;
     }
 
     public String getUriHost() {
+        decodeLazily(URI_HOST);
         return uriHost;
     }
 
@@ -429,6 +651,7 @@ public class BasicHeaderOptions {
      * @return the location
      */
     public final String getLocationPath() {
+        decodeLazily(LOCATION_PATH);
         return locationPath;
     }
 
@@ -436,6 +659,7 @@ public class BasicHeaderOptions {
      * @param location the location to set
      */
     public final void setLocationPath(String location) {
+        decodeLazily(LOCATION_PATH);
         if (location != null && (location.equals(".") || location.equals(".."))) {
             throw new IllegalArgumentException("Illegal Location-Path: " + location);
         }
@@ -450,6 +674,7 @@ public class BasicHeaderOptions {
      * @return the uriPath
      */
     public final String getUriPath() {
+        decodeLazily(URI_PATH);
         return uriPath;
     }
 
@@ -459,6 +684,7 @@ public class BasicHeaderOptions {
      * @param uriPath the uriPath to set
      */
     public final void setUriPath(String uriPath) {
+        decodeLazily(URI_PATH);
         if (uriPath != null && (uriPath.length() == 0 || uriPath.equals("/"))) {
             this.uriPath = null;
         } else {
@@ -473,6 +699,7 @@ public class BasicHeaderOptions {
      * @return the uriQuery
      */
     public String getUriQuery() {
+        decodeLazily(URI_QUERY);
         return uriQuery;
     }
 
@@ -480,6 +707,7 @@ public class BasicHeaderOptions {
      * @param uriQuery the uriQuery to set
      */
     public void setUriQuery(String uriQuery) {
+        decodeLazily(URI_QUERY);
         if (uriQuery.isEmpty()) {
             this.uriQuery = null;
         } else {
@@ -492,6 +720,7 @@ public class BasicHeaderOptions {
     }
 
     public void setAccept(Integer accept) {
+        decodeLazily(ACCEPT);
         if (accept != null && (accept < 0 || accept > 0xFFFF)) {
             throw new IllegalArgumentException();
         }
@@ -499,58 +728,72 @@ public class BasicHeaderOptions {
     }
 
     public Integer getAccept() {
+        decodeLazily(ACCEPT);
         return accept;
     }
 
     public Opaque[] getIfMatch() {
+        decodeLazily(IF_MATCH);
         return ifMatch;
     }
 
     public void setIfMatch(Opaque[] ifMatch) {
+        decodeLazily(IF_MATCH);
         this.ifMatch = ifMatch;
     }
 
     public Boolean getIfNonMatch() {
+        decodeLazily(IF_NON_MATCH);
         return ifNonMatch;
     }
 
     public void setIfNonMatch(Boolean ifNonMatch) {
+        decodeLazily(IF_NON_MATCH);
         this.ifNonMatch = ifNonMatch;
     }
 
     public String getLocationQuery() {
+        decodeLazily(LOCATION_QUERY);
         return locationQuery;
     }
 
     public void setLocationQuery(String locationQuery) {
+        decodeLazily(LOCATION_QUERY);
         this.locationQuery = locationQuery;
     }
 
     public void setProxyUri(String proxyUri) {
+        decodeLazily(PROXY_URI);
         this.proxyUri = proxyUri;
     }
 
     public String getProxyUri() {
+        decodeLazily(PROXY_URI);
         return proxyUri;
     }
 
     public void setProxyScheme(String proxyScheme) {
+        decodeLazily(PROXY_SCHEME);
         this.proxyScheme = proxyScheme;
     }
 
     public String getProxyScheme() {
+        decodeLazily(PROXY_SCHEME);
         return proxyScheme;
     }
 
     public Integer getUriPort() {
+        decodeLazily(URI_PORT);
         return uriPort;
     }
 
     public void setUriPort(Integer uriPort) {
+        decodeLazily(URI_PORT);
         this.uriPort = uriPort;
     }
 
     public Map<String, String> getUriQueryMap() {
+        decodeLazily(URI_QUERY);
         if (uriQuery == null) {
             return Collections.emptyMap();
         }
@@ -558,68 +801,118 @@ public class BasicHeaderOptions {
     }
 
     public Integer getSize1() {
+        decodeLazily(SIZE1);
         return size1;
     }
 
     public void setSize1(Integer size) {
+        decodeLazily(SIZE1);
         this.size1 = size;
     }
 
     void serialize(OutputStream os) throws IOException {
-        List<RawOption> list = getRawOptions();
-        Collections.sort(list);
-
-        int lastOptNumber = 0;
-        for (RawOption opt : list) {
-            for (Opaque optValue : opt.optValues) {
-                int delta = opt.optNumber - lastOptNumber;
-                lastOptNumber = opt.optNumber;
-                if (delta > 0xFFFF + 269) {
-                    throw new IllegalArgumentException("Delta with size: " + delta + " is not supported [option number: " + opt.optNumber + "]");
-                }
-                int len = optValue.size();
-                if (len > 0xFFFF + 269) {
-                    throw new IllegalArgumentException("Header size: " + len + " is not supported [option number: " + opt.optNumber + "]");
-                }
-                writeOptionHeader(delta, len, os);
-                optValue.writeTo(os);
-            }
-        }
+        byte[] data = new byte[serializedSize()];
+        serialize(ByteBuffer.wrap(data));
+        os.write(data);
+    }
+
+    /**
+     * Returns exact number of bytes that serialized options will take.
+     */
+    int serializedSize() {
+        OptionsWriter writer = new OptionsWriter(null);
+        writeOptions(writer);
+        return writer.size();
     }
 
-    static void writeOptionHeader(int delta, int len, OutputStream os) throws IOException {
-        //first byte
-        int tempByte;
-        if (delta <= 12) {
-            tempByte = delta << 4;
-        } else if (delta < 269) {
-            tempByte = 13 << 4;
+    void serialize(ByteBuffer buf) {
+        writeOptions(new OptionsWriter(buf));
+    }
+
+    static int optionHeaderSize(int delta, int len) {
+        return 1 + extendedFieldSize(delta) + extendedFieldSize(len);
+    }
+
+    private static int extendedFieldSize(int val) {
+        if (val <= 12) {
+            return 0;
+        } else if (val < 269) {
+            return 1;
         } else {
-            tempByte = 14 << 4;
+            return 2;
         }
-        if (len <= 12) {
-            tempByte |= len;
-        } else if (len < 269) {
-            tempByte |= 13;
+    }
+
+    static void writeOptionHeader(int delta, int len, ByteBuffer buf) {
+        buf.put((byte) ((nibble(delta) << 4) | nibble(len)));
+        writeExtendedField(delta, buf);
+        writeExtendedField(len, buf);
+    }
+
+    private static int nibble(int val) {
+        if (val <= 12) {
+            return val;
+        } else if (val < 269) {
+            return 13;
         } else {
-            tempByte |= 14;
+            return 14;
         }
-        os.write(tempByte);
+    }
 
-        //extended option delta
-        if (delta > 12 && delta < 269) {
-            os.write(delta - 13);
-        } else if (delta >= 269) {
-            os.write((0xFF00 & (delta - 269)) >> 8);
-            os.write(0x00FF & (delta - 269));
+    private static void writeExtendedField(int val, ByteBuffer buf) {
+        if (val > 12 && val < 269) {
+            buf.put((byte) (val - 13));
+        } else if (val >= 269) {
+            buf.putShort((short) (val - 269));
         }
-        //extended len
-        if (len > 12 && len < 269) {
-            os.write(len - 13);
-        } else if (len >= 269) {
-            os.write((0xFF00 & (len - 269)) >> 8);
-            os.write(0x00FF & (len - 269));
+    }
+
+    /**
+     * De-serializes CoAP header options directly from buffer, reading until payload marker or end of buffer.
+     * Options are only indexed, and decoded on first access, see {@link #isLazilyDecodable(int, int)}.
+     * Opaque option values are views on buffer's backing array.
+     *
+     * @return true if payload marker was found
+     */
+    boolean deserialize(ByteBuffer buf) throws CoapMessageFormatException {
+        int headerOptNum = 0;
+        while (buf.hasRemaining()) {
+            int hdrByte = read8(buf);
+
+            if (hdrByte == CoapSerializer.PAYLOAD_MARKER) {
+                return true;
+            }
+            int delta = hdrByte >> 4;
+            int len = 0xF & hdrByte;
+
+            if (delta == 15 || len == 15) {
+                throw new CoapMessageFormatException("Unexpected delta or len value in option header after optNum: " + headerOptNum);
+            }
+            if (delta == 13) {
+                delta += read8(buf);
+            } else if (delta == 14) {
+                delta = read16(buf) + 269;
+            }
+            if (len == 13) {
+                len += read8(buf);
+            } else if (len == 14) {
+                len = read16(buf) + 269;
+            }
+            headerOptNum += delta;
+            if (buf.hasArray() && isLazilyDecodable(headerOptNum, len)) {
+                if (len > buf.remaining()) {
+                    throw new BufferUnderflowException();
+                }
+                if (pendingOptions == null) {
+                    pendingOptions = new PendingOptions(buf.array());
+                }
+                pendingOptions.add(headerOptNum, buf.arrayOffset() + buf.position(), len);
+                buf.position(buf.position() + len);
+            } else {
+                put(headerOptNum, Opaque.readView(buf, len));
+            }
         }
+        return false;
     }
 
     boolean deserialize(InputStream inputStream) throws IOException, CoapMessageFormatException {
@@ -681,6 +974,7 @@ public class BasicHeaderOptions {
     }
 
     public void duplicate(BasicHeaderOptions opts) {
+        decodeLazily();
         opts.contentFormat = contentFormat;
         opts.maxAge = maxAge;
         opts.etag = etag;
@@ -701,6 +995,7 @@ public class BasicHeaderOptions {
 
     @Override
     public int hashCode() {
+        decodeLazily();
         int hash = 7;
         hash = 41 * hash + (this.contentFormat != null ? this.contentFormat.hashCode() : 0);
         hash = 41 * hash + (this.maxAge != null ? this.maxAge.hashCode() : 0);
@@ -730,6 +1025,8 @@ public class BasicHeaderOptions {
             return false;
         }
         final BasicHeaderOptions other = (BasicHeaderOptions) obj;
+        decodeLazily();
+        other.decodeLazily();
         if (!Objects.equals(this.contentFormat, other.contentFormat)) {
             return false;
         }
@@ -43,12 +43,16 @@ public final class BlockOption implements Serializable {
     }
 
     public Opaque toBytes() {
+        return Opaque.variableUInt(toRawValue());
+    }
+
+    int toRawValue() {
         int block = blockNr << 4;
         if (more) {
             block |= 1 << 3;
         }
         block |= blockSize.toRawSzx();
-        return Opaque.variableUInt(block);
+        return block;
     }
 
     /**
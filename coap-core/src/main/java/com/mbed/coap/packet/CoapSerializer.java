@@ -17,12 +17,12 @@
 package com.mbed.coap.packet;
 
 import com.mbed.coap.exception.CoapException;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 
 public class CoapSerializer {
     static final int PAYLOAD_MARKER = 0xFF;
@@ -34,10 +34,56 @@ public class CoapSerializer {
      * @return serialized data
      */
     public static byte[] serialize(CoapPacket coapPacket) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] data = new byte[serializedSize(coapPacket)];
 
-        serialize(coapPacket, outputStream);
-        return outputStream.toByteArray();
+        serialize(coapPacket, ByteBuffer.wrap(data));
+        return data;
+    }
+
+    /**
+     * Calculates exact size of serialized CoAP message.
+     *
+     * @param coapPacket CoAP packet object
+     * @return number of bytes
+     */
+    public static int serializedSize(CoapPacket coapPacket) {
+        int size = 4 + coapPacket.getToken().size() + coapPacket.headers().serializedSize();
+        if (coapPacket.getPayload().nonEmpty()) {
+            size += 1 + coapPacket.getPayload().size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes serialized CoAP packet directly into given buffer, starting at its current position.
+     * Buffer must have at least {@link #serializedSize(CoapPacket)} bytes remaining.
+     *
+     * @param coap CoAP packet object
+     * @param buffer heap or direct buffer
+     * @throws java.nio.BufferOverflowException if there is insufficient space in the buffer
+     */
+    public static void serialize(CoapPacket coap, ByteBuffer buffer) {
+        int tempByte;
+
+        tempByte = (0x3 & 1) << 6;                                 // Version
+        tempByte |= (0x3 & coap.getMessageType().ordinal()) << 4;  // Transaction Message Type
+        tempByte |= coap.getToken().size() & 0xF;                  // Token length
+
+        buffer.put((byte) tempByte);
+        buffer.put((byte) codeOf(coap));
+        buffer.putShort((short) coap.getMessageId());
+
+        //token
+        coap.getToken().writeTo(buffer);
+
+        // options
+        coap.headers().serialize(buffer);
+
+        //payload
+        if (coap.getPayload().nonEmpty()) {
+            buffer.put((byte) PAYLOAD_MARKER);
+            coap.getPayload().writeTo(buffer);
+        }
     }
 
     /**
@@ -76,6 +122,11 @@ public class CoapSerializer {
     }
 
     public static Code writeCode(OutputStream os, CoapPacket coapPacket) throws IOException {
+        os.write(codeOf(coapPacket));
+        return coapPacket.getCode();
+    }
+
+    private static int codeOf(CoapPacket coapPacket) {
         Code code = coapPacket.getCode();
         Method method = coapPacket.getMethod();
 
@@ -83,13 +134,12 @@ public class CoapSerializer {
             throw new IllegalStateException("Forbidden operation: 'code' and 'method' use at a same time");
         }
         if (code != null) {
-            os.write(code.getCoapCode());
+            return code.getCoapCode();
         } else if (method != null) {
-            os.write(method.getCode());
+            return method.getCode();
         } else { //no code or method used
-            os.write(0);
+            return 0;
         }
-        return code;
     }
 
     /**
@@ -114,8 +164,81 @@ public class CoapSerializer {
      * @throws CoapException if can not parse
      */
     public static CoapPacket deserialize(InetSocketAddress remoteAddress, byte[] rawData, int length) throws CoapException {
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(rawData, 0, length);
-        return deserialize(remoteAddress, inputStream);
+        return deserialize(remoteAddress, ByteBuffer.wrap(rawData, 0, length));
+    }
+
+    /**
+     * Reads CoAP packet directly from buffer, consuming all remaining bytes.
+     * Message is copied once, so buffer can be reused afterwards.
+     *
+     * @param remoteAddress remote address
+     * @param buffer heap or direct buffer, positioned at the beginning of message
+     * @return CoapPacket instance
+     * @throws CoapException if can not parse
+     */
+    public static CoapPacket deserialize(InetSocketAddress remoteAddress, ByteBuffer buffer) throws CoapException {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return deserializeNoCopy(remoteAddress, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Reads CoAP packet directly from buffer, consuming all remaining bytes. When buffer is backed by an accessible array,
+     * option values and payload are views on that array (token is always copied), so buffer's content must not be
+     * modified afterwards.
+     *
+     * @param remoteAddress remote address
+     * @param buffer heap buffer, positioned at the beginning of message
+     * @return CoapPacket instance
+     * @throws CoapException if can not parse
+     */
+    public static CoapPacket deserializeNoCopy(InetSocketAddress remoteAddress, ByteBuffer buffer) throws CoapException {
+        CoapPacket coap = new CoapPacket(remoteAddress);
+        try {
+            int tempByte = PacketUtils.read8(buffer);      //first byte
+
+            int version = (byte) ((tempByte & 0xC0) >> 6);
+            if (version != 1) {
+                throw new CoapException("CoAP version %s not supported", version);
+            }
+
+            coap.setMessageType(MessageType.valueOf((tempByte >> 4) & 0x3));
+
+            byte tokenLen = (byte) (tempByte & 0x0F);
+            if (tokenLen > 8) {
+                throw new CoapException("Wrong TOKEN value, size should be within range 0-8");
+            }
+
+            tempByte = PacketUtils.read8(buffer);         //second byte
+            if (tempByte >= 1 && tempByte <= 10) {
+                //method code
+                coap.setMethod(Method.valueOf(tempByte));
+            } else {
+                coap.setCode(Code.valueOf(tempByte));
+            }
+
+            coap.setMessageId(PacketUtils.read16(buffer));
+
+            //token
+            coap.setToken(Opaque.read(buffer, tokenLen));
+
+            //read headers
+            HeaderOptions options = new HeaderOptions();
+            boolean hasPayloadMarker = options.deserialize(buffer);
+            coap.setHeaderOptions(options);
+
+            //read payload
+            if (hasPayloadMarker) {
+                coap.setPayload(Opaque.readView(buffer, buffer.remaining()));
+            }
+
+            return coap;
+
+        } catch (BufferUnderflowException ex) {
+            throw new CoapException("Unexpected end of message", ex);
+        } catch (IllegalArgumentException ex) {
+            throw new CoapException(ex);
+        }
     }
 
     /**
@@ -17,7 +17,6 @@
 package com.mbed.coap.packet;
 
 import static com.mbed.coap.utils.Validations.require;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -44,6 +43,9 @@ public class HeaderOptions extends BasicHeaderOptions {
     private static final int ECHO = 252;
     private static final int REQUEST_TAG = 292;
     public static final int OPEN_COAP_CORRELATION_TAG = 29644; // open-coap specific option for request tracing
+    static final int[] OPTION_NUMBERS = optionNumbers(BasicHeaderOptions.OPTION_NUMBERS,
+            OBSERVE, BLOCK_1_REQ, BLOCK_2_RES, SIZE_2_RES, ECHO, REQUEST_TAG, OPEN_COAP_CORRELATION_TAG
+    );
     private Integer observe;
     private BlockOption block1Req;
     private BlockOption block2Res;
@@ -84,35 +86,75 @@ public class HeaderOptions extends BasicHeaderOptions {
     }
 
     @Override
-    List<RawOption> getRawOptions() {
-        List<RawOption> l = super.getRawOptions();
-        if (observe != null) {
-            if (observe == 0) {
-                l.add(RawOption.fromEmpty(OBSERVE));
-            } else {
-                l.add(RawOption.fromUint(OBSERVE, observe.longValue()));
-            }
-        }
-        if (block1Req != null) {
-            l.add(new RawOption(BLOCK_1_REQ, new Opaque[]{getBlock1Req().toBytes()}));
-        }
-        if (block2Res != null) {
-            l.add(new RawOption(BLOCK_2_RES, new Opaque[]{getBlock2Res().toBytes()}));
-        }
-        if (size2Res != null) {
-            l.add(RawOption.fromUint(SIZE_2_RES, size2Res.longValue()));
-        }
-        if (echo != null) {
-            l.add(new RawOption(ECHO, echo));
-        }
-        if (requestTag != null) {
-            l.add(new RawOption(REQUEST_TAG, requestTag));
-        }
-        if (correlationTag != null) {
-            l.add(new RawOption(OPEN_COAP_CORRELATION_TAG, Opaque.of(correlationTag)));
+    protected boolean isLazilyDecodable(int type, int len) {
+        switch (type) {
+            case OBSERVE:
+                return len <= 3;
+            case BLOCK_1_REQ:
+            case BLOCK_2_RES:
+            case SIZE_2_RES:
+                return len <= 4;
+            case ECHO:
+                return len <= 40;
+            case REQUEST_TAG:
+                return len <= 8;
+            case OPEN_COAP_CORRELATION_TAG:
+                return len <= 36;
+            default:
+                return super.isLazilyDecodable(type, len);
         }
+    }
+
+    @Override
+    int[] optionNumbers() {
+        return OPTION_NUMBERS;
+    }
 
-        return l;
+    @Override
+    void writeOption(int optNumber, OptionsWriter writer) {
+        switch (optNumber) {
+            case OBSERVE:
+                if (observe != null) {
+                    if (observe == 0) {
+                        writer.writeEmpty(OBSERVE);
+                    } else {
+                        writer.writeUint(OBSERVE, observe.longValue());
+                    }
+                }
+                break;
+            case BLOCK_1_REQ:
+                if (block1Req != null) {
+                    writer.writeUint(BLOCK_1_REQ, block1Req.toRawValue());
+                }
+                break;
+            case BLOCK_2_RES:
+                if (block2Res != null) {
+                    writer.writeUint(BLOCK_2_RES, block2Res.toRawValue());
+                }
+                break;
+            case SIZE_2_RES:
+                if (size2Res != null) {
+                    writer.writeUint(SIZE_2_RES, size2Res.longValue());
+                }
+                break;
+            case ECHO:
+                if (echo != null) {
+                    writer.write(ECHO, echo);
+                }
+                break;
+            case REQUEST_TAG:
+                if (requestTag != null) {
+                    writer.write(REQUEST_TAG, requestTag);
+                }
+                break;
+            case OPEN_COAP_CORRELATION_TAG:
+                if (correlationTag != null) {
+                    writer.writeString(OPEN_COAP_CORRELATION_TAG, correlationTag);
+                }
+                break;
+            default:
+                super.writeOption(optNumber, writer);
+        }
     }
 
     @Override
@@ -147,6 +189,7 @@ public class HeaderOptions extends BasicHeaderOptions {
      * @return the subsLifetime
      */
     public Integer getObserve() {
+        decodeLazily(OBSERVE);
         return observe;
     }
 
@@ -156,6 +199,7 @@ public class HeaderOptions extends BasicHeaderOptions {
      * @param observe the subsLifetime to set
      */
     public void setObserve(Integer observe) {
+        decodeLazily(OBSERVE);
         if (observe != null && (observe < 0 || observe > 0xFFFFFF)) {
             throw new IllegalArgumentException("Illegal observe argument: " + observe);
         }
@@ -166,14 +210,17 @@ public class HeaderOptions extends BasicHeaderOptions {
      * @return the request block
      */
     public BlockOption getBlock1Req() {
+        decodeLazily(BLOCK_1_REQ);
         return block1Req;
     }
 
     public BlockOption getBlock2Res() {
+        decodeLazily(BLOCK_2_RES);
         return block2Res;
     }
 
     public Integer getSize2Res() {
+        decodeLazily(SIZE_2_RES);
         return size2Res;
     }
 
@@ -181,41 +228,50 @@ public class HeaderOptions extends BasicHeaderOptions {
      * @param block the block to set
      */
     public void setBlock1Req(BlockOption block) {
+        decodeLazily(BLOCK_1_REQ);
         this.block1Req = block;
     }
 
     public void setBlock2Res(BlockOption block) {
+        decodeLazily(BLOCK_2_RES);
         this.block2Res = block;
     }
 
     public void setSize2Res(Integer size2Res) {
+        decodeLazily(SIZE_2_RES);
         this.size2Res = size2Res;
     }
 
     public void setEcho(Opaque echo) {
+        decodeLazily(ECHO);
         require(echo == null || echo.size() <= 40);
         this.echo = echo;
     }
 
     public Opaque getEcho() {
+        decodeLazily(ECHO);
         return echo;
     }
 
     public void setRequestTag(Opaque requestTag) {
+        decodeLazily(REQUEST_TAG);
         require(requestTag == null || requestTag.size() <= 8);
         this.requestTag = requestTag;
     }
 
     public Opaque getRequestTag() {
+        decodeLazily(REQUEST_TAG);
         return requestTag;
     }
 
     void setCorrelationTag(String corrTag) {
+        decodeLazily(OPEN_COAP_CORRELATION_TAG);
         require(corrTag == null || corrTag.length() <= 36);
         this.correlationTag = corrTag;
     }
 
     public String getCorrelationTag() {
+        decodeLazily(OPEN_COAP_CORRELATION_TAG);
         return correlationTag;
     }
 
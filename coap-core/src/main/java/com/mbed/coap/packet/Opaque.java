@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -17,21 +17,55 @@
 package com.mbed.coap.packet;
 
 import com.mbed.coap.CoapConstants;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
+/**
+ * Immutable sequence of bytes. It may represent a window (offset, length) onto a larger array, which makes it
+ * possible to reference parts of a received message or a payload without copying.
+ */
 public final class Opaque {
     private final static String HEX_DIGIT_STRING = "0123456789abcdef";
     private final static char[] HEX_DIGITS = HEX_DIGIT_STRING.toCharArray();
     private final byte[] data;
+    private final int offset;
+    private final int length;
     public static final Opaque EMPTY = new Opaque(new byte[0]);
 
     public Opaque(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    private Opaque(byte[] data, int offset, int length) {
         this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates opaque that is a view on part of given array, without copying it.
+     * Array must not be modified afterwards.
+     *
+     * @param data array
+     * @param offset index of first byte
+     * @param length number of bytes
+     * @return opaque
+     */
+    public static Opaque wrap(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + data.length);
+        }
+        if (length == 0) {
+            return EMPTY;
+        }
+        return new Opaque(data, offset, length);
     }
 
     public static Opaque of(byte... data) {
@@ -112,12 +146,57 @@ public final class Opaque {
         return new Opaque(data);
     }
 
+    /**
+     * Reads given number of bytes from buffer, starting at its current position.
+     *
+     * @param buffer heap or direct buffer
+     * @param len number of bytes to read
+     * @return opaque value
+     * @throws java.nio.BufferUnderflowException if there are fewer than len bytes remaining
+     */
+    public static Opaque read(ByteBuffer buffer, int len) {
+        if (len == 0) {
+            return Opaque.EMPTY;
+        }
+        byte[] data = new byte[len];
+        buffer.get(data);
+
+        return new Opaque(data);
+    }
+
+    /**
+     * Reads given number of bytes from buffer, without copying when buffer is backed by accessible array.
+     * In that case returned opaque is a view and buffer's content must not be modified afterwards.
+     */
+    static Opaque readView(ByteBuffer buffer, int len) {
+        if (!buffer.hasArray()) {
+            return read(buffer, len);
+        }
+        if (len > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        Opaque view = wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), len);
+        buffer.position(buffer.position() + len);
+        return view;
+    }
+
     public int size() {
-        return data.length;
+        return length;
     }
 
     public void writeTo(OutputStream outputStream) throws IOException {
-        outputStream.write(data);
+        outputStream.write(data, offset, length);
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(data, offset, length);
+    }
+
+    /**
+     * Returns input stream that reads directly from this opaque window, without copying it.
+     */
+    public InputStream inputStream() {
+        return new ByteArrayInputStream(data, offset, length);
     }
 
     @Override
@@ -126,7 +205,7 @@ public final class Opaque {
     }
 
     public String toHex() {
-        return toHex(data.length);
+        return toHex(length);
     }
 
     public String toHex(int maxLen) {
@@ -134,8 +213,8 @@ public final class Opaque {
     }
 
     String toHexShort(final int maxLen) {
-        if (data.length <= maxLen) {
-            return encodeToHex(data.length);
+        if (length <= maxLen) {
+            return encodeToHex(length);
         } else {
             return encodeToHex(maxLen) + "..";
         }
@@ -144,7 +223,7 @@ public final class Opaque {
     private String encodeToHex(final int len) {
         final char[] retVal = new char[len * 2];
         int k = 0;
-        for (int i = 0; i < len; i++) {
+        for (int i = offset; i < offset + len; i++) {
             retVal[k++] = HEX_DIGITS[(data[i] & 0xf0) >>> 4];
             retVal[k++] = HEX_DIGITS[data[i] & 0x0f];
         }
@@ -152,57 +231,58 @@ public final class Opaque {
     }
 
     public long toLong() {
-        if (data.length > 8) {
+        if (length > 8) {
             throw new IllegalArgumentException();
         }
         long val = 0L;
-        for (byte b : data) {
+        for (int i = offset; i < offset + length; i++) {
             val <<= 8;
-            val += b & 0xFF;
+            val += data[i] & 0xFF;
         }
         return val;
     }
 
     public int toInt() {
-        if (data.length > 4) {
+        if (length > 4) {
             throw new IllegalArgumentException();
         }
         return (int) toLong();
     }
 
     public String toUtf8String() {
-        return new String(data, CoapConstants.DEFAULT_CHARSET);
+        return new String(data, offset, length, CoapConstants.DEFAULT_CHARSET);
     }
 
     public boolean isEmpty() {
-        return data.length == 0;
+        return length == 0;
     }
 
     public boolean nonEmpty() {
-        return data.length > 0;
+        return length > 0;
     }
 
     public Opaque concat(Opaque other) {
-        byte[] newArr = new byte[data.length + other.data.length];
-        System.arraycopy(data, 0, newArr, 0, data.length);
-        System.arraycopy(other.data, 0, newArr, data.length, other.data.length);
+        byte[] newArr = new byte[length + other.length];
+        System.arraycopy(data, offset, newArr, 0, length);
+        System.arraycopy(other.data, other.offset, newArr, length, other.length);
         return new Opaque(newArr);
     }
 
+    /**
+     * Returns part of this opaque. Returned instance is a view that shares underlying array, no data is copied.
+     */
     public Opaque slice(int indexFrom, int len) {
         int indexTo = indexFrom + len;
-        if (indexTo > data.length) {
-            indexTo = data.length;
+        if (indexTo > length) {
+            indexTo = length;
         }
-        if (indexFrom > indexTo) {
+        if (indexFrom >= indexTo) {
             return Opaque.EMPTY;
         }
-        if (indexFrom == 0 && indexTo == data.length) {
+        if (indexFrom == 0 && indexTo == length) {
             return this;
         }
-        return new Opaque(
-                Arrays.copyOfRange(data, indexFrom, indexTo)
-        );
+        return new Opaque(data, offset + indexFrom, indexTo - indexFrom);
     }
 
     public Opaque fragment(int num, int fragmentLen, int maxNumOfFragments) {
@@ -213,8 +293,15 @@ public final class Opaque {
         return fragment(num, fragmentLen, 1);
     }
 
+    /**
+     * Returns content as byte array. Underlying array is returned when this opaque covers it entirely,
+     * otherwise a copy of the window.
+     */
     public byte[] getBytes() {
-        return data;
+        if (offset == 0 && length == data.length) {
+            return data;
+        }
+        return Arrays.copyOfRange(data, offset, offset + length);
     }
 
     @Override
@@ -226,12 +313,25 @@ public final class Opaque {
             return false;
         }
         Opaque opaque = (Opaque) o;
-        return Arrays.equals(data, opaque.data);
+        if (length != opaque.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data[offset + i] != opaque.data[opaque.offset + i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(data);
+        // same as Arrays.hashCode(getBytes())
+        int result = 1;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + data[i];
+        }
+        return result;
     }
 
 }
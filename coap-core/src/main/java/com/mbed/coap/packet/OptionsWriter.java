@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.packet;
+
+import static com.mbed.coap.packet.BasicHeaderOptions.optionHeaderSize;
+import static com.mbed.coap.packet.BasicHeaderOptions.writeOptionHeader;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes header options straight from typed values, without intermediate Opaque objects.
+ * Options must be written in ascending option number order. When created without buffer, it only counts
+ * encoded size.
+ */
+final class OptionsWriter {
+    private static final int MAX_EXTENDED_VALUE = 0xFFFF + 269;
+
+    private final ByteBuffer buf;
+    private int lastOptNumber;
+    private int size;
+
+    OptionsWriter(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * @return number of written (or counted) bytes
+     */
+    int size() {
+        return size;
+    }
+
+    void writeEmpty(int optNumber) {
+        writeHeader(optNumber, 0);
+    }
+
+    void writeUint(int optNumber, long value) {
+        int len = uintSize(value);
+        writeHeader(optNumber, len);
+        if (buf != null) {
+            for (int i = len - 1; i >= 0; i--) {
+                buf.put((byte) (value >> 8 * i));
+            }
+        }
+    }
+
+    void write(int optNumber, Opaque value) {
+        writeHeader(optNumber, value.size());
+        if (buf != null) {
+            value.writeTo(buf);
+        }
+    }
+
+    void write(int optNumber, Opaque[] values) {
+        for (Opaque value : values) {
+            write(optNumber, value);
+        }
+    }
+
+    void writeString(int optNumber, String value) {
+        writeString(optNumber, value, 0, value.length());
+    }
+
+    /**
+     * Writes every segment of the value separated with given character as separate option.
+     * Leading empty segment is skipped.
+     *
+     * @param dropTrailingEmpty if true, trailing empty segments are skipped (String.split semantic)
+     */
+    void writeSplit(int optNumber, String value, char separator, boolean dropTrailingEmpty) {
+        int end = value.length();
+        if (dropTrailingEmpty) {
+            while (end > 0 && value.charAt(end - 1) == separator) {
+                end--;
+            }
+            if (end == 0) {
+                return;
+            }
+        }
+        int from = 0;
+        int sepIndex = value.indexOf(separator);
+        if (sepIndex == 0) {
+            from = 1;
+            sepIndex = value.indexOf(separator, 1);
+        } else if (sepIndex < 0 && end == 0) {
+            // single empty segment
+            return;
+        }
+
+        while (sepIndex >= 0 && sepIndex < end) {
+            writeString(optNumber, value, from, sepIndex);
+            from = sepIndex + 1;
+            sepIndex = value.indexOf(separator, from);
+        }
+        if (from <= end) {
+            writeString(optNumber, value, from, end);
+        }
+    }
+
+    private void writeString(int optNumber, String value, int from, int to) {
+        writeHeader(optNumber, utf8Size(value, from, to));
+        if (buf != null) {
+            putUtf8(value, from, to);
+        }
+    }
+
+    private void writeHeader(int optNumber, int len) {
+        int delta = optNumber - lastOptNumber;
+        lastOptNumber = optNumber;
+        if (delta > MAX_EXTENDED_VALUE) {
+            throw new IllegalArgumentException("Delta with size: " + delta + " is not supported [option number: " + optNumber + "]");
+        }
+        if (len > MAX_EXTENDED_VALUE) {
+            throw new IllegalArgumentException("Header size: " + len + " is not supported [option number: " + optNumber + "]");
+        }
+        size += optionHeaderSize(delta, len) + len;
+        if (buf != null) {
+            writeOptionHeader(delta, len, buf);
+        }
+    }
+
+    /**
+     * Same length as {@link Opaque#variableUInt(long)} produces.
+     */
+    static int uintSize(long num) {
+        if (num <= 0xffL) {
+            return 1;
+        } else if (num <= 0xffffL) {
+            return 2;
+        } else if (num <= 0xffffffL) {
+            return 3;
+        } else if (num <= 0xffffffffL) {
+            return 4;
+        } else if (num <= 0xffffffffffL) {
+            return 5;
+        } else if (num <= 0xffffffffffffL) {
+            return 6;
+        } else if (num <= 0xffffffffffffffL) {
+            return 7;
+        }
+        return 8;
+    }
+
+    // UTF-8 encoding, compatible with String.getBytes(UTF_8): unpaired surrogate is replaced with '?'
+
+    static int utf8Size(String value, int from, int to) {
+        int len = 0;
+        int i = from;
+        while (i < to) {
+            char c = value.charAt(i++);
+            if (c < 0x80) {
+                len += 1;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(value.charAt(i))) {
+                len += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                len += 1;
+            } else {
+                len += 3;
+            }
+        }
+        return len;
+    }
+
+    private void putUtf8(String value, int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = value.charAt(i++);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | c >> 6));
+                buf.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(value.charAt(i))) {
+                int cp = Character.toCodePoint(c, value.charAt(i++));
+                buf.put((byte) (0xF0 | cp >> 18));
+                buf.put((byte) (0x80 | cp >> 12 & 0x3F));
+                buf.put((byte) (0x80 | cp >> 6 & 0x3F));
+                buf.put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf.put((byte) '?');
+            } else {
+                buf.put((byte) (0xE0 | c >> 12));
+                buf.put((byte) (0x80 | c >> 6 & 0x3F));
+                buf.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
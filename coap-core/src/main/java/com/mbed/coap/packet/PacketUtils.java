@@ -18,6 +18,7 @@ package com.mbed.coap.packet;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Minor CoapPacket binary read/write utility methods with specific optional checks.
@@ -34,4 +35,12 @@ class PacketUtils {
         return is.read();
     }
 
+    static int read16(ByteBuffer buf) {
+        return buf.getShort() & 0xFFFF;
+    }
+
+    static int read8(ByteBuffer buf) {
+        return buf.get() & 0xFF;
+    }
+
 }
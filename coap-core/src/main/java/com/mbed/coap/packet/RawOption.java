@@ -19,38 +19,11 @@ package com.mbed.coap.packet;
 import java.util.Arrays;
 
 
-final class RawOption implements Comparable<RawOption> {
+final class RawOption {
 
     final int optNumber;
     final Opaque[] optValues;
 
-    static RawOption fromString(int num, String[] strArray) {
-        Opaque[] bt;
-        int skip = 0;
-        if (strArray.length > 0 && strArray[0].length() == 0) {
-            bt = new Opaque[strArray.length - 1];
-            skip = 1;
-        } else {
-            bt = new Opaque[strArray.length];
-        }
-        for (int i = 0; i < bt.length; i++) {
-            bt[i] = Opaque.of(strArray[i + skip]);
-        }
-        return new RawOption(num, bt);
-    }
-
-    static RawOption fromUint(int num, long uintVal) {
-        return new RawOption(num, new Opaque[]{Opaque.variableUInt(uintVal)});
-    }
-
-    static RawOption fromString(int num, String stringVal) {
-        return new RawOption(num, new Opaque[]{Opaque.of(stringVal)});
-    }
-
-    static RawOption fromEmpty(int num) {
-        return new RawOption(num, new Opaque[]{Opaque.EMPTY});
-    }
-
     RawOption(int optNumber, Opaque[] optValues) {
         this.optNumber = optNumber;
         this.optValues = optValues;
@@ -66,11 +39,6 @@ final class RawOption implements Comparable<RawOption> {
         return optValues.length > 0 ? optValues[0] : null;
     }
 
-    @Override
-    public int compareTo(RawOption o) {
-        return Integer.compare(optNumber, o.optNumber);
-    }
-
     @Override
     public int hashCode() {
         int hash = 3;
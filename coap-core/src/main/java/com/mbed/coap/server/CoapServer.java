@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2024 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -64,21 +64,23 @@ public class CoapServer {
         assume(!isRunning.getAndSet(true), "CoapServer is running");
         transport.start();
 
-        transport.receive().whenComplete(this::handle);
+        transport.receiveAll(this::handle).whenComplete((__, error) -> {
+            if (error != null) {
+                stopWithError(error);
+            } else {
+                // transport stopped receiving, for example its channel was closed
+                stop();
+            }
+        });
         return this;
     }
 
-    private void handle(CoapPacket packet, Throwable error) {
-        if (error != null) {
-            stopWithError(error);
-            return;
-        }
+    private void handle(CoapPacket packet) {
         try {
             dispatcher.accept(packet);
         } catch (Exception ex) {
             LOGGER.error("Unexpected exception while handling packet: {}, error: {}", packet, ex, ex);
         }
-        transport.receive().whenComplete(this::handle);
     }
 
     private void stopWithError(Throwable error) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2025 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -30,6 +30,7 @@ import com.mbed.coap.packet.SeparateResponse;
 import com.mbed.coap.server.block.BlockWiseIncomingFilter;
 import com.mbed.coap.server.block.BlockWiseNotificationFilter;
 import com.mbed.coap.server.block.BlockWiseOutgoingFilter;
+import com.mbed.coap.server.block.BlockWiseStorage;
 import com.mbed.coap.server.filter.CongestionControlFilter;
 import com.mbed.coap.server.filter.EchoFilter;
 import com.mbed.coap.server.filter.ResponseTimeoutFilter;
@@ -61,6 +62,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -71,18 +73,26 @@ public final class CoapServerBuilder {
     private int duplicationMaxSize = 10000;
     private PutOnlyMap<CoapRequestId, CoapPacket> duplicateDetectionCache;
     private ScheduledExecutorService scheduledExecutorService;
+    private Timer timer;
     private MessageIdSupplier midSupplier = new MessageIdSupplierImpl();
     private Duration responseTimeout = Duration.ofMillis(DELAYED_TRANSACTION_TIMEOUT_MS);
     private DuplicatedCoapMessageCallback duplicatedCoapMessageCallback = DuplicatedCoapMessageCallback.NULL;
+    private CoapStatistics statistics = CoapStatistics.NULL;
     private RetransmissionBackOff retransmissionBackOff = RetransmissionBackOff.ofDefault();
     private int maxIncomingBlockTransferSize = 10_000_000; //default to 10 MB
+    private BlockWiseStorage blockWiseStorage = BlockWiseStorage.inMemory();
+    private Predicate<CoapRequest> streamedBlockTransfer = __ -> false;
+    private Duration blockTransferTimeout = BlockWiseIncomingFilter.DEFAULT_TRANSFER_TIMEOUT;
+    private long maxInFlightBlockTransferBytes = Long.MAX_VALUE;
     private BlockSize blockSize;
     private int maxMessageSize = 1152; //default
     private Service<CoapRequest, CoapResponse> route = RouterService.NOT_FOUND_SERVICE;
     private int maxQueueSize = 100;
+    private int nstart = 1;
     private Filter<CoapRequest, CoapResponse, CoapRequest, CoapResponse> outboundFilter = Filter.identity();
     private Filter<CoapRequest, CoapResponse, CoapRequest, CoapResponse> routeFilter = Filter.identity();
     private Filter<CoapRequest, CoapResponse, CoapRequest, CoapResponse> inboundRequestFilter = Filter.identity();
+    private Filter<SeparateResponse, Boolean, SeparateResponse, Boolean> notificationFilter = Filter.identity();
     private NotificationsReceiver notificationsReceiver = NotificationsReceiver.REJECT_ALL;
     private ObservationsStore observationStore = ObservationsStore.ALWAYS_EMPTY;
     private RequestTagSupplier requestTagSupplier = RequestTagSupplier.createSequential();
@@ -133,6 +143,11 @@ public final class CoapServerBuilder {
         return this;
     }
 
+    public CoapServerBuilder notificationFilter(Filter<SeparateResponse, Boolean, SeparateResponse, Boolean> notificationFilter) {
+        this.notificationFilter = requireNonNull(notificationFilter);
+        return this;
+    }
+
     public CoapServerBuilder notificationsReceiver(NotificationsReceiver notificationsReceiver) {
         this.notificationsReceiver = requireNonNull(notificationsReceiver);
         if (observationStore.equals(ObservationsStore.ALWAYS_EMPTY)) {
@@ -156,6 +171,39 @@ public final class CoapServerBuilder {
         return this;
     }
 
+    public CoapServerBuilder blockWiseStorage(BlockWiseStorage blockWiseStorage) {
+        this.blockWiseStorage = requireNonNull(blockWiseStorage);
+        return this;
+    }
+
+    /**
+     * Incoming block-wise transfers matching predicate (tested with the last block) are not combined into request
+     * payload, instead it is available with {@link BlockWiseIncomingFilter#STREAMED_PAYLOAD} transport context.
+     */
+    public CoapServerBuilder streamedBlockTransfer(Predicate<CoapRequest> streamedBlockTransfer) {
+        this.streamedBlockTransfer = requireNonNull(streamedBlockTransfer);
+        return this;
+    }
+
+    /**
+     * Sets time after which incomplete incoming block-wise transfer, that did not receive any block, is dropped.
+     */
+    public CoapServerBuilder blockTransferTimeout(Duration blockTransferTimeout) {
+        require(!blockTransferTimeout.isNegative() && !blockTransferTimeout.isZero(), "blockTransferTimeout must be positive");
+        this.blockTransferTimeout = blockTransferTimeout;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of bytes held by all incomplete incoming block-wise transfers together,
+     * further blocks are rejected with 5.03 (Service Unavailable). Unlimited by default.
+     */
+    public CoapServerBuilder maxInFlightBlockTransferBytes(long maxInFlightBlockTransferBytes) {
+        require(maxInFlightBlockTransferBytes >= 0, "maxInFlightBlockTransferBytes must not be negative");
+        this.maxInFlightBlockTransferBytes = maxInFlightBlockTransferBytes;
+        return this;
+    }
+
     private PutOnlyMap<CoapRequestId, CoapPacket> getOrCreateDuplicateDetectorCache(ScheduledExecutorService scheduledExecutorService) {
         if (duplicateDetectionCache != null) {
             return duplicateDetectionCache;
@@ -179,6 +227,18 @@ public final class CoapServerBuilder {
         return this;
     }
 
+    /**
+     * Sets timer for retransmissions and response timeouts, by default tasks are scheduled on executor.
+     * Timer is not stopped when server stops.
+     *
+     * @param timer timer, for example {@link com.mbed.coap.utils.HashedWheelTimer}
+     * @return this builder instance for method chaining
+     */
+    public CoapServerBuilder timer(Timer timer) {
+        this.timer = requireNonNull(timer);
+        return this;
+    }
+
     public CoapServerBuilder midSupplier(MessageIdSupplier midSupplier) {
         this.midSupplier = midSupplier;
         return this;
@@ -200,11 +260,25 @@ public final class CoapServerBuilder {
         return this;
     }
 
+    public CoapServerBuilder statistics(CoapStatistics statistics) {
+        this.statistics = requireNonNull(statistics);
+        return this;
+    }
+
     public CoapServerBuilder queueMaxSize(int maxQueueSize) {
         this.maxQueueSize = maxQueueSize;
         return this;
     }
 
+    /**
+     * Sets maximum number of simultaneous outstanding interactions with a single peer (NSTART, RFC 7252 section 4.7).
+     */
+    public CoapServerBuilder nstart(int nstart) {
+        require(nstart > 0);
+        this.nstart = nstart;
+        return this;
+    }
+
     public CoapServerBuilder duplicateMsgCacheSize(int duplicationMaxSize) {
         require(duplicationMaxSize > 0);
         this.duplicationMaxSize = duplicationMaxSize;
@@ -247,21 +321,27 @@ public final class CoapServerBuilder {
         CoapTransport coapTransport = isTransportLoggingEnabled ? LoggingCoapTransport.wrap(realTransport) : realTransport;
         final boolean stopExecutor = scheduledExecutorService == null;
         final ScheduledExecutorService effectiveExecutorService = scheduledExecutorService != null ? scheduledExecutorService : Executors.newSingleThreadScheduledExecutor();
-        Timer timer = toTimer(effectiveExecutorService);
+        Timer timer = this.timer != null ? this.timer : toTimer(effectiveExecutorService);
 
-        Service<CoapPacket, Boolean> sender = coapTransport::sendPacket;
+        final CoapStatistics statistics = this.statistics;
+        realTransport.setParseFailureListener(statistics::parseFailure);
+        Service<CoapPacket, Boolean> sender = packet -> {
+            statistics.packetSent();
+            return coapTransport.sendPacket(packet);
+        };
 
         // OUTBOUND
         ExchangeFilter exchangeFilter = new ExchangeFilter();
-        RetransmissionFilter<CoapPacket, CoapPacket> retransmissionFilter = new RetransmissionFilter<>(timer, retransmissionBackOff, CoapPacket::isConfirmable);
+        RetransmissionFilter<CoapPacket, CoapPacket> retransmissionFilter = new RetransmissionFilter<>(timer, retransmissionBackOff, CoapPacket::isConfirmable, CoapPacket::getRemoteAddress, statistics);
         PiggybackedExchangeFilter piggybackedExchangeFilter = new PiggybackedExchangeFilter();
+        CongestionControlFilter<InetSocketAddress, CoapRequest, CoapResponse> congestionControlFilter = new CongestionControlFilter<>(maxQueueSize, nstart, CoapRequest::getPeerAddress, statistics);
 
         Service<CoapRequest, CoapResponse> outboundService = outboundFilter
                 .andThen(new ObserveRequestFilter(observationStore::add))
-                .andThen(new CongestionControlFilter<>(maxQueueSize, CoapRequest::getPeerAddress))
+                .andThen(congestionControlFilter)
                 .andThen(new BlockWiseOutgoingFilter(capabilities(), maxIncomingBlockTransferSize))
                 .andThen(new EchoFilter())
-                .andThen(new ResponseTimeoutFilter<>(timer, req -> req.getTransContext(RESPONSE_TIMEOUT, responseTimeout)))
+                .andThen(new ResponseTimeoutFilter<>(timer, req -> req.getTransContext(RESPONSE_TIMEOUT, responseTimeout), statistics))
                 .andThen(exchangeFilter)
                 .andThen(Filter.of(CoapPacket::from, CoapPacket::toCoapResponse)) // convert coap packet
                 .andThenMap(midSupplier::update)
@@ -271,9 +351,14 @@ public final class CoapServerBuilder {
 
 
         // OBSERVATION
-        Service<SeparateResponse, Boolean> sendNotification = new NotificationValidator()
+        Service<SeparateResponse, Boolean> sendNotification = notificationFilter
+                .andThen(new NotificationValidator())
+                .andThenMap(notification -> {
+                    statistics.notificationSent();
+                    return notification;
+                })
                 .andThen(new BlockWiseNotificationFilter(capabilities()))
-                .andThen(new ResponseTimeoutFilter<>(timer, req -> req.getTransContext(RESPONSE_TIMEOUT, responseTimeout)))
+                .andThen(new ResponseTimeoutFilter<>(timer, req -> req.getTransContext(RESPONSE_TIMEOUT, responseTimeout), statistics))
                 .andThen(Filter.of(CoapPacket::from, CoapPacket::isAck))
                 .andThenMap(midSupplier::update)
                 .andThen(retransmissionFilter)
@@ -282,18 +367,28 @@ public final class CoapServerBuilder {
 
         // INBOUND
         PutOnlyMap<CoapRequestId, CoapPacket> duplicateDetectorCache = getOrCreateDuplicateDetectorCache(effectiveExecutorService);
-        DuplicateDetector duplicateDetector = new DuplicateDetector(duplicateDetectorCache, duplicatedCoapMessageCallback);
+        DuplicatedCoapMessageCallback duplicatedCallback = this.duplicatedCoapMessageCallback;
+        DuplicateDetector duplicateDetector = new DuplicateDetector(duplicateDetectorCache, request -> {
+            statistics.duplicate();
+            duplicatedCallback.duplicated(request);
+        });
+        BlockWiseIncomingFilter blockWiseIncomingFilter = new BlockWiseIncomingFilter(capabilities(), maxIncomingBlockTransferSize, blockWiseStorage, streamedBlockTransfer,
+                timer, blockTransferTimeout, maxInFlightBlockTransferBytes, statistics);
         Service<CoapPacket, CoapPacket> inboundService = duplicateDetector
                 .andThen(new CoapRequestConverter(midSupplier))
                 .andThen(inboundRequestFilter)
                 .andThen(new RescueFilter())
                 .andThen(new CriticalOptionVerifier(recognizedCustomOptions))
-                .andThen(new BlockWiseIncomingFilter(capabilities(), maxIncomingBlockTransferSize))
+                .andThen(blockWiseIncomingFilter)
                 .andThen(routeFilter)
                 .then(route);
 
 
         Service<CoapPacket, CoapPacket> inboundObservation = duplicateDetector
+                .andThenMap(packet -> {
+                    statistics.notificationReceived();
+                    return packet;
+                })
                 .andThen(new ObservationMapper())
                 .then(new ObservationHandler(notificationsReceiver, observationStore));
 
@@ -301,7 +396,17 @@ public final class CoapServerBuilder {
                 piggybackedExchangeFilter::handleResponse, exchangeFilter::handleResponse
         );
 
-        return new CoapServer(coapTransport, dispatcher::handle, outboundService, sendNotification, () -> {
+        statistics.gauge(CoapStatistics.GAUGE_EXCHANGES, exchangeFilter::transactions);
+        statistics.gauge(CoapStatistics.GAUGE_QUEUED_REQUESTS, congestionControlFilter::totalQueueDepth);
+        statistics.gauge(CoapStatistics.GAUGE_PIGGYBACKED_EXCHANGES, piggybackedExchangeFilter::transactions);
+        statistics.gauge(CoapStatistics.GAUGE_BLOCK_TRANSFERS, blockWiseIncomingFilter::transfers);
+        statistics.gauge(CoapStatistics.GAUGE_BLOCK_TRANSFER_BYTES, () -> (int) Math.min(blockWiseIncomingFilter.inFlightBytes(), Integer.MAX_VALUE));
+        statistics.gauge(CoapStatistics.GAUGE_OBSERVATIONS, observationStore::size);
+
+        return new CoapServer(coapTransport, packet -> {
+            statistics.packetReceived();
+            dispatcher.handle(packet);
+        }, outboundService, sendNotification, () -> {
             piggybackedExchangeFilter.stop();
             duplicateDetectorCache.stop();
             if (stopExecutor) {
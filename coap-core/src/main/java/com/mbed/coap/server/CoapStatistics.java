@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Statistics of CoAP server pipeline. Methods are called from transport and timer threads, so implementations must
+ * be thread safe and should not block. All methods are no-op by default.
+ */
+public interface CoapStatistics {
+    String GAUGE_EXCHANGES = "exchanges";
+    String GAUGE_PIGGYBACKED_EXCHANGES = "exchanges.piggybacked";
+    String GAUGE_QUEUED_REQUESTS = "requests.queued";
+    String GAUGE_BLOCK_TRANSFERS = "block.transfers";
+    String GAUGE_BLOCK_TRANSFER_BYTES = "block.transfers.bytes";
+    String GAUGE_CONNECTIONS = "connections";
+    String GAUGE_OBSERVATIONS = "observations";
+    /**
+     * Observation relations of {@code ObserversManager}. It is created by application, so this gauge is not
+     * registered by server builders, register it with {@code statistics.gauge(GAUGE_OBSERVATION_RELATIONS,
+     * observersManager::size)}.
+     */
+    String GAUGE_OBSERVATION_RELATIONS = "observations.relations";
+
+    CoapStatistics NULL = new CoapStatistics() {
+    };
+
+    default void packetReceived() {
+    }
+
+    default void packetSent() {
+    }
+
+    /**
+     * Received packet that could not be parsed. Server builders wire it with
+     * {@code CoapTransport.setParseFailureListener}, so it is reported only by transports that implement it.
+     */
+    default void parseFailure() {
+    }
+
+    /**
+     * @param attempt transmission attempt, 2 for the first retransmission
+     */
+    default void retransmission(int attempt) {
+    }
+
+    /**
+     * No response after all retransmissions, or within response timeout.
+     */
+    default void timeout() {
+    }
+
+    default void duplicate() {
+    }
+
+    /**
+     * Outbound request rejected, because too many requests are already queued for its destination.
+     */
+    default void congestionRejection() {
+    }
+
+    /**
+     * Incomplete incoming block-wise transfer dropped, because it did not receive any block for transfer timeout.
+     */
+    default void blockTransferAbandoned() {
+    }
+
+    /**
+     * TCP connection closed by keep-alive, because peer did not respond to ping.
+     */
+    default void deadConnection() {
+    }
+
+    default void notificationReceived() {
+    }
+
+    default void notificationSent() {
+    }
+
+    /**
+     * Registers gauge, called when server is built.
+     *
+     * @param name  gauge name, one of GAUGE_* constants
+     * @param value current value supplier
+     */
+    default void gauge(String name, IntSupplier value) {
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server;
+
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.packet.CoapPacket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Duplicate detector cache that keeps entries in a ring of time generations.
+ * <p>
+ * New entries are added to the newest generation. Periodically, a new empty generation is added and the oldest one
+ * is dropped as a whole, so expiry does not scan entries. Every entry is kept at least for duplicate detection time,
+ * and at most for that time extended by one rotation interval (detection time divided by number of generations
+ * minus one).
+ * <p>
+ * When cache exceeds max size, only the overflowing number of entries is evicted ahead of time, in insertion order,
+ * starting from the oldest non-empty generation. Every generation keeps a queue of its keys in insertion order, so
+ * that eviction of a single entry takes constant time.
+ */
+public final class GenerationalDuplicateDetectorCache implements PutOnlyMap<CoapRequestId, CoapPacket> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationalDuplicateDetectorCache.class);
+    private static final int DEFAULT_GENERATIONS = 4;
+    private static final long DEFAULT_DUPLICATE_DETECTION_TIME_MILLIS = 30000;
+    private static final long WARNING_INTERVAL_MILLIS = 10000;
+
+    private final String cacheName;
+    private final long maxSize;
+    private final ScheduledFuture<?> rotateWorkerFut;
+    // index 0 is the newest generation, list is replaced as a whole on every rotation
+    private volatile List<Generation> generations;
+    private long nextWarnMessage;
+
+    public GenerationalDuplicateDetectorCache(String cacheName, long maxSize, long duplicateDetectionTimeMillis, int generations,
+            ScheduledExecutorService scheduledExecutor) {
+        require(maxSize > 0, "Max size must be positive");
+        require(generations >= 2, "At least two generations are required");
+        require(duplicateDetectionTimeMillis >= generations - 1, "Too short duplicate detection time");
+
+        this.cacheName = cacheName;
+        this.maxSize = maxSize;
+        this.generations = newGenerations(generations);
+
+        long rotateIntervalMillis = duplicateDetectionTimeMillis / (generations - 1);
+        rotateWorkerFut = scheduledExecutor.scheduleAtFixedRate(this::rotate, rotateIntervalMillis, rotateIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public GenerationalDuplicateDetectorCache(String cacheName, long maxSize, ScheduledExecutorService scheduledExecutor) {
+        this(cacheName, maxSize, DEFAULT_DUPLICATE_DETECTION_TIME_MILLIS, DEFAULT_GENERATIONS, scheduledExecutor);
+    }
+
+    private static List<Generation> newGenerations(int size) {
+        List<Generation> newGenerations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            newGenerations.add(new Generation());
+        }
+        return newGenerations;
+    }
+
+    @Override
+    public void stop() {
+        rotateWorkerFut.cancel(false);
+    }
+
+    @Override
+    public CoapPacket putIfAbsent(CoapRequestId key, CoapPacket value) {
+        List<Generation> gens = generations;
+        for (int i = gens.size() - 1; i > 0; i--) {
+            CoapPacket prev = gens.get(i).entries.get(key);
+            if (prev != null) {
+                return prev;
+            }
+        }
+
+        CoapPacket prev = gens.get(0).putIfAbsent(key, value);
+        if (prev == null && size(gens) > maxSize) {
+            evictOldest(key);
+        }
+        return prev;
+    }
+
+    @Override
+    public void put(CoapRequestId key, CoapPacket value) {
+        List<Generation> gens = generations;
+        // keep entry in its generation, so that it does not extend its lifetime
+        for (int i = 0; i < gens.size(); i++) {
+            if (gens.get(i).entries.replace(key, value) != null) {
+                return;
+            }
+        }
+        gens.get(0).put(key, value);
+    }
+
+    /**
+     * Adds new generation and drops the oldest one.
+     */
+    public synchronized void rotate() {
+        List<Generation> gens = generations;
+        List<Generation> newGenerations = new ArrayList<>(gens.size());
+        newGenerations.add(new Generation());
+        newGenerations.addAll(gens.subList(0, gens.size() - 1));
+        generations = newGenerations;
+
+        int removedItems = gens.get(gens.size() - 1).entries.size();
+        if (LOGGER.isTraceEnabled() && removedItems > 0) {
+            LOGGER.trace("CoAP request duplicate list, non valid items removed: " + removedItems + " ");
+        }
+    }
+
+    // evicts overflowing entries, oldest generation first, without changing age of the remaining ones
+    private synchronized void evictOldest(CoapRequestId addedKey) {
+        List<Generation> gens = generations;
+        long overflow = size(gens) - maxSize;
+        int evicted = 0;
+        for (int i = gens.size() - 1; i >= 0 && evicted < overflow; i--) {
+            Generation generation = gens.get(i);
+            CoapRequestId key;
+            while (evicted < overflow && (key = generation.insertionOrder.poll()) != null) {
+                // never evict entry that has just been added, it is the newest one anyway
+                if (key.equals(addedKey)) {
+                    generation.insertionOrder.add(key);
+                    break;
+                }
+                if (generation.entries.remove(key) != null) {
+                    evicted++;
+                }
+            }
+        }
+
+        if (evicted > 0 && nextWarnMessage < System.currentTimeMillis()) {
+            LOGGER.warn(cacheName + " has reached max size (" + maxSize + "), evicted " + evicted + " oldest entries");
+            nextWarnMessage = System.currentTimeMillis() + WARNING_INTERVAL_MILLIS;
+        }
+    }
+
+    public long size() {
+        return size(generations);
+    }
+
+    private static long size(List<Generation> gens) {
+        long size = 0;
+        for (int i = 0; i < gens.size(); i++) {
+            size += gens.get(i).entries.mappingCount();
+        }
+        return size;
+    }
+
+    private static final class Generation {
+        private final ConcurrentHashMap<CoapRequestId, CoapPacket> entries = new ConcurrentHashMap<>();
+        // keys in insertion order, entry is added to map before its key is queued
+        private final Queue<CoapRequestId> insertionOrder = new ConcurrentLinkedQueue<>();
+
+        CoapPacket putIfAbsent(CoapRequestId key, CoapPacket value) {
+            CoapPacket prev = entries.putIfAbsent(key, value);
+            if (prev == null) {
+                insertionOrder.add(key);
+            }
+            return prev;
+        }
+
+        void put(CoapRequestId key, CoapPacket value) {
+            if (entries.put(key, value) == null) {
+                insertionOrder.add(key);
+            }
+        }
+    }
+}
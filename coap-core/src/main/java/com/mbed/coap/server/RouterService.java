@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,25 +15,42 @@
  */
 package com.mbed.coap.server;
 
-import static java.util.Collections.unmodifiableList;
-import static java.util.Collections.unmodifiableMap;
+import static com.mbed.coap.utils.Validations.require;
 import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
 import com.mbed.coap.packet.Method;
+import com.mbed.coap.transport.TransportContext;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
+/**
+ * Routes requests by Uri-Path and method.
+ * <p>
+ * Routes are kept in a trie of path segments, a request is matched by walking its Uri-Path segment by segment, without
+ * allocations. On every level literal segment has precedence over parameter, and parameter over wildcard. Supported
+ * route segments:
+ * <ul>
+ * <li>literal, for example <code>/temperature</code></li>
+ * <li>parameter, for example <code>/{obj}/{inst}</code>, matches any single segment</li>
+ * <li>wildcard, only as last segment: <code>/path/*</code> matches any remaining path, <code>/path/abc*</code> also
+ * requires that the next segment starts with <code>abc</code></li>
+ * </ul>
+ * Values of parameters and wildcard (with name <code>*</code>) are available to handler with
+ * {@link #PATH_PARAMS} transport context key.
+ */
 public class RouterService implements Service<CoapRequest, CoapResponse> {
 
-    private final Map<RequestMatcher, Service<CoapRequest, CoapResponse>> handlers;
-    private final List<Entry<RequestMatcher, Service<CoapRequest, CoapResponse>>> prefixedHandlers;
+    public static final TransportContext.Key<PathParams> PATH_PARAMS = new TransportContext.Key<>(PathParams.EMPTY);
+    public static final String WILDCARD_PARAM = "*";
+
+    private final Node root;
     public final Service<CoapRequest, CoapResponse> defaultHandler;
 
     public final static Service<CoapRequest, CoapResponse> NOT_FOUND_SERVICE = request -> CoapResponse.notFound().toFuture();
@@ -43,45 +60,29 @@ public class RouterService implements Service<CoapRequest, CoapResponse> {
     }
 
     private RouterService(Map<RequestMatcher, Service<CoapRequest, CoapResponse>> handlers, Service<CoapRequest, CoapResponse> defaultHandler) {
+        Node rootNode = new Node();
+        for (Entry<RequestMatcher, Service<CoapRequest, CoapResponse>> entry : handlers.entrySet()) {
+            rootNode.add(entry.getKey().method, entry.getKey().uriPath, entry.getValue());
+        }
+        rootNode.freeze();
 
-        this.handlers = unmodifiableMap(
-                handlers.entrySet().stream()
-                        .filter(entry -> !entry.getKey().isPrefixed())
-                        .collect(Collectors.toMap(Entry::getKey, Entry::getValue))
-        );
-
-        this.prefixedHandlers = unmodifiableList(
-                handlers.entrySet().stream()
-                        .filter(entry -> entry.getKey().isPrefixed())
-                        .collect(Collectors.toList())
-        );
-
+        this.root = rootNode;
         this.defaultHandler = defaultHandler;
     }
 
     @Override
     public CompletableFuture<CoapResponse> apply(CoapRequest request) {
-        RequestMatcher requestMatcher = new RequestMatcher(request.getMethod(), request.options().getUriPath());
-
-        return handlers
-                .getOrDefault(requestMatcher, findHandler(requestMatcher))
-                .apply(request);
-    }
-
-    private Service<CoapRequest, CoapResponse> findHandler(RequestMatcher requestMatcher) {
-        Service<CoapRequest, CoapResponse> nextService;
-
-        nextService = handlers.get(requestMatcher.withAnyMethod());
-        if (nextService != null) {
-            return nextService;
+        String path = request.options().getUriPath();
+        if (path == null) {
+            path = "/";
         }
+        int start = path.startsWith("/") ? 1 : 0;
 
-        for (Entry<RequestMatcher, Service<CoapRequest, CoapResponse>> e : prefixedHandlers) {
-            if (e.getKey().matches(requestMatcher)) {
-                return e.getValue();
-            }
+        Route route = root.match(path, start, request.getMethod());
+        if (route == null) {
+            return defaultHandler.apply(request);
         }
-        return defaultHandler;
+        return route.apply(request, path, start);
     }
 
     public static class RouteBuilder {
@@ -148,39 +149,261 @@ public class RouterService implements Service<CoapRequest, CoapResponse> {
         }
     }
 
-    static final class RequestMatcher {
-        final Method method;
-        final String uriPath;
-        private transient final boolean isPrefixed;
+    /**
+     * Values captured from Uri-Path by route parameters.
+     */
+    public static final class PathParams {
+        static final PathParams EMPTY = new PathParams(new String[0], new String[0]);
+        private final String[] names;
+        private final String[] values;
+
+        PathParams(String[] names, String[] values) {
+            this.names = names;
+            this.values = values;
+        }
 
-        RequestMatcher(Method method, String uriPath) {
-            this.method = method;
-            if (uriPath == null) {
-                this.isPrefixed = false;
-                this.uriPath = "/";
-            } else {
-                this.isPrefixed = uriPath.endsWith("*");
-                if (isPrefixed) {
-                    this.uriPath = uriPath.substring(0, uriPath.length() - 1);
-                } else {
-                    this.uriPath = uriPath;
+        /**
+         * @param name parameter name, or {@link #WILDCARD_PARAM} for remaining path matched by wildcard
+         * @return captured value or null if there is no such parameter
+         */
+        public String get(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("{");
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
                 }
+                sb.append(names[i]).append('=').append(values[i]);
             }
+            return sb.append('}').toString();
         }
+    }
 
-        public boolean isPrefixed() {
-            return isPrefixed;
+    private static final class Route {
+        private final Service<CoapRequest, CoapResponse> service;
+        private final String[] paramNames;
+        // segment index of every parameter, wildcard is always last
+        private final int[] paramSegments;
+        private final int wildcardPrefixLength;
+
+        Route(Service<CoapRequest, CoapResponse> service, String[] paramNames, int[] paramSegments, int wildcardPrefixLength) {
+            this.service = service;
+            this.paramNames = paramNames;
+            this.paramSegments = paramSegments;
+            this.wildcardPrefixLength = wildcardPrefixLength;
         }
 
-        public boolean matches(RequestMatcher other) {
+        CompletableFuture<CoapResponse> apply(CoapRequest request, String path, int start) {
+            if (paramNames.length == 0) {
+                return service.apply(request);
+            }
+
+            PathParams params = new PathParams(paramNames, capture(path, start));
+            return service.apply(request.modify().addContext(PATH_PARAMS, params).build());
+        }
+
+        private String[] capture(String path, int start) {
+            String[] values = new String[paramNames.length];
+            int segment = 0;
+            int segmentStart = start;
+            for (int i = 0; i < values.length; i++) {
+                int end = path.indexOf('/', segmentStart);
+                while (segment < paramSegments[i]) {
+                    segmentStart = end + 1;
+                    end = path.indexOf('/', segmentStart);
+                    segment++;
+                }
+                boolean isWildcard = wildcardPrefixLength >= 0 && i == values.length - 1;
+                if (isWildcard) {
+                    values[i] = path.substring(segmentStart + wildcardPrefixLength);
+                } else {
+                    values[i] = path.substring(segmentStart, end < 0 ? path.length() : end);
+                }
+            }
+            return values;
+        }
+    }
+
+    private static final class Node {
+        private static final int METHODS = Method.values().length;
+
+        // only used while building
+        private Map<String, Node> literalChildren = new HashMap<>();
+        private Node paramChild;
+        private List<Wildcard> wildcards = new ArrayList<>();
+        private final Route[] routes = new Route[METHODS];
+        private Route anyMethodRoute;
+
+        // open addressing table of literal children, built by freeze()
+        private String[] literalKeys;
+        private Node[] literalNodes;
+        private Wildcard[] wildcardArray;
+
+        void add(Method method, String uriPath, Service<CoapRequest, CoapResponse> service) {
+            String path = uriPath.startsWith("/") ? uriPath.substring(1) : uriPath;
+            String[] segments = path.split("/", -1);
+            List<String> paramNames = new ArrayList<>();
+            List<Integer> paramSegments = new ArrayList<>();
+            int wildcardPrefixLength = -1;
+
+            Node node = this;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (i == segments.length - 1 && segment.endsWith("*")) {
+                    String prefix = segment.substring(0, segment.length() - 1);
+                    wildcardPrefixLength = prefix.length();
+                    paramNames.add(WILDCARD_PARAM);
+                    paramSegments.add(i);
+                    node = node.wildcard(prefix);
+                } else if (segment.length() > 1 && segment.startsWith("{") && segment.endsWith("}")) {
+                    paramNames.add(segment.substring(1, segment.length() - 1));
+                    paramSegments.add(i);
+                    if (node.paramChild == null) {
+                        node.paramChild = new Node();
+                    }
+                    node = node.paramChild;
+                } else {
+                    node = node.literalChildren.computeIfAbsent(segment, __ -> new Node());
+                }
+            }
+            require(!paramNames.contains(""), "Empty parameter name in route: " + uriPath);
+
+            Route route = new Route(service, paramNames.toArray(new String[0]), paramSegments.stream().mapToInt(Integer::intValue).toArray(), wildcardPrefixLength);
             if (method == null) {
-                return other.uriPath.startsWith(uriPath);
+                node.anyMethodRoute = route;
+            } else {
+                node.routes[method.ordinal()] = route;
             }
-            return other.method == method && other.uriPath.startsWith(uriPath);
         }
 
-        public RequestMatcher withAnyMethod() {
-            return new RequestMatcher(null, uriPath);
+        private Node wildcard(String prefix) {
+            for (Wildcard wildcard : wildcards) {
+                if (wildcard.prefix.equals(prefix)) {
+                    return wildcard.node;
+                }
+            }
+            Wildcard wildcard = new Wildcard(prefix, new Node());
+            wildcards.add(wildcard);
+            return wildcard.node;
+        }
+
+        void freeze() {
+            int size = Integer.highestOneBit(Math.max(literalChildren.size(), 1) * 2) * 2;
+            literalKeys = new String[size];
+            literalNodes = new Node[size];
+            for (Entry<String, Node> entry : literalChildren.entrySet()) {
+                int i = spread(entry.getKey().hashCode()) & (size - 1);
+                while (literalKeys[i] != null) {
+                    i = (i + 1) & (size - 1);
+                }
+                literalKeys[i] = entry.getKey();
+                literalNodes[i] = entry.getValue();
+                entry.getValue().freeze();
+            }
+            if (paramChild != null) {
+                paramChild.freeze();
+            }
+            // longer prefix is more specific
+            wildcards.sort((w1, w2) -> Integer.compare(w2.prefix.length(), w1.prefix.length()));
+            wildcardArray = wildcards.toArray(new Wildcard[0]);
+            for (Wildcard wildcard : wildcardArray) {
+                wildcard.node.freeze();
+            }
+            literalChildren = null;
+            wildcards = null;
+        }
+
+        // pos is start of the current segment, or path.length() + 1 when there are no more segments
+        Route match(String path, int pos, Method method) {
+            if (pos > path.length()) {
+                return route(method);
+            }
+            int end = path.indexOf('/', pos);
+            if (end < 0) {
+                end = path.length();
+            }
+
+            Node literal = literal(path, pos, end);
+            if (literal != null) {
+                Route route = literal.match(path, end + 1, method);
+                if (route != null) {
+                    return route;
+                }
+            }
+            if (paramChild != null) {
+                Route route = paramChild.match(path, end + 1, method);
+                if (route != null) {
+                    return route;
+                }
+            }
+            for (Wildcard wildcard : wildcardArray) {
+                if (path.startsWith(wildcard.prefix, pos)) {
+                    Route route = wildcard.node.route(method);
+                    if (route != null) {
+                        return route;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Route route(Method method) {
+            Route route = method != null ? routes[method.ordinal()] : null;
+            return route != null ? route : anyMethodRoute;
+        }
+
+        private Node literal(String path, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            int mask = literalKeys.length - 1;
+            int i = spread(hash) & mask;
+            while (literalKeys[i] != null) {
+                String key = literalKeys[i];
+                if (key.length() == to - from && path.regionMatches(from, key, 0, key.length())) {
+                    return literalNodes[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ hash >>> 16;
+        }
+    }
+
+    private static final class Wildcard {
+        private final String prefix;
+        private final Node node;
+
+        Wildcard(String prefix, Node node) {
+            this.prefix = prefix;
+            this.node = node;
+        }
+    }
+
+    static final class RequestMatcher {
+        final Method method;
+        final String uriPath;
+
+        RequestMatcher(Method method, String uriPath) {
+            this.method = method;
+            this.uriPath = uriPath == null ? "/" : uriPath;
         }
 
         @Override
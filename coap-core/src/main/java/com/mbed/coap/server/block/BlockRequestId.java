@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -57,4 +57,8 @@ class BlockRequestId {
         return Objects.equals(this.sourceAddress, other.sourceAddress);
     }
 
+    @Override
+    public String toString() {
+        return "[" + sourceAddress + "] " + uriPath;
+    }
 }
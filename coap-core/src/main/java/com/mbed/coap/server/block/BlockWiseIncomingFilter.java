@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2024 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -18,6 +18,7 @@ package com.mbed.coap.server.block;
 
 import static com.mbed.coap.packet.CoapResponse.coapResponse;
 import static com.mbed.coap.utils.FutureHelpers.failedFuture;
+import static com.mbed.coap.utils.Validations.require;
 import com.mbed.coap.exception.CoapCodeException;
 import com.mbed.coap.packet.BlockOption;
 import com.mbed.coap.packet.BlockSize;
@@ -25,25 +26,91 @@ import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
 import com.mbed.coap.packet.Code;
 import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.server.messaging.CapabilitiesResolver;
+import com.mbed.coap.transport.TransportContext;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
+import com.mbed.coap.utils.Timer;
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class BlockWiseIncomingFilter implements Filter.SimpleFilter<CoapRequest, CoapResponse> {
+    /**
+     * Assembled payload of streamed block-wise transfer, request itself has empty payload.
+     * Payload is closed once service completes.
+     */
+    public static final TransportContext.Key<BlockWisePayload> STREAMED_PAYLOAD = new TransportContext.Key<>(null);
+
+    /**
+     * Default time after which incomplete transfer is dropped, equals to EXCHANGE_LIFETIME (RFC 7252, section 4.8.2).
+     */
+    public static final Duration DEFAULT_TRANSFER_TIMEOUT = Duration.ofSeconds(247);
+    private static final Timer NO_EXPIRY = (delay, task) -> () -> {
+    };
+
     private static final Logger LOGGER = LoggerFactory.getLogger(BlockWiseIncomingFilter.class.getName());
     private final Map<BlockRequestId, BlockWiseIncomingTransaction> blockReqMap = new ConcurrentHashMap<>();
     private final CapabilitiesResolver capabilities;
     private final int maxIncomingBlockTransferSize;
+    private final BlockWiseStorage storage;
+    private final Predicate<CoapRequest> isStreamed;
+    private final Timer timer;
+    private final Duration transferTimeout;
+    private final long maxInFlightBytes;
+    private final AtomicLong availableBytes;
+    private final AtomicInteger abandonedTransfers = new AtomicInteger();
+    private final CoapStatistics statistics;
+    private final LongSupplier nanoTime;
 
     public BlockWiseIncomingFilter(CapabilitiesResolver capabilities, int maxIncomingBlockTransferSize) {
+        this(capabilities, maxIncomingBlockTransferSize, BlockWiseStorage.inMemory(), __ -> false, NO_EXPIRY, DEFAULT_TRANSFER_TIMEOUT, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param storage storage for payloads of incoming transfers
+     * @param isStreamed tested with the last block of a transfer; when true, payload is passed to service with
+     * {@link #STREAMED_PAYLOAD} transport context instead of being combined into request payload
+     * @param timer timer used to drop transfers that did not receive any block for <i>transferTimeout</i>
+     * @param maxInFlightBytes maximum number of bytes held by all incomplete transfers together, further blocks are
+     * rejected with 5.03 (Service Unavailable)
+     */
+    public BlockWiseIncomingFilter(CapabilitiesResolver capabilities, int maxIncomingBlockTransferSize, BlockWiseStorage storage, Predicate<CoapRequest> isStreamed,
+            Timer timer, Duration transferTimeout, long maxInFlightBytes) {
+        this(capabilities, maxIncomingBlockTransferSize, storage, isStreamed, timer, transferTimeout, maxInFlightBytes, CoapStatistics.NULL);
+    }
+
+    /**
+     * @param statistics notified with {@link CoapStatistics#blockTransferAbandoned()} when transfer is dropped
+     */
+    public BlockWiseIncomingFilter(CapabilitiesResolver capabilities, int maxIncomingBlockTransferSize, BlockWiseStorage storage, Predicate<CoapRequest> isStreamed,
+            Timer timer, Duration transferTimeout, long maxInFlightBytes, CoapStatistics statistics) {
+        this(capabilities, maxIncomingBlockTransferSize, storage, isStreamed, timer, transferTimeout, maxInFlightBytes, statistics, System::nanoTime);
+    }
+
+    BlockWiseIncomingFilter(CapabilitiesResolver capabilities, int maxIncomingBlockTransferSize, BlockWiseStorage storage, Predicate<CoapRequest> isStreamed,
+            Timer timer, Duration transferTimeout, long maxInFlightBytes, CoapStatistics statistics, LongSupplier nanoTime) {
+        require(!transferTimeout.isNegative() && !transferTimeout.isZero(), "transferTimeout must be positive");
+        require(maxInFlightBytes >= 0, "maxInFlightBytes must not be negative");
         this.capabilities = capabilities;
         this.maxIncomingBlockTransferSize = maxIncomingBlockTransferSize;
+        this.storage = storage;
+        this.isStreamed = isStreamed;
+        this.timer = timer;
+        this.transferTimeout = transferTimeout;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.availableBytes = new AtomicLong(maxInFlightBytes);
+        this.statistics = statistics;
+        this.nanoTime = nanoTime;
     }
 
     @Override
@@ -70,10 +137,16 @@ public class BlockWiseIncomingFilter implements Filter.SimpleFilter<CoapRequest,
                 throw new CoapCodeException(Code.C408_REQUEST_ENTITY_INCOMPLETE, "Mismatch request-tag");
             } else if (blockRequest == null) {
                 //start new block-wise transaction
-                blockRequest = new BlockWiseIncomingTransaction(request, maxIncomingBlockTransferSize, capabilities.getOrDefault(request.getPeerAddress()));
-                blockReqMap.put(blockRequestId, blockRequest);
+                blockRequest = new BlockWiseIncomingTransaction(request, maxIncomingBlockTransferSize, capabilities.getOrDefault(request.getPeerAddress()), storage, availableBytes);
+                blockRequest.touch(nanoTime.getAsLong());
+                BlockWiseIncomingTransaction replaced = blockReqMap.put(blockRequestId, blockRequest);
+                if (replaced != null) {
+                    replaced.close();
+                }
+                scheduleExpiry(blockRequestId, blockRequest, transferTimeout);
             }
             blockRequest.appendBlock(request);
+            blockRequest.touch(nanoTime.getAsLong());
 
         } catch (CoapCodeException e) {
             removeBlockRequest(blockRequestId);
@@ -82,12 +155,25 @@ public class BlockWiseIncomingFilter implements Filter.SimpleFilter<CoapRequest,
 
         if (!reqBlock.hasMore()) {
             //remove from map
-            removeBlockRequest(blockRequestId);
+            blockReqMap.remove(blockRequestId);
 
             //last block received
-            final CoapRequest coapRequest = request.modify().payload(blockRequest.getCombinedPayload()).build();
+            final BlockWiseIncomingTransaction completed = blockRequest;
+            final CoapRequest coapRequest;
+            if (isStreamed.test(request)) {
+                coapRequest = request.modify().payload(Opaque.EMPTY).addContext(STREAMED_PAYLOAD, completed.getPayload()).build();
+            } else {
+                try {
+                    coapRequest = request.modify().payload(completed.getCombinedPayload()).build();
+                } catch (CoapCodeException e) {
+                    return failedFuture(e);
+                } finally {
+                    completed.close();
+                }
+            }
             return service
                     .apply(coapRequest)
+                    .whenComplete((resp, err) -> completed.close())
                     .thenApply(resp -> adjustPayloadSize(coapRequest, resp));
         } else {
             //more block available, send C231_CONTINUE
@@ -106,12 +192,57 @@ public class BlockWiseIncomingFilter implements Filter.SimpleFilter<CoapRequest,
         }
     }
 
+    private void scheduleExpiry(BlockRequestId blockRequestId, BlockWiseIncomingTransaction blockRequest, Duration delay) {
+        blockRequest.setCancelExpiry(timer.schedule(delay, () -> expire(blockRequestId, blockRequest)));
+    }
+
+    private void expire(BlockRequestId blockRequestId, BlockWiseIncomingTransaction blockRequest) {
+        if (blockReqMap.get(blockRequestId) != blockRequest) {
+            return;
+        }
+
+        long idleNanos = nanoTime.getAsLong() - blockRequest.lastActivityNanos();
+        if (idleNanos < transferTimeout.toNanos()) {
+            // received blocks in meantime, check again when it could become idle
+            scheduleExpiry(blockRequestId, blockRequest, transferTimeout.minusNanos(idleNanos));
+        } else if (blockReqMap.remove(blockRequestId, blockRequest)) {
+            LOGGER.debug("Dropping abandoned block-wise transfer {}", blockRequestId);
+            abandonedTransfers.incrementAndGet();
+            statistics.blockTransferAbandoned();
+            blockRequest.close();
+        }
+    }
+
+    /**
+     * @return number of incoming block-wise transfers in progress
+     */
+    public int transfers() {
+        return blockReqMap.size();
+    }
+
+    /**
+     * @return number of bytes held by incoming block-wise transfers in progress
+     */
+    public long inFlightBytes() {
+        return maxInFlightBytes - availableBytes.get();
+    }
+
+    /**
+     * @return number of incoming block-wise transfers that were dropped after not receiving blocks for transfer timeout
+     */
+    public int abandonedTransfers() {
+        return abandonedTransfers.get();
+    }
+
     private BlockSize agreedBlockSize(InetSocketAddress address) {
         return capabilities.getOrDefault(address).getBlockSize();
     }
 
     private void removeBlockRequest(BlockRequestId blockRequestId) {
-        blockReqMap.remove(blockRequestId);
+        BlockWiseIncomingTransaction removed = blockReqMap.remove(blockRequestId);
+        if (removed != null) {
+            removed.close();
+        }
     }
 
     public CoapResponse adjustPayloadSize(CoapRequest req, CoapResponse resp) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -25,30 +25,41 @@ import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.Code;
 import com.mbed.coap.packet.Opaque;
 import com.mbed.coap.server.messaging.Capabilities;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class BlockWiseIncomingTransaction {
     private static final Logger LOGGER = LoggerFactory.getLogger(BlockWiseIncomingTransaction.class.getName());
 
-    private final ByteArrayOutputStream payload;
+    private final BlockWisePayload payload;
     private final int maxIncomingBlockTransferSize;
     private final Capabilities csm;
     private final Opaque requestTag;
+    // shared by all transactions, bytes that can still be received
+    private final AtomicLong availableBytes;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long reservedBytes;
+    private volatile long lastActivityNanos;
+    private volatile Runnable cancelExpiry = () -> {
+    };
 
     BlockWiseIncomingTransaction(CoapRequest request, int maxIncomingBlockTransferSize, Capabilities csm) {
+        this(request, maxIncomingBlockTransferSize, csm, BlockWiseStorage.inMemory(), new AtomicLong(Long.MAX_VALUE));
+    }
+
+    BlockWiseIncomingTransaction(CoapRequest request, int maxIncomingBlockTransferSize, Capabilities csm, BlockWiseStorage storage, AtomicLong availableBytes) {
         this.maxIncomingBlockTransferSize = maxIncomingBlockTransferSize;
         this.csm = csm;
+        this.availableBytes = availableBytes;
         this.requestTag = request.options().getRequestTag();
         Integer expectedPayloadSize = request.options().getSize1();
         BlockOption blockOption = request.options().getBlock1Req();
 
-        int allocationSize = expectedPayloadSize != null ? expectedPayloadSize : blockOption.getSize() * 4;
-
-        this.payload = new ByteArrayOutputStream(allocationSize);
+        this.payload = storage.create(expectedPayloadSize != null ? expectedPayloadSize : blockOption.getSize());
     }
 
     void appendBlock(CoapRequest request) throws CoapCodeException {
@@ -65,20 +76,61 @@ class BlockWiseIncomingTransaction {
         try {
             // Don't append in case of resends.
             if (payload.size() == assumedCollectedPayloadSize) {
-                request.getPayload().writeTo(payload);
+                reserve(request.getPayload().size());
+                payload.append(request.getPayload());
             }
         } catch (IOException e) {
-            // should never happen
+            LOGGER.warn("Could not store block-wise payload: {}", e.toString());
             throw new CoapCodeException(Code.C500_INTERNAL_SERVER_ERROR, e);
         }
     }
 
+    private void reserve(int bytes) throws CoapCodeException {
+        long available;
+        do {
+            available = availableBytes.get();
+            if (available < bytes) {
+                LOGGER.warn("Block-wise transfers exceeded memory budget, rejecting block");
+                throw new CoapCodeException(Code.C503_SERVICE_UNAVAILABLE, "too many block-wise transfers");
+            }
+        } while (!availableBytes.compareAndSet(available, available - bytes));
+        reservedBytes += bytes;
+    }
+
     boolean validateRequestTag(CoapRequest request) {
         return Objects.equals(requestTag, request.options().getRequestTag());
     }
 
-    Opaque getCombinedPayload() {
-        return Opaque.of(payload.toByteArray());
+    Opaque getCombinedPayload() throws CoapCodeException {
+        try {
+            return payload.toOpaque();
+        } catch (IOException e) {
+            throw new CoapCodeException(Code.C500_INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    BlockWisePayload getPayload() {
+        return payload;
+    }
+
+    void touch(long nowNanos) {
+        lastActivityNanos = nowNanos;
+    }
+
+    long lastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    void setCancelExpiry(Runnable cancelExpiry) {
+        this.cancelExpiry = cancelExpiry;
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            cancelExpiry.run();
+            payload.close();
+            availableBytes.addAndGet(reservedBytes);
+        }
     }
 
     private void validateAlreadyReceivedPayloadSize(CoapRequest request) throws CoapRequestEntityTooLarge {
@@ -122,5 +174,10 @@ class BlockWiseIncomingTransaction {
             LOGGER.warn("Received request with too large size1 option: " + request);
             throw new CoapRequestEntityTooLarge(maxIncomingBlockTransferSize, "Entity too large");
         }
+
+        if (reqBlock.getNr() == 0 && request.options().getSize1() != null && request.options().getSize1() > availableBytes.get()) {
+            LOGGER.warn("Block-wise transfers exceeded memory budget, rejecting: " + request);
+            throw new CoapCodeException(Code.C503_SERVICE_UNAVAILABLE, "too many block-wise transfers");
+        }
     }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.block;
+
+import com.mbed.coap.packet.Opaque;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Payload of incoming block-wise (Block1) transfer, assembled block by block.
+ * Must be closed when no longer needed to release memory budget or temporary file.
+ */
+public interface BlockWisePayload extends Closeable {
+
+    void append(Opaque block) throws IOException;
+
+    int size();
+
+    /**
+     * @return stream of assembled payload, without combining it into single array
+     */
+    InputStream inputStream() throws IOException;
+
+    /**
+     * @return assembled payload as single opaque
+     */
+    Opaque toOpaque() throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.block;
+
+import static com.mbed.coap.utils.Validations.require;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Creates storage for payloads of incoming block-wise (Block1) transfers.
+ */
+public interface BlockWiseStorage {
+
+    /**
+     * @param expectedSize expected payload size (from Size1 option), or block size when unknown; it is not validated
+     * and must be treated only as a hint
+     */
+    BlockWisePayload create(int expectedSize);
+
+    /**
+     * Keeps received blocks in memory as list of chunks, combined only once when transfer is completed.
+     */
+    static BlockWiseStorage inMemory() {
+        return InMemoryBlockWisePayload::new;
+    }
+
+    /**
+     * Keeps received blocks in memory until transfer grows over <i>spillThreshold</i> or memory used by all transfers
+     * together would exceed <i>memoryBudget</i>, then moves transfer to a temporary file in given directory.
+     * <p>
+     * Note: spilling keeps heap usage bounded only for transfers that are delivered as a stream (see
+     * {@code streamedBlockTransfer} in server builders). Other transfers are combined into request payload when
+     * completed, so a spilled file is then read into heap as a whole.
+     */
+    static BlockWiseStorage spillToDisk(Path directory, int spillThreshold, long memoryBudget) {
+        require(spillThreshold >= 0, "spillThreshold must not be negative");
+        require(memoryBudget >= 0, "memoryBudget must not be negative");
+        return new SpillingBlockWiseStorage(Objects.requireNonNull(directory), spillThreshold, memoryBudget);
+    }
+}
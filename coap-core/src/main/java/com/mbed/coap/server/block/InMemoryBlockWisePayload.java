@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.block;
+
+import com.mbed.coap.packet.Opaque;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+
+class InMemoryBlockWisePayload implements BlockWisePayload {
+    private static final int MAX_INITIAL_CHUNKS = 64;
+    private final List<Opaque> chunks;
+    private int size;
+
+    InMemoryBlockWisePayload(int expectedSize) {
+        // expected size comes from peer, do not trust it for allocation
+        this.chunks = new ArrayList<>(Math.min(Math.max(expectedSize / 1024, 1), MAX_INITIAL_CHUNKS));
+    }
+
+    @Override
+    public void append(Opaque block) {
+        if (block.isEmpty()) {
+            return;
+        }
+        chunks.add(block);
+        size += block.size();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public InputStream inputStream() {
+        Iterator<Opaque> iterator = new ArrayList<>(chunks).iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return iterator.next().inputStream();
+            }
+        });
+    }
+
+    @Override
+    public Opaque toOpaque() {
+        if (chunks.isEmpty()) {
+            return Opaque.EMPTY;
+        }
+        if (chunks.size() == 1) {
+            return chunks.get(0);
+        }
+
+        ByteBuffer combined = ByteBuffer.allocate(size);
+        for (Opaque chunk : chunks) {
+            chunk.writeTo(combined);
+        }
+        return new Opaque(combined.array());
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        for (Opaque chunk : chunks) {
+            chunk.writeTo(outputStream);
+        }
+    }
+
+    @Override
+    public void close() {
+        chunks.clear();
+        size = 0;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.block;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import com.mbed.coap.packet.Opaque;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class SpillingBlockWiseStorage implements BlockWiseStorage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingBlockWiseStorage.class);
+    private final Path directory;
+    private final int spillThreshold;
+    private final AtomicLong availableMemory;
+
+    SpillingBlockWiseStorage(Path directory, int spillThreshold, long memoryBudget) {
+        this.directory = directory;
+        this.spillThreshold = spillThreshold;
+        this.availableMemory = new AtomicLong(memoryBudget);
+    }
+
+    @Override
+    public BlockWisePayload create(int expectedSize) {
+        return new SpillablePayload(expectedSize);
+    }
+
+    long availableMemory() {
+        return availableMemory.get();
+    }
+
+    private boolean reserve(int bytes) {
+        long available;
+        do {
+            available = availableMemory.get();
+            if (available < bytes) {
+                return false;
+            }
+        } while (!availableMemory.compareAndSet(available, available - bytes));
+        return true;
+    }
+
+    private final class SpillablePayload implements BlockWisePayload {
+        private InMemoryBlockWisePayload memory;
+        private long reserved;
+        private Path file;
+        private FileChannel fileChannel;
+        private OutputStream fileOutput;
+        private int size;
+
+        SpillablePayload(int expectedSize) {
+            this.memory = new InMemoryBlockWisePayload(expectedSize);
+        }
+
+        @Override
+        public synchronized void append(Opaque block) throws IOException {
+            if (file == null && (size + block.size() > spillThreshold || !reserve(block.size()))) {
+                spill();
+            }
+
+            if (file != null) {
+                block.writeTo(fileOutput);
+            } else {
+                memory.append(block);
+                reserved += block.size();
+            }
+            size += block.size();
+        }
+
+        private void spill() throws IOException {
+            file = Files.createTempFile(directory, "coap-block-", ".tmp");
+            fileChannel = FileChannel.open(file, WRITE);
+            fileOutput = Channels.newOutputStream(fileChannel);
+            LOGGER.debug("Spilling block-wise transfer to {}", file);
+
+            memory.writeTo(fileOutput);
+            memory = null;
+            releaseMemory();
+        }
+
+        private void releaseMemory() {
+            availableMemory.addAndGet(reserved);
+            reserved = 0;
+        }
+
+        @Override
+        public synchronized int size() {
+            return size;
+        }
+
+        @Override
+        public synchronized InputStream inputStream() throws IOException {
+            if (file == null) {
+                return memory.inputStream();
+            }
+            return new BufferedInputStream(Files.newInputStream(file));
+        }
+
+        @Override
+        public synchronized Opaque toOpaque() throws IOException {
+            if (file == null) {
+                return memory.toOpaque();
+            }
+            // non-streamed transfer, whole file ends up in heap
+            return new Opaque(Files.readAllBytes(file));
+        }
+
+        @Override
+        public synchronized void close() {
+            if (memory != null) {
+                memory.close();
+                releaseMemory();
+            }
+            if (file != null) {
+                try {
+                    fileChannel.close();
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOGGER.warn("Could not remove block-wise transfer file {}: {}", file, e.toString());
+                }
+                file = null;
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,54 +15,114 @@
  */
 package com.mbed.coap.server.filter;
 
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.exception.TooManyRequestsForEndpointException;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
+/**
+ * Limits number of outstanding interactions (NSTART, RFC 7252 section 4.7) per destination, following requests are
+ * queued. Idle destinations are removed lazily, when number of tracked destinations grows.
+ */
 public class CongestionControlFilter<DEST, REQ, RES> implements Filter.SimpleFilter<REQ, RES> {
+    private static final int MIN_CLEANUP_THRESHOLD = 1024;
     private final int maxWaitingRequests;
+    private final int maxOutstandingRequests;
     private final Function<REQ, DEST> destinationFunc;
+    private final CoapStatistics statistics;
     private final ConcurrentMap<DEST, SequentialTaskRunner<RES>> interactions = new ConcurrentHashMap<>();
+    private final AtomicBoolean cleaning = new AtomicBoolean();
+    private volatile int cleanupThreshold = MIN_CLEANUP_THRESHOLD;
 
     public CongestionControlFilter(int maxWaitingRequests, Function<REQ, DEST> destinationFunc) {
+        this(maxWaitingRequests, 1, destinationFunc);
+    }
+
+    /**
+     * @param maxWaitingRequests     maximum number of queued and outstanding requests per destination
+     * @param maxOutstandingRequests maximum number of outstanding requests per destination (NSTART)
+     * @param destinationFunc        resolves destination of a request
+     */
+    public CongestionControlFilter(int maxWaitingRequests, int maxOutstandingRequests, Function<REQ, DEST> destinationFunc) {
+        this(maxWaitingRequests, maxOutstandingRequests, destinationFunc, CoapStatistics.NULL);
+    }
+
+    public CongestionControlFilter(int maxWaitingRequests, int maxOutstandingRequests, Function<REQ, DEST> destinationFunc, CoapStatistics statistics) {
+        require(maxOutstandingRequests > 0, "Max outstanding requests must be positive");
         this.maxWaitingRequests = maxWaitingRequests;
+        this.maxOutstandingRequests = maxOutstandingRequests;
         this.destinationFunc = destinationFunc;
+        this.statistics = statistics;
     }
 
     @Override
     public CompletableFuture<RES> apply(REQ request, Service<REQ, RES> service) {
         DEST dest = destinationFunc.apply(request);
 
-        CompletableFuture<RES> respFuture = add(dest, () -> service.apply(request));
+        while (true) {
+            SequentialTaskRunner<RES> tasks = interactions.get(dest);
+            if (tasks == null) {
+                tasks = interactions.computeIfAbsent(dest, __ -> new SequentialTaskRunner<>(maxWaitingRequests, maxOutstandingRequests));
+                cleanupIfNeeded();
+            }
+
+            CompletableFuture<RES> respFuture = tasks.add(() -> service.apply(request));
+            if (respFuture != null) {
+                if (respFuture.isCompletedExceptionally() && isRejected(respFuture)) {
+                    statistics.congestionRejection();
+                }
+                return respFuture;
+            }
+            // retired by cleanup, make sure it is removed and try again
+            interactions.remove(dest, tasks);
+        }
+    }
 
-        respFuture.thenRun(() -> removeIfEmpty(dest));
-        return respFuture;
+    private static boolean isRejected(CompletableFuture<?> respFuture) {
+        return respFuture.handle((__, err) -> err instanceof TooManyRequestsForEndpointException).join();
+    }
 
+    private void cleanupIfNeeded() {
+        if (interactions.size() < cleanupThreshold || !cleaning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            interactions.values().removeIf(SequentialTaskRunner::retireIfEmpty);
+            cleanupThreshold = Math.max(MIN_CLEANUP_THRESHOLD, interactions.size() * 2);
+        } finally {
+            cleaning.set(false);
+        }
     }
 
-    private void removeIfEmpty(DEST dest) {
-        interactions.computeIfPresent(dest, (__, tasks) -> {
-            if (tasks.isEmpty()) {
-                return null;
-            }
-            return tasks;
-        });
+    /**
+     * @return number of queued and outstanding requests for given destination
+     */
+    public int queueDepth(DEST dest) {
+        SequentialTaskRunner<RES> tasks = interactions.get(dest);
+        return tasks != null ? tasks.size() : 0;
     }
 
-    private CompletableFuture<RES> add(DEST dest, Supplier<CompletableFuture<RES>> task) {
-        AtomicReference<CompletableFuture<RES>> respFuture = new AtomicReference<>();
-        interactions.compute(dest, (__, tasks) -> {
-            if (tasks == null) {
-                tasks = new SequentialTaskRunner<>(maxWaitingRequests);
-            }
-            respFuture.set(tasks.add(task));
-            return tasks;
-        });
-        return respFuture.get();
+    /**
+     * @return number of queued and outstanding requests for all destinations
+     */
+    public int totalQueueDepth() {
+        int total = 0;
+        for (SequentialTaskRunner<RES> tasks : interactions.values()) {
+            total += tasks.size();
+        }
+        return total;
+    }
+
+    /**
+     * @return number of tracked destinations, including idle ones that are not yet removed
+     */
+    public int destinations() {
+        return interactions.size();
     }
 }
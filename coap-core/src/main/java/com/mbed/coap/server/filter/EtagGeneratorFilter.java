@@ -21,7 +21,6 @@ import com.mbed.coap.packet.HeaderOptions;
 import com.mbed.coap.packet.Opaque;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
-import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -30,7 +29,7 @@ public final class EtagGeneratorFilter implements Filter.SimpleFilter<CoapReques
 
     private final Function<Opaque, Opaque> etagGenerator;
 
-    public final static EtagGeneratorFilter PAYLOAD_HASHING = new EtagGeneratorFilter(payload -> Opaque.variableUInt(Arrays.hashCode(payload.getBytes())));
+    public final static EtagGeneratorFilter PAYLOAD_HASHING = new EtagGeneratorFilter(payload -> Opaque.variableUInt(payload.hashCode()));
 
     public EtagGeneratorFilter(Function<Opaque, Opaque> etagGenerator) {
         this.etagGenerator = Objects.requireNonNull(etagGenerator);
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,7 +15,9 @@
  */
 package com.mbed.coap.server.filter;
 
+import static java.util.Objects.requireNonNull;
 import com.mbed.coap.exception.CoapTimeoutException;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.utils.Filter.SimpleFilter;
 import com.mbed.coap.utils.Service;
 import com.mbed.coap.utils.Timer;
@@ -27,19 +29,27 @@ public class ResponseTimeoutFilter<REQ, RES> implements SimpleFilter<REQ, RES> {
 
     private final Timer timer;
     private final Function<REQ, Duration> timeoutResolver;
+    private final CoapStatistics statistics;
 
     public ResponseTimeoutFilter(Timer timer, Function<REQ, Duration> timeoutResolver) {
+        this(timer, timeoutResolver, CoapStatistics.NULL);
+    }
+
+    public ResponseTimeoutFilter(Timer timer, Function<REQ, Duration> timeoutResolver, CoapStatistics statistics) {
         this.timer = timer;
         this.timeoutResolver = timeoutResolver;
+        this.statistics = requireNonNull(statistics);
     }
 
     @Override
     public CompletableFuture<RES> apply(REQ request, Service<REQ, RES> service) {
         CompletableFuture<RES> promise = service.apply(request);
 
-        Runnable cancel = timer.schedule(timeoutResolver.apply(request), () ->
-                promise.completeExceptionally(new CoapTimeoutException())
-        );
+        Runnable cancel = timer.schedule(timeoutResolver.apply(request), () -> {
+            if (promise.completeExceptionally(new CoapTimeoutException())) {
+                statistics.timeout();
+            }
+        });
 
         promise.whenComplete((__, err) -> cancel.run());
         return promise;
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,43 +17,104 @@ package com.mbed.coap.server.filter;
 
 import static com.mbed.coap.utils.FutureHelpers.*;
 import com.mbed.coap.exception.TooManyRequestsForEndpointException;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+/**
+ * Runs tasks in order they were added, with at most given number of them running at the same time.
+ */
 class SequentialTaskRunner<T> {
+    private static final int RETIRED = -1;
     private final int max;
-    private final AtomicReference<CompletableFuture<T>> last = new AtomicReference<>();
-    private final AtomicInteger counter = new AtomicInteger(0);
+    private final int maxRunning;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    // number of added and not yet completed tasks, or RETIRED
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final AtomicInteger running = new AtomicInteger(0);
+    private final AtomicInteger drainRequests = new AtomicInteger(0);
 
     public SequentialTaskRunner(int max) {
+        this(max, 1);
+    }
+
+    public SequentialTaskRunner(int max, int maxRunning) {
         this.max = max;
+        this.maxRunning = maxRunning;
     }
 
+    /**
+     * @return task result, or null when this runner is retired and no longer accepts tasks
+     */
     public CompletableFuture<T> add(Supplier<CompletableFuture<T>> task) {
-        if (counter.incrementAndGet() > max) {
-            counter.decrementAndGet();
-            return failedFuture(new TooManyRequestsForEndpointException(""));
-        }
+        int current;
+        do {
+            current = size.get();
+            if (current == RETIRED) {
+                return null;
+            }
+            if (current >= max) {
+                return failedFuture(new TooManyRequestsForEndpointException(""));
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
         CompletableFuture<T> promise = new CompletableFuture<>();
+        waiting.add(() -> run(task, promise));
+        drain();
+        return promise;
+    }
 
-        CompletableFuture<T> prev = last.getAndSet(promise);
-        if (prev == null) {
-            become(promise, task.get());
-        } else {
-            prev.whenComplete((__, err) ->
-                    become(promise, task.get())
-            );
+    private void run(Supplier<CompletableFuture<T>> task, CompletableFuture<T> promise) {
+        CompletableFuture<T> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException ex) {
+            future = failedFuture(ex);
         }
 
-        promise.thenRun(counter::decrementAndGet)
-                .thenRun(() -> last.compareAndSet(promise, null));
+        future.whenComplete((result, err) -> {
+            running.decrementAndGet();
+            size.decrementAndGet();
+            if (err != null) {
+                promise.completeExceptionally(err);
+            } else {
+                promise.complete(result);
+            }
+            drain();
+        });
+    }
 
-        return promise;
+    // only one thread at the time starts tasks, others just request another drain round
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (running.get() < maxRunning) {
+                Runnable task = waiting.poll();
+                if (task == null) {
+                    break;
+                }
+                running.incrementAndGet();
+                task.run();
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    /**
+     * Marks this runner as retired if it has no tasks, after that it does not accept any new tasks.
+     */
+    boolean retireIfEmpty() {
+        return size.compareAndSet(0, RETIRED);
+    }
+
+    int size() {
+        return Math.max(size.get(), 0);
     }
 
     boolean isEmpty() {
-        return last.get() == null;
+        return size() == 0;
     }
 }
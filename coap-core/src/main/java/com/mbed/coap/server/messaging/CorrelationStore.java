@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.messaging;
+
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.packet.Opaque;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent map from (peer address, message id or token) to value, used for correlating responses with requests.
+ * <p>
+ * Keys are not allocated: message id or token is packed into a long and stored together with peer address in
+ * open addressing tables. Tables are sharded by peer address into segments, each guarded by its own lock. Every
+ * segment also indexes keys by peer, so that all entries of a single peer are removed without scanning the table.
+ */
+public final class CorrelationStore<V> {
+    // tag that distinguishes message id keys from token keys, token keys are tagged with token length (0-8)
+    private static final int MID_TAG = -1;
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+
+    public CorrelationStore() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param concurrency number of independently locked segments, rounded up to power of two
+     */
+    @SuppressWarnings("unchecked")
+    public CorrelationStore(int concurrency) {
+        require(concurrency > 0 && concurrency <= 1 << 16, "Illegal concurrency level");
+        int size = Integer.highestOneBit(concurrency);
+        if (size < concurrency) {
+            size <<= 1;
+        }
+        segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment<>();
+        }
+        segmentMask = size - 1;
+    }
+
+    public V put(InetSocketAddress address, Opaque token, V value) {
+        return segmentFor(address).put(address, tokenKey(token), token.size(), value, false);
+    }
+
+    public V putIfAbsent(InetSocketAddress address, Opaque token, V value) {
+        return segmentFor(address).put(address, tokenKey(token), token.size(), value, true);
+    }
+
+    public V remove(InetSocketAddress address, Opaque token) {
+        return segmentFor(address).remove(address, tokenKey(token), token.size(), null);
+    }
+
+    public boolean remove(InetSocketAddress address, Opaque token, V value) {
+        return segmentFor(address).remove(address, tokenKey(token), token.size(), Objects.requireNonNull(value)) != null;
+    }
+
+    public V put(InetSocketAddress address, int messageId, V value) {
+        return segmentFor(address).put(address, messageId, MID_TAG, value, false);
+    }
+
+    public V putIfAbsent(InetSocketAddress address, int messageId, V value) {
+        return segmentFor(address).put(address, messageId, MID_TAG, value, true);
+    }
+
+    public V remove(InetSocketAddress address, int messageId) {
+        return segmentFor(address).remove(address, messageId, MID_TAG, null);
+    }
+
+    public boolean remove(InetSocketAddress address, int messageId, V value) {
+        return segmentFor(address).remove(address, messageId, MID_TAG, Objects.requireNonNull(value)) != null;
+    }
+
+    /**
+     * Removes all entries of given peer.
+     *
+     * @param action called for every removed value, after it is removed
+     * @return number of removed entries
+     */
+    public int removeAll(InetSocketAddress address, Consumer<V> action) {
+        List<V> removed = segmentFor(address).removeAll(address);
+        // outside of lock, action may modify this store
+        removed.forEach(action);
+        return removed.size();
+    }
+
+    /**
+     * Iterates over snapshot of all values.
+     */
+    public void forEach(Consumer<V> action) {
+        for (Segment<V> segment : segments) {
+            segment.values().forEach(action);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(InetSocketAddress address) {
+        int h = addressHash(address);
+        return segments[(h ^ h >>> 16) & segmentMask];
+    }
+
+    private static long tokenKey(Opaque token) {
+        require(token.size() <= 8, "Token too long");
+        return token.toLong();
+    }
+
+    private static int addressHash(InetSocketAddress address) {
+        return address != null ? address.hashCode() : 0;
+    }
+
+    // murmur3 finalizer
+    private static int hash(int addressHash, long key, int tag) {
+        long h = key * 0x9E3779B97F4A7C15L + addressHash * 31L + tag;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static final class Segment<V> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] hashes = new int[INITIAL_CAPACITY];
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] tags = new int[INITIAL_CAPACITY];
+        private InetSocketAddress[] addresses = new InetSocketAddress[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        // position of entry's key in its peer's key list
+        private int[] peerPositions = new int[INITIAL_CAPACITY];
+        private final Map<InetSocketAddress, PeerKeys> peers = new HashMap<>();
+        private int size;
+
+        // returns slot index when found, or (-1 - free slot index)
+        private int find(int hash, InetSocketAddress address, long key, int tag) {
+            int mask = values.length - 1;
+            int i = hash & mask;
+            while (values[i] != null) {
+                if (hashes[i] == hash && keys[i] == key && tags[i] == tag && Objects.equals(addresses[i], address)) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1 - i;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V put(InetSocketAddress address, long key, int tag, V value, boolean onlyIfAbsent) {
+            Objects.requireNonNull(value);
+            int hash = hash(addressHash(address), key, tag);
+            int i = find(hash, address, key, tag);
+            if (i >= 0) {
+                V prev = (V) values[i];
+                if (!onlyIfAbsent) {
+                    values[i] = value;
+                }
+                return prev;
+            }
+
+            if ((size + 1) * 4 > values.length * 3) {
+                resize();
+                i = find(hash, address, key, tag);
+            }
+            int position = peers.computeIfAbsent(address, a -> new PeerKeys()).add(key, tag);
+            setAt(-1 - i, hash, address, key, tag, value, position);
+            size++;
+            return null;
+        }
+
+        // when expected is not null, entry is removed only if it has the same value
+        @SuppressWarnings("unchecked")
+        synchronized V remove(InetSocketAddress address, long key, int tag, V expected) {
+            int i = find(hash(addressHash(address), key, tag), address, key, tag);
+            if (i < 0) {
+                return null;
+            }
+            V prev = (V) values[i];
+            if (expected != null && !expected.equals(prev)) {
+                return null;
+            }
+            removeFromPeer(i);
+            deleteAt(i);
+            return prev;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized List<V> removeAll(InetSocketAddress address) {
+            PeerKeys peer = peers.remove(address);
+            if (peer == null) {
+                return new ArrayList<>(0);
+            }
+            List<V> removed = new ArrayList<>(peer.size);
+            int addressHash = addressHash(address);
+            for (int k = 0; k < peer.size; k++) {
+                int i = find(hash(addressHash, peer.keys[k], peer.tags[k]), address, peer.keys[k], peer.tags[k]);
+                removed.add((V) values[i]);
+                deleteAt(i);
+            }
+            return removed;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized List<V> values() {
+            List<V> list = new ArrayList<>(size);
+            for (Object value : values) {
+                if (value != null) {
+                    list.add((V) value);
+                }
+            }
+            return list;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void setAt(int i, int hash, InetSocketAddress address, long key, int tag, Object value, int peerPosition) {
+            hashes[i] = hash;
+            keys[i] = key;
+            tags[i] = tag;
+            addresses[i] = address;
+            values[i] = value;
+            peerPositions[i] = peerPosition;
+        }
+
+        // swaps last key of the peer into position of removed one
+        private void removeFromPeer(int index) {
+            InetSocketAddress address = addresses[index];
+            PeerKeys peer = peers.get(address);
+            int position = peerPositions[index];
+            int last = peer.size - 1;
+            if (position != last) {
+                long lastKey = peer.keys[last];
+                int lastTag = peer.tags[last];
+                peer.keys[position] = lastKey;
+                peer.tags[position] = lastTag;
+                peerPositions[find(hash(addressHash(address), lastKey, lastTag), address, lastKey, lastTag)] = position;
+            }
+            peer.size = last;
+            if (last == 0) {
+                peers.remove(address);
+            }
+        }
+
+        // backward shift deletion, keeps probe sequences without tombstones
+        private void deleteAt(int index) {
+            int mask = values.length - 1;
+            int hole = index;
+            int j = index;
+            while (true) {
+                j = (j + 1) & mask;
+                if (values[j] == null) {
+                    break;
+                }
+                int home = hashes[j] & mask;
+                // entry stays, if its home slot is cyclically in (hole, j]
+                boolean stays = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+                if (!stays) {
+                    setAt(hole, hashes[j], addresses[j], keys[j], tags[j], values[j], peerPositions[j]);
+                    hole = j;
+                }
+            }
+            addresses[hole] = null;
+            values[hole] = null;
+            size--;
+        }
+
+        private void resize() {
+            int[] oldHashes = hashes;
+            long[] oldKeys = keys;
+            int[] oldTags = tags;
+            InetSocketAddress[] oldAddresses = addresses;
+            Object[] oldValues = values;
+            int[] oldPeerPositions = peerPositions;
+
+            int capacity = oldValues.length * 2;
+            hashes = new int[capacity];
+            keys = new long[capacity];
+            tags = new int[capacity];
+            addresses = new InetSocketAddress[capacity];
+            values = new Object[capacity];
+            peerPositions = new int[capacity];
+
+            int mask = capacity - 1;
+            for (int k = 0; k < oldValues.length; k++) {
+                if (oldValues[k] != null) {
+                    int i = oldHashes[k] & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    setAt(i, oldHashes[k], oldAddresses[k], oldKeys[k], oldTags[k], oldValues[k], oldPeerPositions[k]);
+                }
+            }
+        }
+    }
+
+    private static final class PeerKeys {
+        private long[] keys = new long[2];
+        private int[] tags = new int[2];
+        private int size;
+
+        int add(long key, int tag) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                tags = Arrays.copyOf(tags, size * 2);
+            }
+            keys[size] = key;
+            tags[size] = tag;
+            return size++;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,16 +17,16 @@ package com.mbed.coap.server.messaging;
 
 import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
+import com.mbed.coap.packet.Opaque;
 import com.mbed.coap.packet.SeparateResponse;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
+import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 public class ExchangeFilter implements Filter.SimpleFilter<CoapRequest, CoapResponse> {
 
-    private final ConcurrentMap<TransactionId, CompletableFuture<CoapResponse>> transactions = new ConcurrentHashMap<>();
+    private final CorrelationStore<CompletableFuture<CoapResponse>> transactions = new CorrelationStore<>();
 
     @Override
     public CompletableFuture<CoapResponse> apply(CoapRequest request, Service<CoapRequest, CoapResponse> service) {
@@ -34,9 +34,10 @@ public class ExchangeFilter implements Filter.SimpleFilter<CoapRequest, CoapResp
             return service.apply(request);
         }
 
-        TransactionId tid = new TransactionId(request.getToken(), request.getPeerAddress());
+        Opaque token = request.getToken();
+        InetSocketAddress peerAddress = request.getPeerAddress();
         CompletableFuture<CoapResponse> promise = new CompletableFuture<>();
-        transactions.put(tid, promise);
+        transactions.put(peerAddress, token, promise);
 
         CompletableFuture<CoapResponse> servicePromise = service.apply(request);
         servicePromise
@@ -52,7 +53,7 @@ public class ExchangeFilter implements Filter.SimpleFilter<CoapRequest, CoapResp
 
         promise.whenComplete((__, ex) -> {
             servicePromise.cancel(false);
-            transactions.remove(tid, promise);
+            transactions.remove(peerAddress, token, promise);
         });
 
         return promise;
@@ -63,8 +64,7 @@ public class ExchangeFilter implements Filter.SimpleFilter<CoapRequest, CoapResp
     }
 
     public boolean handleResponse(SeparateResponse resp) {
-        TransactionId tid = new TransactionId(resp.getToken(), resp.getPeerAddress());
-        CompletableFuture<CoapResponse> promise = transactions.remove(tid);
+        CompletableFuture<CoapResponse> promise = transactions.remove(resp.getPeerAddress(), resp.getToken());
         if (promise != null) {
             return promise.complete(resp.asResponse());
         } else {
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,13 +21,12 @@ import com.mbed.coap.packet.MessageType;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 public class PiggybackedExchangeFilter implements Filter<CoapPacket, CoapPacket, CoapPacket, Boolean> {
 
-    private final ConcurrentMap<PiggybackedCorrelation, CompletableFuture<CoapPacket>> promises = new ConcurrentHashMap<>();
+    private final CorrelationStore<CompletableFuture<CoapPacket>> promises = new CorrelationStore<>();
 
     @Override
     public CompletableFuture<CoapPacket> apply(CoapPacket packet, Service<CoapPacket, Boolean> service) {
@@ -36,14 +35,15 @@ public class PiggybackedExchangeFilter implements Filter<CoapPacket, CoapPacket,
         }
         require(packet.getMessageType() == MessageType.Confirmable);
 
-        PiggybackedCorrelation transactionId = new PiggybackedCorrelation(packet);
+        int messageId = packet.getMessageId();
+        InetSocketAddress remoteAddress = packet.getRemoteAddress();
         CompletableFuture<CoapPacket> newPromise = new CompletableFuture<>();
-        CompletableFuture<CoapPacket> prevPromise = promises.putIfAbsent(transactionId, newPromise);
+        CompletableFuture<CoapPacket> prevPromise = promises.putIfAbsent(remoteAddress, messageId, newPromise);
         final CompletableFuture<CoapPacket> promise = prevPromise != null ? prevPromise : newPromise;
 
         CompletableFuture<CoapPacket> returningPromise = service.apply(packet)
                 .thenCompose(__ -> promise);
-        returningPromise.whenComplete((__, err) -> promises.remove(transactionId));
+        returningPromise.whenComplete((__, err) -> promises.remove(remoteAddress, messageId));
 
         return returningPromise;
 
@@ -53,7 +53,7 @@ public class PiggybackedExchangeFilter implements Filter<CoapPacket, CoapPacket,
         switch (packet.getMessageType()) {
             case Acknowledgement:
             case Reset:
-                CompletableFuture<CoapPacket> promise = promises.remove(new PiggybackedCorrelation(packet));
+                CompletableFuture<CoapPacket> promise = promises.remove(packet.getRemoteAddress(), packet.getMessageId());
                 if (promise == null) {
                     return false;
                 }
@@ -65,10 +65,10 @@ public class PiggybackedExchangeFilter implements Filter<CoapPacket, CoapPacket,
     }
 
     public void stop() {
-        promises.forEach((__, promise) -> promise.completeExceptionally(new IOException("Stopped")));
+        promises.forEach(promise -> promise.completeExceptionally(new IOException("Stopped")));
     }
 
-    int transactions() {
+    public int transactions() {
         return promises.size();
     }
 
@@ -18,12 +18,16 @@ package com.mbed.coap.server.messaging;
 import static com.mbed.coap.utils.FutureHelpers.become;
 import static java.util.Objects.requireNonNull;
 import com.mbed.coap.exception.CoapTimeoutException;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.transmission.RetransmissionBackOff;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
 import com.mbed.coap.utils.Timer;
+import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -32,11 +36,23 @@ public final class RetransmissionFilter<REQ, RES> implements Filter.SimpleFilter
     private final Timer timer;
     private final RetransmissionBackOff backoff;
     private final Predicate<REQ> doRetransmit;
+    private final Function<REQ, InetSocketAddress> peerAddressFunc;
+    private final CoapStatistics statistics;
 
     public RetransmissionFilter(Timer timer, RetransmissionBackOff backoff, Predicate<REQ> doRetransmit) {
+        this(timer, backoff, doRetransmit, __ -> null);
+    }
+
+    public RetransmissionFilter(Timer timer, RetransmissionBackOff backoff, Predicate<REQ> doRetransmit, Function<REQ, InetSocketAddress> peerAddressFunc) {
+        this(timer, backoff, doRetransmit, peerAddressFunc, CoapStatistics.NULL);
+    }
+
+    public RetransmissionFilter(Timer timer, RetransmissionBackOff backoff, Predicate<REQ> doRetransmit, Function<REQ, InetSocketAddress> peerAddressFunc, CoapStatistics statistics) {
         this.timer = requireNonNull(timer);
         this.backoff = requireNonNull(backoff);
         this.doRetransmit = requireNonNull(doRetransmit);
+        this.peerAddressFunc = requireNonNull(peerAddressFunc);
+        this.statistics = requireNonNull(statistics);
     }
 
     @Override
@@ -47,20 +63,32 @@ public final class RetransmissionFilter<REQ, RES> implements Filter.SimpleFilter
             return promise;
         }
 
-        Runnable cancel = timer.schedule(backoff.next(1), () -> next(promise, 2, () -> service.apply(request)));
-        promise.whenComplete((__, ex) -> cancel.run());
+        InetSocketAddress peerAddress = peerAddressFunc.apply(request);
+        RetransmissionBackOff exchangeBackoff = backoff.forPeer(peerAddress);
+        AtomicInteger transmissions = new AtomicInteger(1);
+        long startNanos = System.nanoTime();
+
+        Runnable cancel = timer.schedule(exchangeBackoff.next(1), () -> next(promise, exchangeBackoff, transmissions, () -> service.apply(request)));
+        promise.whenComplete((__, ex) -> {
+            cancel.run();
+            if (ex == null) {
+                backoff.onResponse(peerAddress, transmissions.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+            }
+        });
 
         return promise;
     }
 
-    private void next(CompletableFuture<RES> promise, int attempt, Supplier<CompletableFuture<RES>> retryFunc) {
-        Duration delay = backoff.next(attempt);
+    private void next(CompletableFuture<RES> promise, RetransmissionBackOff exchangeBackoff, AtomicInteger transmissions, Supplier<CompletableFuture<RES>> retryFunc) {
+        Duration delay = exchangeBackoff.next(transmissions.get() + 1);
         if (!delay.isZero()) {
+            statistics.retransmission(transmissions.incrementAndGet());
             become(promise, retryFunc.get());
-            Runnable cancel = timer.schedule(delay, () -> next(promise, attempt + 1, retryFunc));
+            Runnable cancel = timer.schedule(delay, () -> next(promise, exchangeBackoff, transmissions, retryFunc));
 
             promise.whenComplete((__, err) -> cancel.run());
         } else {
+            statistics.timeout();
             promise.completeExceptionally(new CoapTimeoutException());
         }
     }
@@ -0,0 +1,425 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.observe;
+
+import static com.mbed.coap.utils.Validations.require;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import com.mbed.coap.packet.CoapRequest;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.packet.SeparateResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Observations store that survives restarts, backed by append-only log file.
+ * <p>
+ * Every add and remove is appended to the log, on start the log is replayed in fixed size chunks. When the log
+ * contains more removed than live entries, it is compacted by rewriting live entries into a new file.
+ * Tokens are kept in heap as primitives, and every uri-path only once, so that millions of observations take only
+ * a few bytes each.
+ * <p>
+ * Note: automatic compaction runs synchronously within {@link #add(CoapRequest)} or
+ * {@link #remove(SeparateResponse)} that triggered it, while holding store lock, and includes flushing new file to
+ * disk. It takes time proportional to number of live observations, but since it happens only after the log has
+ * doubled, its cost is amortized over previous operations.
+ */
+public final class FileObservationsStore implements ObservationsStore, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileObservationsStore.class);
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int MAX_TOKEN_SIZE = 8;
+    private static final int MAX_URI_PATH_SIZE = 0xFFFF;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    // fits the largest record: header, token, uri-path length and uri-path
+    private static final int READ_BUFFER_SIZE = 128 * 1024;
+
+    private final Path file;
+    private TokenIndex index = new TokenIndex();
+    private FileChannel channel;
+    private int records;
+
+    private FileObservationsStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens store, loading observations from given file or creating a new one.
+     */
+    public static FileObservationsStore open(Path file) throws IOException {
+        FileObservationsStore store = new FileObservationsStore(file);
+        store.load();
+        return store;
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validSize = 0;
+        ByteBuffer log = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        boolean isValid = true;
+        while (isValid && channel.read(log) >= 0) {
+            log.flip();
+            isValid = replay(log);
+            validSize += log.position();
+            log.compact();
+        }
+        if (validSize < channel.size()) {
+            LOGGER.warn("[{}] Truncating corrupted observations log at position {}", file, validSize);
+            channel.truncate(validSize);
+        }
+        channel.position(validSize);
+        LOGGER.debug("[{}] Loaded {} observations", file, index.size());
+    }
+
+    // leaves buffer positioned after last complete record, returns false when invalid record is found
+    private boolean replay(ByteBuffer log) {
+        while (log.hasRemaining()) {
+            int recordStart = log.position();
+            try {
+                byte op = log.get();
+                int tokenSize = log.get();
+                if (tokenSize < 0 || tokenSize > MAX_TOKEN_SIZE || op != ADD && op != REMOVE) {
+                    log.position(recordStart);
+                    return false;
+                }
+                Opaque token = Opaque.read(log, tokenSize);
+                if (op == ADD) {
+                    byte[] uriPath = new byte[log.getShort() & 0xFFFF];
+                    log.get(uriPath);
+                    index.put(token, new String(uriPath, UTF_8));
+                } else {
+                    index.remove(token);
+                }
+                records++;
+            } catch (BufferUnderflowException ex) {
+                // record continues in next chunk, or is partially written last record
+                log.position(recordStart);
+                return true;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void add(CoapRequest obsReq) {
+        Opaque token = obsReq.getToken();
+        String uriPath = requireNonNull(obsReq.options().getUriPath());
+        require(token.size() <= MAX_TOKEN_SIZE, "Token too long");
+
+        append(encode(ADD, token, uriPath));
+        index.put(token, uriPath);
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized Optional<String> resolveUriPath(SeparateResponse obs) {
+        return Optional.ofNullable(index.get(obs.getToken()));
+    }
+
+    @Override
+    public synchronized void remove(SeparateResponse obs) {
+        Opaque token = obs.getToken();
+        if (index.get(token) == null) {
+            return;
+        }
+        append(encode(REMOVE, token, null));
+        index.remove(token);
+        compactIfNeeded();
+    }
+
+    public synchronized boolean contains(Opaque token) {
+        return index.get(token) != null;
+    }
+
+    public synchronized boolean isEmpty() {
+        return index.size() == 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private static ByteBuffer encode(byte op, Opaque token, String uriPath) {
+        byte[] uriPathBytes = uriPath != null ? uriPath.getBytes(UTF_8) : null;
+        ByteBuffer buffer;
+        if (uriPathBytes != null) {
+            require(uriPathBytes.length <= MAX_URI_PATH_SIZE, "Uri-Path too long");
+            buffer = ByteBuffer.allocate(2 + token.size() + 2 + uriPathBytes.length);
+        } else {
+            buffer = ByteBuffer.allocate(2 + token.size());
+        }
+
+        buffer.put(op);
+        buffer.put((byte) token.size());
+        token.writeTo(buffer);
+        if (uriPathBytes != null) {
+            buffer.putShort((short) uriPathBytes.length);
+            buffer.put(uriPathBytes);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void append(ByteBuffer record) {
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (records >= MIN_COMPACTION_RECORDS && records > 2 * index.size()) {
+            try {
+                compact();
+            } catch (IOException e) {
+                LOGGER.warn("[{}] Failed to compact observations log: {}", file, e.toString());
+            }
+        }
+    }
+
+    /**
+     * Rewrites log so that it contains only live observations. On failure, store keeps using current log.
+     */
+    public synchronized void compact() throws IOException {
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        // rebuilt index drops no longer used uri-paths
+        TokenIndex compactedIndex = new TokenIndex();
+        // new channel is kept open, it follows the file when moved
+        FileChannel newChannel = FileChannel.open(tmpFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            index.forEach((token, uriPath) -> {
+                compactedIndex.put(token, uriPath);
+                ByteBuffer record = encode(ADD, token, uriPath);
+                try {
+                    while (record.hasRemaining()) {
+                        newChannel.write(record);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            newChannel.force(true);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(newChannel);
+            Files.deleteIfExists(tmpFile);
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            throw e;
+        }
+
+        FileChannel oldChannel = channel;
+        channel = newChannel;
+        closeQuietly(oldChannel);
+        index = compactedIndex;
+        records = index.size();
+        LOGGER.debug("[{}] Compacted observations log, {} observations", file, records);
+    }
+
+    private void closeQuietly(FileChannel fileChannel) {
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("[{}] Failed to close observations log: {}", file, e.toString());
+        }
+    }
+
+    /**
+     * Flushes log to disk and closes it.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    // open addressing map from token (up to 8 bytes, packed into long) to uri-path id
+    private static final class TokenIndex {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final int FREE = -1;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private byte[] sizes = new byte[INITIAL_CAPACITY];
+        private int[] pathIds = newPathIds(INITIAL_CAPACITY);
+        private int size;
+
+        // every distinct uri-path is stored only once
+        private final List<String> paths = new ArrayList<>();
+        private final Map<String, Integer> pathIdsByPath = new HashMap<>();
+
+        private static int[] newPathIds(int capacity) {
+            int[] ids = new int[capacity];
+            Arrays.fill(ids, FREE);
+            return ids;
+        }
+
+        private static int hash(long key, int tokenSize) {
+            long h = key * 0x9E3779B97F4A7C15L + tokenSize;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+
+        // returns slot index when found, or (-1 - free slot index)
+        private int find(long key, int tokenSize) {
+            int mask = pathIds.length - 1;
+            int i = hash(key, tokenSize) & mask;
+            while (pathIds[i] != FREE) {
+                if (keys[i] == key && sizes[i] == tokenSize) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1 - i;
+        }
+
+        String get(Opaque token) {
+            if (token.size() > MAX_TOKEN_SIZE) {
+                return null;
+            }
+            int i = find(token.toLong(), token.size());
+            return i >= 0 ? paths.get(pathIds[i]) : null;
+        }
+
+        void put(Opaque token, String uriPath) {
+            long key = token.toLong();
+            int pathId = pathIdsByPath.computeIfAbsent(uriPath, __ -> {
+                paths.add(uriPath);
+                return paths.size() - 1;
+            });
+
+            int i = find(key, token.size());
+            if (i >= 0) {
+                pathIds[i] = pathId;
+                return;
+            }
+            if ((size + 1) * 4 > pathIds.length * 3) {
+                resize();
+                i = find(key, token.size());
+            }
+            i = -1 - i;
+            keys[i] = key;
+            sizes[i] = (byte) token.size();
+            pathIds[i] = pathId;
+            size++;
+        }
+
+        void remove(Opaque token) {
+            if (token.size() > MAX_TOKEN_SIZE) {
+                return;
+            }
+            int i = find(token.toLong(), token.size());
+            if (i >= 0) {
+                deleteAt(i);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(BiConsumer<Opaque, String> action) {
+            for (int i = 0; i < pathIds.length; i++) {
+                if (pathIds[i] != FREE) {
+                    action.accept(toToken(keys[i], sizes[i]), paths.get(pathIds[i]));
+                }
+            }
+        }
+
+        private static Opaque toToken(long key, int tokenSize) {
+            byte[] token = new byte[tokenSize];
+            for (int i = tokenSize - 1; i >= 0; i--) {
+                token[i] = (byte) key;
+                key >>>= 8;
+            }
+            return Opaque.of(token);
+        }
+
+        // backward shift deletion, keeps probe sequences without tombstones
+        private void deleteAt(int index) {
+            int mask = pathIds.length - 1;
+            int hole = index;
+            int j = index;
+            while (true) {
+                j = (j + 1) & mask;
+                if (pathIds[j] == FREE) {
+                    break;
+                }
+                int home = hash(keys[j], sizes[j]) & mask;
+                // entry stays, if its home slot is cyclically in (hole, j]
+                boolean stays = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+                if (!stays) {
+                    keys[hole] = keys[j];
+                    sizes[hole] = sizes[j];
+                    pathIds[hole] = pathIds[j];
+                    hole = j;
+                }
+            }
+            pathIds[hole] = FREE;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            byte[] oldSizes = sizes;
+            int[] oldPathIds = pathIds;
+
+            int capacity = oldPathIds.length * 2;
+            keys = new long[capacity];
+            sizes = new byte[capacity];
+            pathIds = newPathIds(capacity);
+
+            int mask = capacity - 1;
+            for (int k = 0; k < oldPathIds.length; k++) {
+                if (oldPathIds[k] != FREE) {
+                    int i = hash(oldKeys[k], oldSizes[k]) & mask;
+                    while (pathIds[i] != FREE) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[k];
+                    sizes[i] = oldSizes[k];
+                    pathIds[i] = oldPathIds[k];
+                }
+            }
+        }
+    }
+}
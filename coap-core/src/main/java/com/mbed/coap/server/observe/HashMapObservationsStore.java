@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,4 +47,9 @@ public final class HashMapObservationsStore implements ObservationsStore {
     public boolean isEmpty() {
         return obsMap.isEmpty();
     }
+
+    @Override
+    public int size() {
+        return obsMap.size();
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.observe;
+
+import com.mbed.coap.packet.BlockOption;
+import com.mbed.coap.packet.BlockSize;
+import com.mbed.coap.packet.CoapRequest;
+import com.mbed.coap.packet.Method;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.transport.TransportContext;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+
+/**
+ * Observation relation on server side, holds only what is needed to render and address a notification: peer,
+ * token, request properties that select resource representation and transport context.
+ * <p>
+ * Token and payload are copied, so that a relation does not keep whole received packet in memory through views on it.
+ * Other options of subscribing request are not kept.
+ */
+public final class ObservationRelation {
+    private static final int NO_ACCEPT = -1;
+
+    private final InetSocketAddress peerAddress;
+    private final Opaque token;
+    private final Method method;
+    private final String uriPath;
+    private final int accept;
+    private final BlockSize blockSize;
+    private final String uriQuery;
+    private final Opaque payload;
+    private final TransportContext transContext;
+
+    public ObservationRelation(InetSocketAddress peerAddress, Opaque token, Method method, String uriPath, Integer accept, BlockSize blockSize,
+            String uriQuery, Opaque payload, TransportContext transContext) {
+        this.peerAddress = Objects.requireNonNull(peerAddress);
+        this.token = copyOf(token);
+        this.method = Objects.requireNonNull(method);
+        this.uriPath = uriPath;
+        this.accept = accept == null ? NO_ACCEPT : accept;
+        this.blockSize = blockSize;
+        this.uriQuery = uriQuery;
+        this.payload = copyOf(payload);
+        this.transContext = Objects.requireNonNull(transContext);
+    }
+
+    public static ObservationRelation from(CoapRequest subscribeRequest) {
+        BlockOption block2 = subscribeRequest.options().getBlock2Res();
+        return new ObservationRelation(
+                subscribeRequest.getPeerAddress(),
+                subscribeRequest.getToken(),
+                subscribeRequest.getMethod(),
+                subscribeRequest.options().getUriPath(),
+                subscribeRequest.options().getAccept(),
+                block2 == null ? null : block2.getBlockSize(),
+                subscribeRequest.options().getUriQuery(),
+                subscribeRequest.getPayload(),
+                subscribeRequest.getTransContext()
+        );
+    }
+
+    private static Opaque copyOf(Opaque opaque) {
+        return opaque.isEmpty() ? Opaque.EMPTY : new Opaque(opaque.getBytes());
+    }
+
+    /**
+     * Re-creates subscribing request, that is passed to resource service when rendering notification.
+     */
+    public CoapRequest toRequest() {
+        CoapRequest.Builder builder = CoapRequest.request(method, uriPath)
+                .token(token)
+                .observe()
+                .accept(getAccept() == null ? null : (short) accept)
+                .payload(payload)
+                .context(transContext);
+        if (uriQuery != null) {
+            builder.query(uriQuery);
+        }
+        if (blockSize != null) {
+            builder.block2Res(0, blockSize, false);
+        }
+        return builder.from(peerAddress);
+    }
+
+    public InetSocketAddress getPeerAddress() {
+        return peerAddress;
+    }
+
+    public Opaque getToken() {
+        return token;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getUriPath() {
+        return uriPath;
+    }
+
+    public Integer getAccept() {
+        return accept == NO_ACCEPT ? null : accept;
+    }
+
+    public BlockSize getBlockSize() {
+        return blockSize;
+    }
+
+    public String getUriQuery() {
+        return uriQuery;
+    }
+
+    public Opaque getPayload() {
+        return payload;
+    }
+
+    public TransportContext getTransContext() {
+        return transContext;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ObservationRelation that = (ObservationRelation) o;
+        return accept == that.accept && Objects.equals(peerAddress, that.peerAddress) && Objects.equals(token, that.token) && method == that.method
+                && Objects.equals(uriPath, that.uriPath) && blockSize == that.blockSize && Objects.equals(uriQuery, that.uriQuery)
+                && Objects.equals(payload, that.payload) && Objects.equals(transContext, that.transContext);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(peerAddress, token, method, uriPath, accept, blockSize, uriQuery, payload, transContext);
+    }
+
+    @Override
+    public String toString() {
+        return "ObservationRelation[" + peerAddress + "#" + token + "]";
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.observe;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage of server side observation relations, at most one relation per resource (uri-path) and peer.
+ * Implementations must be thread safe.
+ */
+public interface ObservationRelationsStore {
+
+    /**
+     * Adds relation, replacing existing one for the same uri-path and peer.
+     */
+    void put(String uriPath, ObservationRelation relation);
+
+    void remove(String uriPath, InetSocketAddress peerAddress);
+
+    /**
+     * @return snapshot of relations for given uri-path
+     */
+    List<ObservationRelation> findAll(String uriPath);
+
+    /**
+     * @return snapshot of uri-paths that have at least one relation
+     */
+    Set<String> uriPaths();
+
+    void clear();
+
+    int size();
+
+    static ObservationRelationsStore inMemory() {
+        return new ShardedObservationRelationsStore();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,13 @@ public interface ObservationsStore {
 
     void remove(SeparateResponse obs);
 
+    /**
+     * @return number of stored observations, default implementation does not track it and returns 0
+     */
+    default int size() {
+        return 0;
+    }
+
     static ObservationsStore inMemory() {
         return new HashMapObservationsStore();
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
 import com.mbed.coap.packet.Code;
 import com.mbed.coap.packet.Method;
+import com.mbed.coap.packet.Opaque;
 import com.mbed.coap.packet.SeparateResponse;
 import com.mbed.coap.server.CoapServer;
 import com.mbed.coap.utils.Filter;
@@ -29,10 +30,13 @@ import com.mbed.coap.utils.Service;
 import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import org.slf4j.Logger;
@@ -41,10 +45,35 @@ import org.slf4j.LoggerFactory;
 public class ObserversManager implements Filter.SimpleFilter<CoapRequest, CoapResponse> {
     private final static Logger LOGGER = LoggerFactory.getLogger(ObserversManager.class);
     private volatile Service<SeparateResponse, Boolean> outboundObservation;
-    //               uri-path,    address,           subscribing request
-    private final Map<String, Map<InetSocketAddress, CoapRequest>> obsRelations = new ConcurrentHashMap<>();
+    private final ObservationRelationsStore obsRelations;
     private final AtomicInteger observeSeq = new AtomicInteger(0);
 
+    // fan-out dispatcher
+    private static final int DEFAULT_MAX_IN_FLIGHT_NOTIFICATIONS = 1000;
+    private final int maxInFlightNotifications;
+    private final Queue<Fanout> fanouts = new ConcurrentLinkedQueue<>();
+    private final Map<String, Fanout> latestFanouts = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlightNotifications = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public ObserversManager() {
+        this(DEFAULT_MAX_IN_FLIGHT_NOTIFICATIONS);
+    }
+
+    /**
+     * @param maxInFlightNotifications maximum number of not yet completed notifications, sent with
+     *                                 {@link #broadcastObservation(String, Service)}
+     */
+    public ObserversManager(int maxInFlightNotifications) {
+        this(ObservationRelationsStore.inMemory(), maxInFlightNotifications);
+    }
+
+    public ObserversManager(ObservationRelationsStore obsRelations, int maxInFlightNotifications) {
+        require(maxInFlightNotifications > 0, "Max in-flight notifications must be positive");
+        this.obsRelations = requireNonNull(obsRelations);
+        this.maxInFlightNotifications = maxInFlightNotifications;
+    }
+
     public void init(Service<SeparateResponse, Boolean> outboundObservation) {
         obsRelations.clear();
         this.outboundObservation = requireNonNull(outboundObservation);
@@ -88,14 +117,14 @@ public class ObserversManager implements Filter.SimpleFilter<CoapRequest, CoapRe
     }
 
     public void sendObservation(String uriPath, Service<CoapRequest, CoapResponse> service) {
-        Map<InetSocketAddress, CoapRequest> subscriptions = obsRelations.getOrDefault(uriPath, Collections.emptyMap());
+        List<ObservationRelation> subscriptions = obsRelations.findAll(uriPath);
         if (subscriptions.isEmpty()) {
             return;
         }
 
         int currentObserveSequence = observeSeq.incrementAndGet();
-        for (InetSocketAddress peerAddress : subscriptions.keySet()) {
-            CoapRequest subscribeRequest = subscriptions.get(peerAddress);
+        for (ObservationRelation relation : subscriptions) {
+            CoapRequest subscribeRequest = relation.toRequest();
 
             service.apply(subscribeRequest)
                     .thenApply(obsResponse ->
@@ -109,19 +138,140 @@ public class ObserversManager implements Filter.SimpleFilter<CoapRequest, CoapRe
     }
 
     public void sendObservation(Predicate<String> uriPathFilter, Service<CoapRequest, CoapResponse> service) {
-        obsRelations.keySet().stream()
+        obsRelations.uriPaths().stream()
                 .filter(uriPathFilter)
                 .forEach(uriPath -> sendObservation(uriPath, service));
     }
 
-    private void sendObservation(String uriPath, SeparateResponse separateResponse) {
+    /**
+     * Sends notification to all observers of given resource, rendering its representation only once.
+     * <p>
+     * Service is called once for every distinct representation that observers have asked for (Accept, Uri-Query
+     * and FETCH payload), with one of the subscribing requests, so it must not depend on requesting peer. Every
+     * rendered response is shared by all its observers, only token and peer address differ.
+     * <p>
+     * Notifications are sent with limited number of in-flight notifications (see
+     * {@link #ObserversManager(int)}), following ones wait until previous are acknowledged or sent. When resource
+     * changes again before all its observers got notified, pending notifications are replaced with new ones, so
+     * that slow transport delays, but does not accumulate, notifications. Resource changes supersede each other in
+     * observe sequence order, representation that is rendered after a newer one is dropped.
+     */
+    public void broadcastObservation(String uriPath, Service<CoapRequest, CoapResponse> service) {
+        List<ObservationRelation> subscriptions = obsRelations.findAll(uriPath);
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        int currentObserveSequence = observeSeq.incrementAndGet();
+        Map<RepresentationKey, CompletableFuture<CoapResponse>> representations = new HashMap<>();
+        for (ObservationRelation relation : subscriptions) {
+            representations.computeIfAbsent(new RepresentationKey(relation), __ ->
+                    service.apply(relation.toRequest()).thenApply(obsResponse -> obsResponse.withOptions(o -> o.observe(currentObserveSequence)))
+            );
+        }
+
+        CompletableFuture.allOf(representations.values().toArray(new CompletableFuture[0])).whenComplete((__, exception) -> {
+            if (exception != null) {
+                LOGGER.warn("[{}] Failed to render notification: {}", uriPath, exception.toString());
+            }
+            enqueue(new Fanout(uriPath, currentObserveSequence, subscriptions, representations));
+        });
+    }
+
+    public void broadcastObservation(Predicate<String> uriPathFilter, Service<CoapRequest, CoapResponse> service) {
+        obsRelations.uriPaths().stream()
+                .filter(uriPathFilter)
+                .forEach(uriPath -> broadcastObservation(uriPath, service));
+    }
+
+    private void enqueue(Fanout fanout) {
+        Fanout[] superseded = new Fanout[1];
+        Fanout latest = latestFanouts.compute(fanout.uriPath, (__, previous) -> {
+            if (previous != null && !fanout.isNewerThan(previous)) {
+                return previous;
+            }
+            superseded[0] = previous;
+            return fanout;
+        });
+        if (latest != fanout) {
+            LOGGER.debug("[{}] Dropped notifications with observe {}, newer change is already queued or sent", fanout.uriPath, fanout.observeSequence);
+            return;
+        }
+        if (superseded[0] != null) {
+            superseded[0].superseded = true;
+        }
+        fanouts.add(fanout);
+        drain();
+    }
+
+    // only one thread at the time sends notifications, others just request another drain round
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        boolean isCompleted = false;
+        try {
+            do {
+                sendPending();
+            } while (drainRequests.decrementAndGet() != 0);
+            isCompleted = true;
+        } finally {
+            if (!isCompleted) {
+                // let next drain request take over
+                drainRequests.set(0);
+            }
+        }
+    }
+
+    private void sendPending() {
+        while (inFlightNotifications.get() < maxInFlightNotifications) {
+            Fanout fanout = fanouts.peek();
+            if (fanout == null) {
+                return;
+            }
+            SeparateResponse notification;
+            try {
+                notification = fanout.next();
+            } catch (RuntimeException ex) {
+                LOGGER.warn("[{}] Dropped notifications, got exception: {}", fanout.uriPath, ex.toString());
+                notification = null;
+            }
+            if (notification == null) {
+                fanouts.poll();
+                // remember sequence of the latest change, so that older one rendered later is not sent
+                latestFanouts.replace(fanout.uriPath, fanout, fanout.completed());
+                continue;
+            }
+
+            inFlightNotifications.incrementAndGet();
+            CompletableFuture<Boolean> result;
+            try {
+                result = sendObservation(fanout.uriPath, notification);
+            } catch (RuntimeException ex) {
+                inFlightNotifications.decrementAndGet();
+                LOGGER.warn("[{}#{}] Failed to send notification: {}", notification.getPeerAddress(), notification.getToken(), ex.toString());
+                continue;
+            }
+            result.whenComplete((delivered, exception) -> {
+                inFlightNotifications.decrementAndGet();
+                drain();
+            });
+        }
+    }
+
+    int inFlightNotifications() {
+        return inFlightNotifications.get();
+    }
+
+    private CompletableFuture<Boolean> sendObservation(String uriPath, SeparateResponse separateResponse) {
         InetSocketAddress peerAddress = separateResponse.getPeerAddress();
 
-        outboundObservation.apply(separateResponse).whenComplete((result, exception) -> {
+        CompletableFuture<Boolean> result = outboundObservation.apply(separateResponse);
+        result.whenComplete((delivered, exception) -> {
             if (exception != null) {
                 remove(uriPath, peerAddress);
                 LOGGER.warn("[{}#{}] Removed observation relation, got exception: {}", peerAddress, separateResponse.getToken(), exception.toString());
-            } else if (!result) {
+            } else if (!delivered) {
                 remove(uriPath, peerAddress);
                 LOGGER.info("[{}#{}] Removed observation relation, got reset", peerAddress, separateResponse.getToken());
             }
@@ -129,6 +279,7 @@ public class ObserversManager implements Filter.SimpleFilter<CoapRequest, CoapRe
         if (separateResponse.getCode() != Code.C205_CONTENT) {
             obsRelations.clear();
         }
+        return result;
     }
 
     private static SeparateResponse toSeparateResponse(CoapResponse obsResponse, int currentObserveSequence, CoapRequest subscribeRequest) {
@@ -137,33 +288,86 @@ public class ObserversManager implements Filter.SimpleFilter<CoapRequest, CoapRe
     }
 
     private void putFrom(CoapRequest coapRequest) {
-        String uriPath = coapRequest.options().getUriPath();
-        InetSocketAddress peerAddress = coapRequest.getPeerAddress();
-
-        obsRelations.compute(uriPath, (__, relations) -> {
-                    if (relations == null) {
-                        relations = new HashMap<>();
-                    }
-                    relations.put(peerAddress, coapRequest);
-                    return relations;
-                }
-        );
+        obsRelations.put(coapRequest.options().getUriPath(), ObservationRelation.from(coapRequest));
     }
 
     private void remove(String uriPath, InetSocketAddress peerAddress) {
-        obsRelations.computeIfPresent(uriPath, (__, entry) -> {
-            entry.remove(peerAddress);
-            if (entry.isEmpty()) {
-                return null;
-            }
-            return entry;
-        });
+        obsRelations.remove(uriPath, peerAddress);
     }
 
     public int size() {
-        return obsRelations.values().stream()
-                .mapToInt(Map::size)
-                .sum();
+        return obsRelations.size();
+    }
+
+    // notifications of a single resource change, accessed only by draining thread
+    private static final class Fanout {
+        private final String uriPath;
+        private final int observeSequence;
+        private final List<ObservationRelation> subscriptions;
+        private final Map<RepresentationKey, CompletableFuture<CoapResponse>> representations;
+        private volatile boolean superseded;
+        private int index;
+
+        Fanout(String uriPath, int observeSequence, List<ObservationRelation> subscriptions, Map<RepresentationKey, CompletableFuture<CoapResponse>> representations) {
+            this.uriPath = uriPath;
+            this.observeSequence = observeSequence;
+            this.subscriptions = subscriptions;
+            this.representations = representations;
+        }
+
+        boolean isNewerThan(Fanout other) {
+            // tolerates sequence overflow
+            return observeSequence - other.observeSequence > 0;
+        }
+
+        // keeps only sequence, without references to relations and representations
+        Fanout completed() {
+            return new Fanout(uriPath, observeSequence, Collections.emptyList(), Collections.emptyMap());
+        }
+
+        // returns null when there is nothing more to send
+        SeparateResponse next() {
+            while (!superseded && index < subscriptions.size()) {
+                ObservationRelation relation = subscriptions.get(index++);
+                CompletableFuture<CoapResponse> representation = representations.get(new RepresentationKey(relation));
+                if (!representation.isCompletedExceptionally()) {
+                    return new SeparateResponse(representation.join(), relation.getToken(), relation.getPeerAddress());
+                }
+            }
+            return null;
+        }
+    }
+
+    // request properties that select resource representation
+    private static final class RepresentationKey {
+        private final Method method;
+        private final Integer accept;
+        private final String uriQuery;
+        private final Opaque payload;
+
+        RepresentationKey(ObservationRelation relation) {
+            this.method = relation.getMethod();
+            this.accept = relation.getAccept();
+            this.uriQuery = relation.getUriQuery();
+            this.payload = relation.getPayload();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RepresentationKey that = (RepresentationKey) o;
+            return method == that.method && Objects.equals(accept, that.accept) && Objects.equals(uriQuery, that.uriQuery) && Objects.equals(payload, that.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, accept, uriQuery, payload);
+        }
     }
 
 }
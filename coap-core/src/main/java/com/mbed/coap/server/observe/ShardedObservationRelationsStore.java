@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.observe;
+
+import static com.mbed.coap.utils.Validations.require;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory observation relations store, sharded by peer address into segments, each guarded by its own lock, so
+ * that subscribing and unsubscribing peers do not contend with each other, even for a single resource.
+ */
+public final class ShardedObservationRelationsStore implements ObservationRelationsStore {
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ShardedObservationRelationsStore() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param concurrency number of independently locked segments, rounded up to power of two
+     */
+    public ShardedObservationRelationsStore(int concurrency) {
+        require(concurrency > 0 && concurrency <= 1 << 16, "Illegal concurrency level");
+        int segmentsSize = Integer.highestOneBit(concurrency);
+        if (segmentsSize < concurrency) {
+            segmentsSize <<= 1;
+        }
+        segments = new Segment[segmentsSize];
+        for (int i = 0; i < segmentsSize; i++) {
+            segments[i] = new Segment();
+        }
+        segmentMask = segmentsSize - 1;
+    }
+
+    private Segment segmentFor(InetSocketAddress peerAddress) {
+        int h = peerAddress.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    @Override
+    public void put(String uriPath, ObservationRelation relation) {
+        if (segmentFor(relation.getPeerAddress()).put(uriPath, relation)) {
+            size.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void remove(String uriPath, InetSocketAddress peerAddress) {
+        if (segmentFor(peerAddress).remove(uriPath, peerAddress)) {
+            size.decrementAndGet();
+        }
+    }
+
+    @Override
+    public List<ObservationRelation> findAll(String uriPath) {
+        List<ObservationRelation> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            segment.collect(uriPath, result);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> uriPaths() {
+        Set<String> result = new HashSet<>();
+        for (Segment segment : segments) {
+            segment.collectUriPaths(result);
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            size.addAndGet(-segment.clear());
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    private static final class Segment {
+        //                uri-path,    address
+        private final Map<String, Map<InetSocketAddress, ObservationRelation>> relations = new HashMap<>();
+        private int size;
+
+        // returns true when relation was added, false when replaced
+        synchronized boolean put(String uriPath, ObservationRelation relation) {
+            if (relations.computeIfAbsent(uriPath, __ -> new HashMap<>()).put(relation.getPeerAddress(), relation) != null) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+
+        synchronized boolean remove(String uriPath, InetSocketAddress peerAddress) {
+            Map<InetSocketAddress, ObservationRelation> peers = relations.get(uriPath);
+            if (peers == null || peers.remove(peerAddress) == null) {
+                return false;
+            }
+            if (peers.isEmpty()) {
+                relations.remove(uriPath);
+            }
+            size--;
+            return true;
+        }
+
+        synchronized void collect(String uriPath, List<ObservationRelation> result) {
+            Map<InetSocketAddress, ObservationRelation> peers = relations.get(uriPath);
+            if (peers != null) {
+                result.addAll(peers.values());
+            }
+        }
+
+        synchronized void collectUriPaths(Set<String> result) {
+            result.addAll(relations.keySet());
+        }
+
+        // returns number of removed relations
+        synchronized int clear() {
+            int removed = size;
+            relations.clear();
+            size = 0;
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transmission;
+
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.CoapConstants;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive retransmission back-off, based on CoCoA (CoAP Simple Congestion Control/Advanced).
+ * <p>
+ * Initial retransmission timeout (RTO) is estimated for every peer from round-trip times: strong estimator is fed by
+ * exchanges that completed without retransmission, weak estimator by exchanges that needed at most two
+ * retransmissions (measured from the first transmission). Following timeouts are multiplied by variable back-off
+ * factor, that is larger for short RTO. RTO of peers that were not measured for a while, moves back towards the
+ * default value.
+ * <p>
+ * Peer states are kept in two generations, when the newer one gets full, the older one is dropped, so at most
+ * max-peers states are kept.
+ */
+public final class CocoaRetransmissionBackOff implements RetransmissionBackOff {
+    private static final double DEFAULT_RTO_MS = CoapConstants.ACK_TIMEOUT.toMillis();
+    private static final double MAX_RTO_MS = 60_000;
+    private static final double RANDOM_FACTOR = CoapConstants.ACK_RANDOM_FACTOR;
+    private static final int MAX_WEAK_RETRANSMISSIONS = 2;
+
+    private final int maxAttempts;
+    private final int generationSize;
+    private final LongSupplier nanoTime;
+    private final Random rnd;
+    private final RetransmissionBackOff defaultBackOff;
+    private volatile ConcurrentHashMap<InetSocketAddress, PeerState> current = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<InetSocketAddress, PeerState> previous = new ConcurrentHashMap<>();
+
+    public CocoaRetransmissionBackOff(int maxAttempts, int maxPeers) {
+        this(maxAttempts, maxPeers, System::nanoTime, new Random());
+    }
+
+    CocoaRetransmissionBackOff(int maxAttempts, int maxPeers, LongSupplier nanoTime, Random rnd) {
+        require(maxAttempts >= 0);
+        require(maxPeers >= 2, "Max peers must be at least 2");
+        this.maxAttempts = maxAttempts;
+        this.generationSize = maxPeers / 2;
+        this.nanoTime = nanoTime;
+        this.rnd = rnd;
+        this.defaultBackOff = exchangeBackOff(DEFAULT_RTO_MS);
+    }
+
+    @Override
+    public Duration next(int attempt) {
+        return defaultBackOff.next(attempt);
+    }
+
+    @Override
+    public RetransmissionBackOff forPeer(InetSocketAddress peerAddress) {
+        PeerState state = peerAddress != null ? find(peerAddress) : null;
+        if (state == null) {
+            return defaultBackOff;
+        }
+        return exchangeBackOff(state.rto(nanoTime.getAsLong()));
+    }
+
+    private RetransmissionBackOff exchangeBackOff(double rtoMs) {
+        double backOffFactor = variableBackOffFactor(rtoMs);
+        return attempt -> {
+            require(attempt > 0);
+            if (attempt > maxAttempts + 1) {
+                return Duration.ZERO;
+            }
+            double rndFactor = 1 + (RANDOM_FACTOR - 1) * rnd.nextFloat();
+            return Duration.ofMillis((long) (rtoMs * rndFactor * Math.pow(backOffFactor, attempt - 1)));
+        };
+    }
+
+    static double variableBackOffFactor(double rtoMs) {
+        if (rtoMs < 1000) {
+            return 3;
+        }
+        if (rtoMs > 3000) {
+            return 1.5;
+        }
+        return 2;
+    }
+
+    @Override
+    public void onResponse(InetSocketAddress peerAddress, int transmissions, Duration rtt) {
+        if (peerAddress == null || transmissions > MAX_WEAK_RETRANSMISSIONS + 1) {
+            return;
+        }
+        findOrCreate(peerAddress).update(transmissions == 1, rtt.toNanos() / 1_000_000.0, nanoTime.getAsLong());
+    }
+
+    /**
+     * @return current retransmission timeout estimated for a peer, or default one when peer was not measured yet
+     */
+    public Duration rto(InetSocketAddress peerAddress) {
+        PeerState state = find(peerAddress);
+        return Duration.ofMillis((long) (state != null ? state.rto(nanoTime.getAsLong()) : DEFAULT_RTO_MS));
+    }
+
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    private PeerState find(InetSocketAddress peerAddress) {
+        PeerState state = current.get(peerAddress);
+        if (state == null) {
+            state = previous.get(peerAddress);
+        }
+        return state;
+    }
+
+    private PeerState findOrCreate(InetSocketAddress peerAddress) {
+        PeerState state = current.get(peerAddress);
+        if (state != null) {
+            return state;
+        }
+        // promote from older generation
+        PeerState prevState = previous.get(peerAddress);
+        state = current.computeIfAbsent(peerAddress, __ -> prevState != null ? prevState : new PeerState());
+        if (current.size() >= generationSize) {
+            rotate();
+        }
+        return state;
+    }
+
+    private synchronized void rotate() {
+        if (current.size() >= generationSize) {
+            previous = current;
+            current = new ConcurrentHashMap<>();
+        }
+    }
+
+    private static final class PeerState {
+        private final RttEstimator strong = new RttEstimator(4);
+        private final RttEstimator weak = new RttEstimator(1);
+        private double rto = DEFAULT_RTO_MS;
+        private long lastUpdateNanos;
+
+        synchronized void update(boolean isStrong, double rttMs, long nowNanos) {
+            if (isStrong) {
+                rto = 0.5 * strong.update(rttMs) + 0.5 * rto;
+            } else {
+                rto = 0.25 * weak.update(rttMs) + 0.75 * rto;
+            }
+            rto = Math.min(rto, MAX_RTO_MS);
+            lastUpdateNanos = nowNanos;
+        }
+
+        // ages RTO of peers without recent measurements
+        synchronized double rto(long nowNanos) {
+            double idleMs = (nowNanos - lastUpdateNanos) / 1_000_000.0;
+            if (rto < 1000 && idleMs > 16 * rto) {
+                rto = 2 * rto;
+                lastUpdateNanos = nowNanos;
+            } else if (rto > 3000 && idleMs > 4 * rto) {
+                rto = (DEFAULT_RTO_MS + rto) / 2;
+                lastUpdateNanos = nowNanos;
+            }
+            return rto;
+        }
+    }
+
+    private static final class RttEstimator {
+        private static final double ALPHA = 0.125;
+        private static final double BETA = 0.25;
+        private final int k;
+        private double srtt = -1;
+        private double rttVar;
+
+        RttEstimator(int k) {
+            this.k = k;
+        }
+
+        double update(double rttMs) {
+            if (srtt < 0) {
+                srtt = rttMs;
+                rttVar = rttMs / 2;
+            } else {
+                rttVar = (1 - BETA) * rttVar + BETA * Math.abs(srtt - rttMs);
+                srtt = (1 - ALPHA) * srtt + ALPHA * rttMs;
+            }
+            return srtt + k * rttVar;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.mbed.coap.transmission;
 
 import static com.mbed.coap.utils.Validations.require;
 import com.mbed.coap.CoapConstants;
+import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.Random;
 
@@ -33,6 +34,25 @@ public interface RetransmissionBackOff {
      */
     Duration next(int attempt);
 
+    /**
+     * Returns back-off for a single exchange with given peer. By default, it is the same for all peers.
+     *
+     * @param peerAddress peer address, or null if not known
+     */
+    default RetransmissionBackOff forPeer(InetSocketAddress peerAddress) {
+        return this;
+    }
+
+    /**
+     * Called when exchange with a peer has completed with a response.
+     *
+     * @param peerAddress   peer address, or null if not known
+     * @param transmissions number of transmissions, 1 if there was no retransmission
+     * @param rtt           time from the first transmission till response
+     */
+    default void onResponse(InetSocketAddress peerAddress, int transmissions, Duration rtt) {
+    }
+
     static RetransmissionBackOff ofFixed(Duration interval, int maxAttempts) {
         return attempt -> {
             require(attempt > 0);
@@ -68,6 +88,19 @@ public interface RetransmissionBackOff {
         };
     }
 
+    /**
+     * Adaptive back-off (CoCoA), that estimates retransmission timeout for every peer.
+     *
+     * @param maxPeers maximum number of peers with kept estimations
+     */
+    static CocoaRetransmissionBackOff ofCocoa(int maxAttempts, int maxPeers) {
+        return new CocoaRetransmissionBackOff(maxAttempts, maxPeers);
+    }
+
+    static CocoaRetransmissionBackOff ofCocoa() {
+        return ofCocoa(CoapConstants.MAX_RETRANSMIT, 10_000);
+    }
+
     static RetransmissionBackOff ofDefault() {
         return ofExponential(CoapConstants.ACK_TIMEOUT, CoapConstants.MAX_RETRANSMIT);
     }
@@ -1,4 +1,5 @@
-/**
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2018 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -19,6 +20,7 @@ import com.mbed.coap.packet.CoapPacket;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface CoapTransport {
     void start() throws IOException;
@@ -29,5 +31,28 @@ public interface CoapTransport {
 
     CompletableFuture<CoapPacket> receive();
 
+    /**
+     * Push style receiving: delivers every received packet to given consumer, until transport is stopped.
+     * Unlike {@link #receive()}, it does not require a future for every packet, and consumer may be called with
+     * many packets per single transport wakeup, possibly from multiple threads. Consumer should not throw exceptions.
+     * <p>
+     * Default implementation is an adapter that calls {@link #receive()} in a loop.
+     *
+     * @param consumer packet consumer
+     * @return future that completes when receiving ends, exceptionally if it failed
+     */
+    default CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        return new ReceiveLoop(this, consumer).start();
+    }
+
     InetSocketAddress getLocalSocketAddress();
+
+    /**
+     * Sets listener that is called for every received packet that could not be parsed. Server builders use it to
+     * report {@code CoapStatistics.parseFailure()}. Default implementation ignores it.
+     *
+     * @param parseFailureListener listener
+     */
+    default void setParseFailureListener(Runnable parseFailureListener) {
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2024 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ import com.mbed.coap.packet.CoapPacket;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -75,11 +76,24 @@ public class LoggingCoapTransport implements CoapTransport {
         });
     }
 
+    @Override
+    public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        return transport.receiveAll(packet -> {
+            logReceived(packet);
+            consumer.accept(packet);
+        });
+    }
+
     @Override
     public InetSocketAddress getLocalSocketAddress() {
         return transport.getLocalSocketAddress();
     }
 
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        transport.setParseFailureListener(parseFailureListener);
+    }
+
     private void logSent(CoapPacket packet, Throwable maybeError) {
         if (maybeError != null) {
             LOGGER.warn("[{}] CoAP sent failed [{}] {}", packet.getRemoteAddrString(), packet.toString(false, false, false, true), maybeError.toString());
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transport;
+
+import com.mbed.coap.packet.CoapPacket;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Adapts pull style {@link CoapTransport#receive()} into push style {@link CoapTransport#receiveAll(Consumer)}.
+ */
+final class ReceiveLoop {
+    private final CoapTransport transport;
+    private final Consumer<CoapPacket> consumer;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    ReceiveLoop(CoapTransport transport, Consumer<CoapPacket> consumer) {
+        this.transport = transport;
+        this.consumer = consumer;
+    }
+
+    CompletableFuture<Void> start() {
+        receiveNext();
+        return result;
+    }
+
+    private void receiveNext() {
+        try {
+            transport.receive().whenComplete(this::handle);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private void handle(CoapPacket packet, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+            return;
+        }
+        consumer.accept(packet);
+        receiveNext();
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transport.udp;
+
+import static com.mbed.coap.utils.Validations.assume;
+import static com.mbed.coap.utils.Validations.require;
+import static java.util.Objects.requireNonNull;
+import com.mbed.coap.exception.CoapException;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.CoapSerializer;
+import com.mbed.coap.transport.BlockingCoapTransport;
+import com.mbed.coap.utils.ExecutorHelpers;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Datagram transport based on NIO DatagramChannel, read by multiple threads.
+ * <p>
+ * When more than one reader is configured and platform supports SO_REUSEPORT, every reader gets its own channel
+ * bound to the same address and kernel balances incoming datagrams between them. Otherwise, all readers share
+ * single channel. Every reader receives into its own direct buffer that is reused for all datagrams.
+ * <p>
+ * With {@link #receiveAll(Consumer)}, packets are passed to consumer directly from reading threads.
+ */
+public final class DatagramChannelTransport extends BlockingCoapTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatagramChannelTransport.class);
+    private static final long RECEIVER_POLL_MILLIS = 100;
+    private final InetSocketAddress bindAddress;
+    private final int readers;
+    private final boolean reusePort;
+    private final int maxPacketSize;
+    private final Integer receiveBufferSize;
+    private final Integer sendBufferSize;
+    private volatile Runnable parseFailureListener = () -> {
+    };
+    private final BlockingQueue<CompletableFuture<CoapPacket>> receivers = new LinkedBlockingQueue<>();
+    private final CompletableFuture<Void> receiving = new CompletableFuture<>();
+    private final AtomicInteger sendIndex = new AtomicInteger();
+    private volatile boolean isRunning;
+    private volatile Consumer<CoapPacket> consumer;
+    private DatagramChannel[] channels;
+    private ExecutorService readingWorkers;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static DatagramChannelTransport udp(int localPort) {
+        return builder().bindAddress(new InetSocketAddress(localPort)).build();
+    }
+
+    private DatagramChannelTransport(InetSocketAddress bindAddress, int readers, boolean reusePort, int maxPacketSize, Integer receiveBufferSize, Integer sendBufferSize) {
+        this.bindAddress = bindAddress;
+        this.readers = readers;
+        this.reusePort = reusePort;
+        this.maxPacketSize = maxPacketSize;
+        this.receiveBufferSize = receiveBufferSize;
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    @Override
+    public synchronized void start() throws IOException {
+        assume(channels == null, "Transport already started");
+        SocketOption<Boolean> reusePortOption = readers > 1 && reusePort ? findReusePortOption() : null;
+        DatagramChannel[] newChannels = new DatagramChannel[reusePortOption != null ? readers : 1];
+        try {
+            InetSocketAddress address = bindAddress;
+            for (int i = 0; i < newChannels.length; i++) {
+                newChannels[i] = openChannel(address, reusePortOption);
+                // rest of channels bind to the same, possibly random, port
+                address = new InetSocketAddress(bindAddress.getAddress(), newChannels[0].socket().getLocalPort());
+            }
+        } catch (IOException | RuntimeException ex) {
+            close(newChannels);
+            throw ex;
+        }
+
+        channels = newChannels;
+        isRunning = true;
+        readingWorkers = ExecutorHelpers.newFixedThreadPool(readers, "udp-reader");
+        for (int i = 0; i < readers; i++) {
+            DatagramChannel channel = newChannels[i % newChannels.length];
+            readingWorkers.execute(() -> readLoop(channel));
+        }
+        LOGGER.debug("Started UDP transport on {} with {} readers and {} channels", getLocalSocketAddress(), readers, newChannels.length);
+    }
+
+    private DatagramChannel openChannel(InetSocketAddress address, SocketOption<Boolean> reusePortOption) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            if (reusePortOption != null) {
+                channel.setOption(reusePortOption, true);
+            }
+            if (receiveBufferSize != null) {
+                channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+            }
+            if (sendBufferSize != null) {
+                channel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+            }
+            channel.bind(address);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        return channel;
+    }
+
+    // SO_REUSEPORT is available only from java 9, and only on some platforms
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> findReusePortOption() throws IOException {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            for (SocketOption<?> option : channel.supportedOptions()) {
+                if ("SO_REUSEPORT".equals(option.name()) && option.type() == Boolean.class) {
+                    return (SocketOption<Boolean>) option;
+                }
+            }
+        }
+        LOGGER.info("SO_REUSEPORT is not supported, all readers will share single channel");
+        return null;
+    }
+
+    private void readLoop(DatagramChannel channel) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(maxPacketSize);
+        while (isRunning) {
+            CoapPacket packet;
+            try {
+                buffer.clear();
+                InetSocketAddress sourceAddress = (InetSocketAddress) channel.receive(buffer);
+                buffer.flip();
+                // copies data out of buffer
+                packet = CoapSerializer.deserialize(sourceAddress, buffer);
+            } catch (CoapException e) {
+                LOGGER.warn(e.toString(), e);
+                parseFailureListener.run();
+                continue;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                failReceiver(e);
+                return;
+            }
+
+            try {
+                deliver(packet);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deliver(CoapPacket packet) throws InterruptedException {
+        while (isRunning) {
+            Consumer<CoapPacket> currentConsumer = consumer;
+            if (currentConsumer != null) {
+                currentConsumer.accept(packet);
+                return;
+            }
+            // waits until there is someone interested in receiving
+            CompletableFuture<CoapPacket> receiver = receivers.poll(RECEIVER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (receiver != null) {
+                receiver.complete(packet);
+                return;
+            }
+        }
+    }
+
+    private void failReceiver(IOException e) {
+        if (!isRunning) {
+            return;
+        }
+        receiving.completeExceptionally(e);
+        try {
+            CompletableFuture<CoapPacket> receiver = receivers.poll(RECEIVER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (receiver != null) {
+                receiver.completeExceptionally(e);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Switches to push mode: reading threads deliver packets directly to given consumer, concurrently.
+     */
+    @Override
+    public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        assume(isRunning, "Transport is not running");
+        assume(this.consumer == null, "Already receiving");
+        this.consumer = requireNonNull(consumer);
+        return receiving;
+    }
+
+    @Override
+    public CompletableFuture<CoapPacket> receive() {
+        assume(isRunning, "Transport is not running");
+        CompletableFuture<CoapPacket> promise = new CompletableFuture<>();
+        receivers.add(promise);
+        if (!isRunning && receivers.remove(promise)) {
+            promise.completeExceptionally(new ClosedChannelException());
+        }
+        return promise;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!isRunning) {
+            return;
+        }
+        isRunning = false;
+        close(channels);
+        readingWorkers.shutdownNow();
+
+        CompletableFuture<CoapPacket> promise;
+        while ((promise = receivers.poll()) != null) {
+            promise.completeExceptionally(new ClosedChannelException());
+        }
+        receiving.complete(null);
+    }
+
+    private static void close(DatagramChannel[] channels) {
+        for (DatagramChannel channel : channels) {
+            if (channel == null) {
+                continue;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close channel: {}", e.toString());
+            }
+        }
+    }
+
+    @Override
+    public void sendPacket0(CoapPacket coapPacket) throws CoapException, IOException {
+        if (!isRunning) {
+            throw new IllegalStateException();
+        }
+        DatagramChannel[] chs = channels;
+        DatagramChannel channel = chs.length == 1 ? chs[0] : chs[(sendIndex.getAndIncrement() & Integer.MAX_VALUE) % chs.length];
+
+        channel.send(ByteBuffer.wrap(CoapSerializer.serialize(coapPacket)), coapPacket.getRemoteAddress());
+    }
+
+    @Override
+    public InetSocketAddress getLocalSocketAddress() {
+        return (InetSocketAddress) channels[0].socket().getLocalSocketAddress();
+    }
+
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        this.parseFailureListener = requireNonNull(parseFailureListener);
+    }
+
+    int getNumberOfChannels() {
+        return channels.length;
+    }
+
+    public static final class Builder {
+        private InetSocketAddress bindAddress = new InetSocketAddress(0);
+        private int readers = 1;
+        private boolean reusePort = true;
+        private int maxPacketSize = 2048;
+        private Integer receiveBufferSize;
+        private Integer sendBufferSize;
+
+        private Builder() {
+        }
+
+        public Builder bindAddress(InetSocketAddress bindAddress) {
+            this.bindAddress = requireNonNull(bindAddress);
+            return this;
+        }
+
+        /**
+         * @param readers number of reading threads
+         */
+        public Builder readers(int readers) {
+            require(readers > 0, "Number of readers must be positive");
+            this.readers = readers;
+            return this;
+        }
+
+        /**
+         * @param reusePort if false, readers always share single channel
+         */
+        public Builder reusePort(boolean reusePort) {
+            this.reusePort = reusePort;
+            return this;
+        }
+
+        /**
+         * @param maxPacketSize size of receive buffer, longer datagrams are truncated
+         */
+        public Builder maxPacketSize(int maxPacketSize) {
+            require(maxPacketSize > 0, "Max packet size must be positive");
+            this.maxPacketSize = maxPacketSize;
+            return this;
+        }
+
+        /**
+         * @param receiveBufferSize socket receive buffer size (SO_RCVBUF)
+         */
+        public Builder receiveBufferSize(int receiveBufferSize) {
+            require(receiveBufferSize > 0, "Receive buffer size must be positive");
+            this.receiveBufferSize = receiveBufferSize;
+            return this;
+        }
+
+        /**
+         * @param sendBufferSize socket send buffer size (SO_SNDBUF)
+         */
+        public Builder sendBufferSize(int sendBufferSize) {
+            require(sendBufferSize > 0, "Send buffer size must be positive");
+            this.sendBufferSize = sendBufferSize;
+            return this;
+        }
+
+        public DatagramChannelTransport build() {
+            return new DatagramChannelTransport(bindAddress, readers, reusePort, maxPacketSize, receiveBufferSize, sendBufferSize);
+        }
+    }
+}
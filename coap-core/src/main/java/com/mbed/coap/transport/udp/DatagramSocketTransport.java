@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -16,7 +16,9 @@
  */
 package com.mbed.coap.transport.udp;
 
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import com.mbed.coap.exception.CoapException;
 import com.mbed.coap.packet.CoapPacket;
@@ -32,6 +34,7 @@ import java.net.SocketTimeoutException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +47,11 @@ public class DatagramSocketTransport extends BlockingCoapTransport {
     private final InetSocketAddress bindAddress;
     protected DatagramSocket socket;
     private final ExecutorService readingWorker;
+    // accessed only by single reading worker thread, deserialization copies data out of it
+    private final byte[] readBuffer = new byte[2048];
+    private final DatagramPacket readDatagram = new DatagramPacket(readBuffer, readBuffer.length);
+    private volatile Runnable parseFailureListener = () -> {
+    };
 
     public static DatagramSocketTransport udp() {
         return new DatagramSocketTransport(0);
@@ -84,15 +92,27 @@ public class DatagramSocketTransport extends BlockingCoapTransport {
                 .thenCompose(it -> (it == null) ? receive() : completedFuture(it));
     }
 
+    @Override
+    public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        return runAsync(() -> {
+            while (!socket.isClosed()) {
+                CoapPacket packet = blockingReceive();
+                if (packet != null) {
+                    consumer.accept(packet);
+                }
+            }
+        }, readingWorker);
+    }
+
     private CoapPacket blockingReceive() {
-        byte[] readBuffer = new byte[2048];
         CoapPacket packet = null;
         try {
-            DatagramPacket datagramPacket = new DatagramPacket(readBuffer, readBuffer.length);
-            socket.receive(datagramPacket);
-            packet = CoapSerializer.deserialize((InetSocketAddress) datagramPacket.getSocketAddress(), datagramPacket.getData(), datagramPacket.getLength());
+            readDatagram.setLength(readBuffer.length);
+            socket.receive(readDatagram);
+            packet = CoapSerializer.deserialize((InetSocketAddress) readDatagram.getSocketAddress(), readBuffer, readDatagram.getLength());
         } catch (CoapException e) {
             LOGGER.warn(e.toString(), e);
+            parseFailureListener.run();
         } catch (SocketTimeoutException ex) {
             // do nothing
         } catch (IOException e) {
@@ -101,6 +121,11 @@ public class DatagramSocketTransport extends BlockingCoapTransport {
         return packet;
     }
 
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        this.parseFailureListener = requireNonNull(parseFailureListener);
+    }
+
     protected void createSocket() throws SocketException {
         socket = new DatagramSocket(bindAddress);
     }
@@ -29,4 +29,8 @@ public class ExecutorHelpers {
     public static ExecutorService newSingleThreadExecutor(String namePrefix) {
         return Executors.newSingleThreadExecutor(r -> new Thread(r, namePrefix + "-" + POOL_NUMBER.incrementAndGet()));
     }
+
+    public static ExecutorService newFixedThreadPool(int threads, String namePrefix) {
+        return Executors.newFixedThreadPool(threads, r -> new Thread(r, namePrefix + "-" + POOL_NUMBER.incrementAndGet()));
+    }
 }
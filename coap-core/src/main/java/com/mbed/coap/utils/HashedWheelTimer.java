@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.utils;
+
+import static com.mbed.coap.utils.Validations.require;
+import static java.util.Objects.requireNonNull;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer based on hashed timing wheel, with constant time scheduling and cancellation.
+ * <p>
+ * Time is divided into ticks, scheduled task is executed at the end of the tick containing its deadline, so it may
+ * be late by up to one tick. Tasks are executed by a single worker thread, that is started with first scheduled task,
+ * so they should be short and non-blocking.
+ * <p>
+ * Suitable for large amount of timeouts that are mostly cancelled before they expire, like retransmissions and
+ * response timeouts.
+ */
+public final class HashedWheelTimer implements Timer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_STOPPED = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile int workerState = WORKER_INIT;
+    private volatile long startTime;
+    private long tick;
+
+    public HashedWheelTimer() {
+        this(Duration.ofMillis(10), 512);
+    }
+
+    /**
+     * @param tickDuration  duration of a single tick, defines precision of the timer
+     * @param ticksPerWheel number of buckets in the wheel, rounded up to power of two
+     */
+    public HashedWheelTimer(Duration tickDuration, int ticksPerWheel) {
+        require(!tickDuration.isNegative() && tickDuration.toMillis() >= 1, "Tick duration must be at least 1ms");
+        require(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30, "Illegal number of ticks per wheel");
+
+        this.tickNanos = tickDuration.toNanos();
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::work, "coap-timer");
+        this.worker.setDaemon(true);
+    }
+
+    @Override
+    public Runnable schedule(Duration delay, Runnable task) {
+        requireNonNull(task);
+        startIfNeeded();
+
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + delay.toNanos());
+        pendingTimeouts.add(timeout);
+        return timeout::cancel;
+    }
+
+    private void startIfNeeded() {
+        if (workerState == WORKER_STARTED) {
+            return;
+        }
+        synchronized (this) {
+            if (workerState == WORKER_INIT) {
+                startTime = System.nanoTime();
+                workerState = WORKER_STARTED;
+                worker.start();
+            } else if (workerState == WORKER_STOPPED) {
+                throw new IllegalStateException("Timer is stopped");
+            }
+        }
+    }
+
+    /**
+     * Stops worker thread, not expired tasks are dropped.
+     */
+    public synchronized void stop() {
+        int previousState = workerState;
+        workerState = WORKER_STOPPED;
+        if (previousState == WORKER_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    int pendingTimeouts() {
+        int count = pendingTimeouts.size();
+        for (Bucket bucket : wheel) {
+            count += bucket.size;
+        }
+        return count;
+    }
+
+    private void work() {
+        while (workerState == WORKER_STARTED) {
+            if (!waitForNextTick()) {
+                break;
+            }
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    // returns false when stopped
+    private boolean waitForNextTick() {
+        long tickEnd = tickNanos * (tick + 1);
+        while (true) {
+            long sleepNanos = tickEnd - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (workerState == WORKER_STOPPED) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.ST_INIT) {
+                continue;
+            }
+
+            long expireTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expireTick - tick) / wheel.length;
+            // already late timeouts go to the current bucket
+            wheel[(int) (Math.max(expireTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    private final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        volatile int state = ST_INIT;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        void cancel() {
+            if (TIMEOUT_STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                cancelledTimeouts.add(this);
+            }
+        }
+
+        void expire() {
+            if (!TIMEOUT_STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Exception ex) {
+                LOGGER.warn("Timer task failed: {}", ex.toString(), ex);
+            }
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> TIMEOUT_STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    // doubly linked list of timeouts, accessed only by worker thread
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+        private int size;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+            }
+            tail = timeout;
+            size++;
+        }
+
+        // called at the end of a tick, deadline of every timeout in last round has already passed
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.state == Timeout.ST_CANCELLED) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            size--;
+        }
+    }
+}
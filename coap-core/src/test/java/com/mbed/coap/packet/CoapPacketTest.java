@@ -47,6 +47,8 @@ import java.io.OutputStream;
 import java.net.Inet6Address;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -380,11 +382,69 @@ public class CoapPacketTest {
         );
     }
 
+    @Test
+    public void serializeAndDeserializeWithByteBuffer() throws CoapException {
+        CoapPacket cp = newCoapPacket(LOCAL_5683).mid(4321).token(0x0102).put().uriPath("/test/1").uriQuery("p=1").etag(12).block1Req(2, BlockSize.S_64, true).payload("test-payload").build();
+        byte[] expected = serialize(cp);
+        assertEquals(expected.length, CoapSerializer.serializedSize(cp));
+
+        // heap buffer with offset
+        ByteBuffer heapBuffer = ByteBuffer.allocate(expected.length + 20);
+        heapBuffer.position(10);
+        serialize(cp, heapBuffer);
+        assertEquals(10 + expected.length, heapBuffer.position());
+        heapBuffer.flip().position(10);
+        assertEquals(cp, deserialize(LOCAL_5683, heapBuffer));
+        assertFalse(heapBuffer.hasRemaining());
+
+        // direct buffer
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(expected.length);
+        serialize(cp, directBuffer);
+        directBuffer.flip();
+        assertEquals(cp, deserialize(LOCAL_5683, directBuffer));
+    }
+
+    @Test
+    public void deserializeNoCopyShouldReferenceBufferContent() throws CoapException {
+        byte[] data = serialize(newCoapPacket(LOCAL_5683).mid(13).token(918).ack(Code.C205_CONTENT).payload("dupa").build());
+
+        CoapPacket cp = CoapSerializer.deserializeNoCopy(LOCAL_5683, ByteBuffer.wrap(data));
+        CoapPacket cpCopy = deserialize(LOCAL_5683, ByteBuffer.wrap(data));
+        data[data.length - 1] = 'y';
+        data[4] = 0;
+
+        assertEquals("dupy", cp.getPayloadString());
+        assertEquals(Opaque.variableUInt(918), cp.getToken());
+        assertEquals("dupa", cpCopy.getPayloadString());
+    }
+
+    @Test
+    public void failWhenByteBufferTooSmall() {
+        CoapPacket cp = newCoapPacket(LOCAL_5683).mid(13).get().uriPath("/test").build();
+
+        assertThrows(BufferOverflowException.class, () ->
+                serialize(cp, ByteBuffer.allocate(CoapSerializer.serializedSize(cp) - 1))
+        );
+    }
+
+    @Test
+    public void failWhenByteBufferIsTruncated() {
+        byte[] data = serialize(newCoapPacket(LOCAL_5683).mid(13).token(918).get().uriPath("/test").build());
+
+        // truncated within: header, token, option value
+        for (int len : new int[]{3, 5, 9}) {
+            ByteBuffer buffer = ByteBuffer.wrap(data, 0, len);
+            assertThrows(CoapException.class, () -> deserialize(LOCAL_5683, buffer));
+        }
+    }
+
     @Test
     public void equalsAndHashTest() throws Exception {
         EqualsVerifier.forClass(CoapPacket.class).suppress(Warning.NONFINAL_FIELDS)
                 .usingGetClass()
                 .withPrefabValues(TransportContext.class, TransportContext.EMPTY, TransportContext.of(TransportContext.NON_CONFIRMABLE, true))
+                .withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2"))
+                .withPrefabValues(BasicHeaderOptions.PendingOptions.class, new BasicHeaderOptions.PendingOptions(new byte[0]), new BasicHeaderOptions.PendingOptions(new byte[1]))
                 .verify();
     }
 
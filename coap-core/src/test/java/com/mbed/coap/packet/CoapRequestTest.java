@@ -112,6 +112,8 @@ class CoapRequestTest {
         EqualsVerifier.forClass(CoapRequest.class).suppress(Warning.NONFINAL_FIELDS)
                 .usingGetClass()
                 .withPrefabValues(TransportContext.class, TransportContext.EMPTY, TransportContext.of(TransportContext.NON_CONFIRMABLE, true))
+                .withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2"))
+                .withPrefabValues(BasicHeaderOptions.PendingOptions.class, new BasicHeaderOptions.PendingOptions(new byte[0]), new BasicHeaderOptions.PendingOptions(new byte[1]))
                 .verify();
     }
 
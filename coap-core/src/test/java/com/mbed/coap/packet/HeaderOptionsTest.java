@@ -34,6 +34,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -506,7 +508,10 @@ public class HeaderOptionsTest {
 
     @Test
     public void equalsAndHashTest() throws Exception {
-        EqualsVerifier.forClass(HeaderOptions.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass().verify();
+        EqualsVerifier.forClass(HeaderOptions.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass()
+                .withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2"))
+                .withPrefabValues(BasicHeaderOptions.PendingOptions.class, new BasicHeaderOptions.PendingOptions(new byte[0]), new BasicHeaderOptions.PendingOptions(new byte[1]))
+                .verify();
 
         assertFalse(new BasicHeaderOptions().equals(null));
     }
@@ -540,6 +545,94 @@ public class HeaderOptionsTest {
         assertNull(hdr.getCustomOption(100));
     }
 
+    @Test
+    void shouldSerializeKnownAndUnrecognizedOptionsInOrder() throws Exception {
+        HeaderOptions h = new HeaderOptions();
+        h.put(13, Opaque.of("x"));
+        h.setContentFormat(MediaTypes.CT_APPLICATION_JSON);
+        h.setUriPath("/a//b");
+        h.put(9, Opaque.of("y"));
+
+        byte[] expected = new byte[]{(byte) 0x91, 'y', 0x21, 'a', 0x00, 0x01, 'b', 0x11, 50, 0x11, 'x'};
+        assertArrayEquals(expected, serialize(h));
+        assertEquals(expected.length, h.serializedSize());
+    }
+
+    @Test
+    void shouldSerializeStringOptionsAsUtf8() throws Exception {
+        HeaderOptions h = new HeaderOptions();
+        h.setUriPath("/é/😀/\ud83d");
+        h.setUriQuery("&a=中&&b&&");
+
+        HeaderOptions h2 = deserialize(serialize(h));
+
+        assertEquals("/é/😀/?", h2.getUriPath());
+        assertEquals("a=中&&b", h2.getUriQuery());
+        assertEquals(serialize(h).length, h.serializedSize());
+    }
+
+    @Test
+    void shouldDecodeLazilyFromByteBuffer() throws Exception {
+        HeaderOptions h = new HeaderOptions();
+        h.setUriPath("/3/0/1");
+        h.setUriQuery("a=1&b");
+        h.setContentFormat(MediaTypes.CT_APPLICATION_JSON);
+        h.setObserve(12);
+        h.setBlock2Res(new BlockOption(2, BlockSize.S_256, true));
+        h.setEtag(Opaque.of("etag"));
+        h.put(1000, Opaque.of("custom"));
+        byte[] raw = serialize(h);
+
+        HeaderOptions h2 = new HeaderOptions();
+        assertFalse(h2.deserialize(ByteBuffer.wrap(raw)));
+
+        assertEquals("/3/0/1", h2.getUriPath());
+        assertEquals(Integer.valueOf(12), h2.getObserve());
+        assertEquals(Opaque.of("custom"), h2.getCustomOption(1000));
+        assertEquals(h, h2);
+        assertEquals(h.hashCode(), h2.hashCode());
+        assertEquals(h.toString(), h2.toString());
+        assertArrayEquals(raw, serialize(h2));
+    }
+
+    @Test
+    void shouldUpdateLazilyDecodedOptions() throws Exception {
+        HeaderOptions h = new HeaderOptions();
+        h.setUriPath("/a");
+        h.setContentFormat(MediaTypes.CT_TEXT_PLAIN);
+
+        HeaderOptions h2 = new HeaderOptions();
+        h2.deserialize(ByteBuffer.wrap(serialize(h)));
+        h2.put(BasicHeaderOptions.URI_PATH, Opaque.of("b"));
+        h2.setContentFormat(null);
+
+        assertEquals("/a/b", h2.getUriPath());
+        assertNull(h2.getContentFormat());
+    }
+
+    @Test
+    void shouldCheckCriticalOptionsWhenDecodingLazily() throws Exception {
+        BasicHeaderOptions h = new BasicHeaderOptions();
+        h.put(1001, Opaque.of("critical"));
+
+        BasicHeaderOptions h2 = new BasicHeaderOptions();
+        h2.deserialize(ByteBuffer.wrap(serialize(h)));
+
+        assertTrue(h2.containsUnrecognisedCriticalOption(Collections.emptyList()));
+        assertFalse(h2.containsUnrecognisedCriticalOption(Collections.singletonList(1001)));
+    }
+
+    @Test
+    void failToDeserializeMalformedOptionFromByteBuffer() {
+        // observe with 4 bytes value
+        byte[] raw = new byte[]{0x64, 1, 2, 3, 4};
+
+        assertThatThrownBy(() -> new HeaderOptions().deserialize(ByteBuffer.wrap(raw)))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HeaderOptions().deserialize(ByteBuffer.wrap(new byte[]{0x63, 1})))
+                .isExactlyInstanceOf(BufferUnderflowException.class);
+    }
+
     private static byte[] serialize(BasicHeaderOptions hdr) throws IOException, CoapException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         hdr.serialize(baos);
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -18,17 +18,66 @@ package com.mbed.coap.packet;
 
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import nl.jqno.equalsverifier.EqualsVerifier;
-import nl.jqno.equalsverifier.Warning;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
 public class OpaqueTest {
 
     @Test
     public void equalsAndHashTest() {
-        EqualsVerifier.forClass(Opaque.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass().verify();
+        Opaque owned = Opaque.of("dupa");
+        Opaque view = Opaque.wrap("__dupa__".getBytes(), 2, 4);
+
+        assertEquals(owned, view);
+        assertEquals(view, owned);
+        assertEquals(owned.hashCode(), view.hashCode());
+        assertEquals(Arrays.hashCode("dupa".getBytes()), view.hashCode());
+
+        assertNotEquals(Opaque.of("dup"), view);
+        assertNotEquals(Opaque.wrap("__dupa__".getBytes(), 3, 4), view);
+        assertNotEquals(view, null);
+        assertNotEquals(view, "dupa");
+        assertEquals(Opaque.EMPTY, Opaque.wrap("dupa".getBytes(), 2, 0));
+    }
+
+    @Test
+    public void viewOnArray() throws IOException {
+        byte[] data = "The Constrained Application Protocol".getBytes();
+        Opaque view = Opaque.wrap(data, 4, 11);
+
+        assertEquals(11, view.size());
+        assertEquals("Constrained", view.toUtf8String());
+        assertEquals(Opaque.of("Constrained").toHex(), view.toHex());
+        assertArrayEquals("Constrained".getBytes(), view.getBytes());
+        assertEquals(Opaque.of("strain"), view.slice(3, 6));
+        assertEquals(Opaque.of("Constrained!"), view.concat(Opaque.of("!")));
+        assertEquals(Opaque.ofBytes(0x72, 0x61).toLong(), view.slice(5, 2).toLong());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        view.writeTo(baos);
+        assertArrayEquals("Constrained".getBytes(), baos.toByteArray());
+
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        view.writeTo(buffer);
+        assertEquals(11, buffer.position());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> Opaque.wrap(data, 30, 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> Opaque.wrap(data, -1, 10));
+    }
+
+    @Test
+    public void sliceShouldNotCopy() {
+        byte[] data = "The Constrained Application Protocol".getBytes();
+        Opaque slice = new Opaque(data).slice(4, 11);
+
+        data[4] = 'c';
+        assertEquals(Opaque.of("constrained"), slice);
     }
 
     @Test
@@ -153,4 +202,29 @@ public class OpaqueTest {
 
         assertThrows(EOFException.class, () -> Opaque.read(inputStream, 3));
     }
+
+    @Test
+    void readFromByteBuffer() {
+        ByteBuffer heapBuffer = ByteBuffer.wrap("__test".getBytes(), 2, 4);
+
+        assertSame(Opaque.EMPTY, Opaque.readView(heapBuffer, 0));
+        assertEquals(Opaque.of("t"), Opaque.readView(heapBuffer, 1));
+        assertEquals(Opaque.of("es"), Opaque.read(heapBuffer, 2));
+        assertThrows(BufferUnderflowException.class, () -> Opaque.readView(heapBuffer, 3));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(4).put("test".getBytes());
+        directBuffer.flip();
+        assertEquals(Opaque.of("test"), Opaque.readView(directBuffer, 4));
+        assertThrows(BufferUnderflowException.class, () -> Opaque.read(directBuffer, 1));
+    }
+
+    @Test
+    void readWindowWithInputStream() throws IOException {
+        Opaque window = Opaque.of("__test__").slice(2, 4);
+        InputStream inputStream = window.inputStream();
+
+        assertEquals(4, inputStream.available());
+        assertEquals(Opaque.of("test"), Opaque.read(inputStream, 4));
+        assertEquals(-1, inputStream.read());
+    }
 }
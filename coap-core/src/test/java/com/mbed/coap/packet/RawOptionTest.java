@@ -24,7 +24,7 @@ public class RawOptionTest {
 
     @Test
     public void equalsAndHashTest() throws Exception {
-        EqualsVerifier.forClass(RawOption.class).suppress(Warning.NONFINAL_FIELDS).verify();
+        EqualsVerifier.forClass(RawOption.class).suppress(Warning.NONFINAL_FIELDS).withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2")).verify();
     }
 
 }
\ No newline at end of file
@@ -33,6 +33,8 @@ class SeparateResponseTest {
                 .withPrefabValues(CoapResponse.class, CoapResponse.badRequest().build(), CoapResponse.ok().build())
                 .withPrefabValues(TransportContext.class, TransportContext.EMPTY, TransportContext.of(TransportContext.NON_CONFIRMABLE, true))
                 .usingGetClass()
+                .withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2"))
+                .withPrefabValues(BasicHeaderOptions.PendingOptions.class, new BasicHeaderOptions.PendingOptions(new byte[0]), new BasicHeaderOptions.PendingOptions(new byte[1]))
                 .verify();
     }
 }
@@ -16,14 +16,19 @@
  */
 package com.mbed.coap.server;
 
+import static com.mbed.coap.packet.CoapRequest.get;
 import static com.mbed.coap.transport.InMemoryCoapTransport.create;
 import static com.mbed.coap.utils.Networks.localhost;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import com.mbed.coap.client.CoapClient;
+import com.mbed.coap.utils.HashedWheelTimer;
+import com.mbed.coap.utils.Timer;
 import java.time.Duration;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 
@@ -67,6 +72,37 @@ public class CoapServerBuilderTest {
         );
     }
 
+    @Test
+    public void shouldFail_whenNullTimer() throws Exception {
+        assertThrows(NullPointerException.class, () ->
+                CoapServer.builder().timer(null)
+        );
+    }
+
+    @Test
+    public void shouldUseCustomTimer() throws Exception {
+        HashedWheelTimer wheelTimer = new HashedWheelTimer();
+        AtomicInteger scheduled = new AtomicInteger();
+        Timer timer = (delay, task) -> {
+            scheduled.incrementAndGet();
+            return wheelTimer.schedule(delay, task);
+        };
+        CoapServer server = CoapServer.builder()
+                .transport(create(5683))
+                .build().start();
+        CoapClient client = CoapServer.builder()
+                .transport(create())
+                .timer(timer)
+                .buildClient(localhost(5683));
+
+        assertNotNull(client.sendSync(get("/test")));
+        assertTrue(scheduled.get() > 0);
+
+        client.close();
+        server.stop();
+        wheelTimer.stop();
+    }
+
     @Test
     public void shouldReuseBuilder() throws Exception {
         CoapServer server = new CoapServerBuilder()
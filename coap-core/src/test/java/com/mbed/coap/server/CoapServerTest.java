@@ -28,6 +28,7 @@ import static org.mockito.BDDMockito.doThrow;
 import static org.mockito.BDDMockito.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
 import static org.mockito.BDDMockito.reset;
 import static org.mockito.BDDMockito.verify;
 import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
@@ -36,6 +37,7 @@ import com.mbed.coap.transport.CoapTransport;
 import com.mbed.coap.utils.AsyncQueue;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -53,6 +55,7 @@ public class CoapServerTest {
     public void setUp() throws Exception {
         reset(dispatcher, transport, stop);
         given(transport.receive()).willAnswer(__ -> receiveQueue.poll());
+        given(transport.receiveAll(any())).willCallRealMethod();
         receiveQueue.removeAll();
 
         server = new CoapServer(transport, dispatcher, __ -> ok("OK").toFuture(), __ -> completedFuture(false), stop).start();
@@ -128,6 +131,47 @@ public class CoapServerTest {
 
     }
 
+    @Test
+    void shouldReceiveFromPushStyleTransport() throws Exception {
+        CoapTransport pushTransport = mock(CoapTransport.class);
+        CompletableFuture<Void> receiving = new CompletableFuture<>();
+        AtomicReference<Consumer<CoapPacket>> consumer = new AtomicReference<>();
+        given(pushTransport.receiveAll(any())).willAnswer(inv -> {
+            consumer.set(inv.getArgument(0));
+            return receiving;
+        });
+        CoapServer pushServer = new CoapServer(pushTransport, dispatcher, __ -> ok("OK").toFuture(), __ -> completedFuture(false), stop).start();
+
+        // when
+        CoapPacket coapPacket1 = newCoapPacket(1).get().uriPath("/test").build();
+        CoapPacket coapPacket2 = newCoapPacket(2).get().uriPath("/test").build();
+        consumer.get().accept(coapPacket1);
+        consumer.get().accept(coapPacket2);
+
+        // then
+        verify(dispatcher).accept(eq(coapPacket1));
+        verify(dispatcher).accept(eq(coapPacket2));
+        verify(pushTransport, never()).receive();
+
+        // and, stops when receiving fails
+        receiving.completeExceptionally(new IOException());
+        assertFalse(pushServer.isRunning());
+        verify(pushTransport).stop();
+    }
+
+    @Test
+    void shouldStopWhenReceivingCompletes() throws Exception {
+        CoapTransport pushTransport = mock(CoapTransport.class);
+        CompletableFuture<Void> receiving = new CompletableFuture<>();
+        given(pushTransport.receiveAll(any())).willReturn(receiving);
+        CoapServer pushServer = new CoapServer(pushTransport, dispatcher, __ -> ok("OK").toFuture(), __ -> completedFuture(false), stop).start();
+
+        receiving.complete(null);
+
+        assertFalse(pushServer.isRunning());
+        verify(pushTransport).stop();
+    }
+
     @Test
     @Timeout(2)
     void shouldNotDeadlock() {
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static protocolTests.utils.CoapPacketBuilder.LOCAL_5683;
+import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.Code;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class GenerationalDuplicateDetectorCacheTest {
+
+    private final GenerationalDuplicateDetectorCache cache =
+            new GenerationalDuplicateDetectorCache("Test cache", 100, 30_000, 4, mock(ScheduledExecutorService.class));
+
+    @Test
+    public void detectDuplicateUntilLastGenerationIsDropped() {
+        CoapRequestId requestId = new CoapRequestId(9, LOCAL_5683);
+        assertNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+
+        for (int i = 0; i < 3; i++) {
+            cache.rotate();
+            assertNotNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+        }
+
+        cache.rotate();
+        assertNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+    }
+
+    @Test
+    public void updateResponseInOlderGeneration() {
+        CoapRequestId requestId = new CoapRequestId(9, LOCAL_5683);
+        CoapPacket response = newCoapPacket(LOCAL_5683).mid(9).ack(Code.C205_CONTENT).build();
+        assertNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+        cache.rotate();
+
+        cache.put(requestId, response);
+
+        assertSame(response, cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+        assertEquals(1, cache.size());
+        // entry stays in its original generation
+        for (int i = 0; i < 3; i++) {
+            cache.rotate();
+        }
+        assertNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+    }
+
+    @Test
+    public void evictOldestEntriesWhenOverSize() {
+        for (int i = 0; i < 60; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+        cache.rotate();
+        for (int i = 60; i < 100; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+        cache.rotate();
+
+        for (int i = 100; i < 110; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+
+        // only overflowing entries are evicted, the oldest ones first
+        assertEquals(100, cache.size());
+        for (int i = 10; i < 110; i++) {
+            assertNotNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+    }
+
+    @Test
+    public void evictInInsertionOrderWhenFilledFarOverSize() {
+        for (int i = 0; i < 5000; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+            if (i % 1000 == 999) {
+                cache.rotate();
+            }
+        }
+        for (int i = 5000; i < 10_000; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+
+        // the newest entries are kept
+        assertEquals(100, cache.size());
+        for (int i = 9900; i < 10_000; i++) {
+            assertNotNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+    }
+
+    @Test
+    public void evictFromNewestGenerationOnlyWhenOlderAreEmpty() {
+        for (int i = 0; i < 110; i++) {
+            assertNull(cache.putIfAbsent(new CoapRequestId(i, LOCAL_5683), mock(CoapPacket.class)));
+        }
+
+        assertEquals(100, cache.size());
+        // the latest added entry is kept
+        assertNotNull(cache.putIfAbsent(new CoapRequestId(109, LOCAL_5683), mock(CoapPacket.class)));
+    }
+
+    @Test
+    public void rotatePeriodically() {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        GenerationalDuplicateDetectorCache cache = new GenerationalDuplicateDetectorCache("Test cache", 100, 300, 4, executor);
+        ArgumentCaptor<Runnable> rotateTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleAtFixedRate(rotateTask.capture(), eq(100L), eq(100L), eq(TimeUnit.MILLISECONDS));
+
+        CoapRequestId requestId = new CoapRequestId(9, LOCAL_5683);
+        assertNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+
+        rotateTask.getValue().run();
+        assertNotNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+
+        for (int i = 0; i < 3; i++) {
+            rotateTask.getValue().run();
+        }
+        assertNull(cache.putIfAbsent(requestId, mock(CoapPacket.class)));
+    }
+
+    @Test
+    public void shouldValidateArguments() {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        assertThrows(IllegalArgumentException.class, () -> new GenerationalDuplicateDetectorCache("Test", 0, 1000, 4, executor));
+        assertThrows(IllegalArgumentException.class, () -> new GenerationalDuplicateDetectorCache("Test", 100, 1000, 1, executor));
+    }
+}
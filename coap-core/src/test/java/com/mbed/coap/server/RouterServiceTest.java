@@ -71,6 +71,40 @@ class RouterServiceTest {
         assertEquals(Code.C205_CONTENT, svc.apply(get("/test3")).get().getCode());
     }
 
+    @Test
+    public void shouldCapturePathParams() throws ExecutionException, InterruptedException {
+        Service<CoapRequest, CoapResponse> paramsHandler =
+                (CoapRequest r) -> ok(r.getTransContext(RouterService.PATH_PARAMS).toString()).toFuture();
+        Service<CoapRequest.Builder, CoapResponse> svc = REQUEST_BUILDER_FILTER.then(RouterService.builder()
+                .get("/{obj}/{inst}/{res}", paramsHandler)
+                .get("/3/0/{res}", paramsHandler)
+                .get("/3/0/1", simpleHandler)
+                .get("/files/*", paramsHandler)
+                .get("/dev*", paramsHandler)
+                .build());
+
+        assertEquals("{obj=1, inst=2, res=3}", svc.apply(get("/1/2/3")).get().getPayloadString());
+        assertEquals("{res=9}", svc.apply(get("/3/0/9")).get().getPayloadString());
+        assertEquals("GET /3/0/1", svc.apply(get("/3/0/1")).get().getPayloadString());
+        assertEquals("{*=a/b.txt}", svc.apply(get("/files/a/b.txt")).get().getPayloadString());
+        assertEquals("{*=ice/2}", svc.apply(get("/device/2")).get().getPayloadString());
+        assertEquals(Code.C404_NOT_FOUND, svc.apply(get("/1/2")).get().getCode());
+        assertEquals(Code.C404_NOT_FOUND, svc.apply(get("/files")).get().getCode());
+    }
+
+    @Test
+    public void shouldFallbackToLessSpecificRouteWhenMethodDoesNotMatch() throws ExecutionException, InterruptedException {
+        Service<CoapRequest.Builder, CoapResponse> svc = REQUEST_BUILDER_FILTER.then(RouterService.builder()
+                .get("/a/b", simpleHandler)
+                .post("/a/{x}", simpleHandler)
+                .any("/a/*", (CoapRequest r) -> ok("any").toFuture())
+                .build());
+
+        assertEquals("GET /a/b", svc.apply(get("/a/b")).get().getPayloadString());
+        assertEquals("POST /a/b", svc.apply(CoapRequest.post("/a/b")).get().getPayloadString());
+        assertEquals("any", svc.apply(CoapRequest.put("/a/b")).get().getPayloadString());
+    }
+
     @Test
     public void shouldMergeRoutes() throws ExecutionException, InterruptedException {
         RouterService.RouteBuilder builder1 = RouterService.builder()
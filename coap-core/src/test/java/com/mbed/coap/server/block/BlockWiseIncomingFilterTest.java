@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -26,12 +26,17 @@ import static com.mbed.coap.packet.CoapResponse.ok;
 import static com.mbed.coap.packet.Code.C204_CHANGED;
 import static com.mbed.coap.packet.Code.C205_CONTENT;
 import static com.mbed.coap.packet.Code.C231_CONTINUE;
+import static com.mbed.coap.packet.Code.C503_SERVICE_UNAVAILABLE;
 import static com.mbed.coap.packet.Opaque.decodeHex;
 import static com.mbed.coap.utils.Assertions.assertEquals;
 import static com.mbed.coap.utils.Bytes.opaqueOfSize;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static protocolTests.utils.CoapPacketBuilder.LOCAL_5683;
 import com.mbed.coap.exception.CoapCodeException;
 import com.mbed.coap.packet.BlockSize;
@@ -39,9 +44,15 @@ import com.mbed.coap.packet.CoapOptionsBuilder;
 import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
 import com.mbed.coap.packet.Code;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.server.messaging.Capabilities;
+import com.mbed.coap.utils.MockTimer;
 import com.mbed.coap.utils.Service;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 
 class BlockWiseIncomingFilterTest {
@@ -49,6 +60,8 @@ class BlockWiseIncomingFilterTest {
     private final BlockWiseIncomingFilter blockingFilter = new BlockWiseIncomingFilter(__ -> capability, 10000000);
     private CoapRequest lastRequest = null;
     private Service<CoapRequest, CoapResponse> service;
+    private final MockTimer timer = new MockTimer();
+    private long nanoTime = 0;
 
     @Test
     void shouldForwardWhenNonBlockRequestAndResponse() {
@@ -92,6 +105,110 @@ class BlockWiseIncomingFilterTest {
         assertEquals(put("/").token(3003).block1Req(2, S_16, false).payload(opaqueOfSize(33)).to(LOCAL_5683), lastRequest);
     }
 
+    @Test
+    public void should_pass_streamed_payload() {
+        AtomicReference<Opaque> streamedPayload = new AtomicReference<>();
+        BlockWiseIncomingFilter streamingFilter = new BlockWiseIncomingFilter(__ -> capability, 10000000, BlockWiseStorage.inMemory(), req -> req.options().getUriPath().equals("/fw"),
+                timer, Duration.ofMinutes(1), Long.MAX_VALUE);
+        service = streamingFilter
+                .then(req -> {
+                    lastRequest = req;
+                    BlockWisePayload payload = req.getTransContext(BlockWiseIncomingFilter.STREAMED_PAYLOAD);
+                    try {
+                        streamedPayload.set(Opaque.read(payload.inputStream(), payload.size()));
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return completedFuture(of(C204_CHANGED));
+                });
+
+        service.apply(put("/fw").block1Req(0, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        CompletableFuture<CoapResponse> resp = service.apply(put("/fw").block1Req(1, S_16, false).payload(opaqueOfSize(3)).to(LOCAL_5683));
+
+        assertEquals(C204_CHANGED, resp.join().getCode());
+        assertTrue(lastRequest.getPayload().isEmpty());
+        assertEquals(opaqueOfSize(16).concat(opaqueOfSize(3)), streamedPayload.get());
+        assertEquals(0, streamingFilter.transfers());
+    }
+
+    @Test
+    public void should_combine_not_streamed_payload() {
+        BlockWiseIncomingFilter streamingFilter = new BlockWiseIncomingFilter(__ -> capability, 10000000, BlockWiseStorage.inMemory(), __ -> false,
+                timer, Duration.ofMinutes(1), Long.MAX_VALUE);
+        service = streamingFilter
+                .then(req -> {
+                    lastRequest = req;
+                    return completedFuture(of(C204_CHANGED));
+                });
+
+        service.apply(put("/fw").block1Req(0, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        service.apply(put("/fw").block1Req(1, S_16, false).payload(opaqueOfSize(3)).to(LOCAL_5683)).join();
+
+        assertEquals(opaqueOfSize(16).concat(opaqueOfSize(3)), lastRequest.getPayload());
+        assertNull(lastRequest.getTransContext(BlockWiseIncomingFilter.STREAMED_PAYLOAD));
+    }
+
+    @Test
+    public void should_drop_abandoned_transfer() {
+        CoapStatistics statistics = mock(CoapStatistics.class);
+        BlockWiseIncomingFilter expiringFilter = new BlockWiseIncomingFilter(__ -> capability, 10000000, BlockWiseStorage.inMemory(), __ -> false,
+                timer, Duration.ofSeconds(60), 1000, statistics, () -> nanoTime);
+        service = expiringFilter.then(__ -> ok("OK").toFuture());
+
+        service.apply(put("/").block1Req(0, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        assertEquals(Duration.ofSeconds(60), timer.getLastScheduledDelay());
+
+        // block received in meantime
+        nanoTime = Duration.ofSeconds(40).toNanos();
+        service.apply(put("/").block1Req(1, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        nanoTime = Duration.ofSeconds(60).toNanos();
+        timer.runAll();
+        assertEquals(1, expiringFilter.transfers());
+        assertEquals(Duration.ofSeconds(40), timer.getLastScheduledDelay());
+
+        // idle
+        nanoTime = Duration.ofSeconds(100).toNanos();
+        timer.runAll();
+        assertEquals(0, expiringFilter.transfers());
+        assertEquals(1, expiringFilter.abandonedTransfers());
+        verify(statistics).blockTransferAbandoned();
+        assertEquals(0, expiringFilter.inFlightBytes());
+        assertTrue(timer.isEmpty());
+    }
+
+    @Test
+    public void should_cancel_expiry_when_transfer_completed() {
+        BlockWiseIncomingFilter expiringFilter = new BlockWiseIncomingFilter(__ -> capability, 10000000, BlockWiseStorage.inMemory(), __ -> false,
+                timer, Duration.ofSeconds(60), 1000);
+        service = expiringFilter.then(__ -> ok("OK").toFuture());
+
+        service.apply(put("/").block1Req(0, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        assertEquals(16, expiringFilter.inFlightBytes());
+        service.apply(put("/").block1Req(1, S_16, false).payload(opaqueOfSize(3)).to(LOCAL_5683)).join();
+
+        assertTrue(timer.isEmpty());
+        assertEquals(0, expiringFilter.inFlightBytes());
+    }
+
+    @Test
+    public void should_reject_when_exceeded_in_flight_bytes() {
+        BlockWiseIncomingFilter limitedFilter = new BlockWiseIncomingFilter(__ -> capability, 10000000, BlockWiseStorage.inMemory(), __ -> false,
+                timer, Duration.ofSeconds(60), 40);
+        service = limitedFilter.then(__ -> ok("OK").toFuture());
+
+        service.apply(put("/a").block1Req(0, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        service.apply(put("/a").block1Req(1, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        CompletableFuture<CoapResponse> resp = service.apply(put("/b").block1Req(0, S_16, true).payload(opaqueOfSize(16)).to(LOCAL_5683));
+
+        assertThatThrownBy(resp::join).hasCause(new CoapCodeException(C503_SERVICE_UNAVAILABLE, "too many block-wise transfers"));
+        assertEquals(1, limitedFilter.transfers());
+        assertEquals(32, limitedFilter.inFlightBytes());
+
+        // known size that does not fit
+        resp = service.apply(put("/c").block1Req(0, S_16, true).size1(100).payload(opaqueOfSize(16)).to(LOCAL_5683));
+        assertThatThrownBy(resp::join).hasCause(new CoapCodeException(C503_SERVICE_UNAVAILABLE, "too many block-wise transfers"));
+    }
+
     @Test
     public void should_send_error_when_wrong_second_payload_and_block_size() {
         service = blockingFilter
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.block;
+
+import static com.mbed.coap.utils.Bytes.opaqueOfRandom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.mbed.coap.packet.Opaque;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BlockWiseStorageTest {
+    private final Opaque block1 = opaqueOfRandom(16);
+    private final Opaque block2 = opaqueOfRandom(16);
+    private final Opaque block3 = opaqueOfRandom(5);
+    private final Opaque combined = block1.concat(block2).concat(block3);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldAssembleInMemory() throws IOException {
+        BlockWisePayload payload = BlockWiseStorage.inMemory().create(37);
+
+        appendAll(payload);
+
+        assertEquals(37, payload.size());
+        assertEquals(combined, payload.toOpaque());
+        assertEquals(combined, Opaque.read(payload.inputStream(), 37));
+    }
+
+    @Test
+    void shouldNotCopySingleBlock() throws IOException {
+        BlockWisePayload payload = BlockWiseStorage.inMemory().create(16);
+
+        payload.append(block1);
+
+        assertEquals(block1, payload.toOpaque());
+    }
+
+    @Test
+    void shouldKeepInMemoryWithinThresholdAndBudget() throws IOException {
+        SpillingBlockWiseStorage storage = new SpillingBlockWiseStorage(tempDir, 100, 1000);
+        BlockWisePayload payload = storage.create(37);
+
+        appendAll(payload);
+
+        assertEquals(0, countFiles());
+        assertEquals(1000 - 37, storage.availableMemory());
+        assertEquals(combined, payload.toOpaque());
+
+        payload.close();
+        assertEquals(1000, storage.availableMemory());
+    }
+
+    @Test
+    void shouldSpillWhenOverThreshold() throws IOException {
+        SpillingBlockWiseStorage storage = new SpillingBlockWiseStorage(tempDir, 20, 1000);
+        BlockWisePayload payload = storage.create(37);
+
+        appendAll(payload);
+
+        assertEquals(1, countFiles());
+        assertEquals(1000, storage.availableMemory());
+        assertEquals(37, payload.size());
+        assertEquals(combined, payload.toOpaque());
+        assertEquals(combined, Opaque.read(payload.inputStream(), 37));
+
+        payload.close();
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    void shouldSpillWhenMemoryBudgetIsExhausted() throws IOException {
+        SpillingBlockWiseStorage storage = new SpillingBlockWiseStorage(tempDir, 100, 40);
+        BlockWisePayload payload1 = storage.create(37);
+        BlockWisePayload payload2 = storage.create(37);
+
+        appendAll(payload1);
+        appendAll(payload2);
+
+        assertEquals(1, countFiles());
+        assertEquals(3, storage.availableMemory());
+        assertEquals(combined, payload1.toOpaque());
+        assertEquals(combined, payload2.toOpaque());
+
+        payload1.close();
+        payload2.close();
+        assertEquals(0, countFiles());
+        assertEquals(40, storage.availableMemory());
+    }
+
+    @Test
+    void shouldFailWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BlockWiseStorage.spillToDisk(tempDir, -1, 100));
+        assertThrows(IllegalArgumentException.class, () -> BlockWiseStorage.spillToDisk(tempDir, 100, -1));
+    }
+
+    private void appendAll(BlockWisePayload payload) throws IOException {
+        payload.append(block1);
+        payload.append(block2);
+        payload.append(block3);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -86,4 +86,42 @@ class CongestionControlFilterTest {
         verify(service, times(3)).apply(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldSendConcurrentlyUpToMaxOutstandingRequests() {
+        filter = new CongestionControlFilter<>(3, 2, r -> r.substring(0, 2));
+        CompletableFuture<String> promise = new CompletableFuture<>();
+        given(service.apply(any())).willReturn(promise, new CompletableFuture<>());
+
+        // when
+        filter.apply("01:req1", service);
+        filter.apply("01:req2", service);
+        filter.apply("01:req3", service);
+
+        // then
+        verify(service, times(2)).apply(any());
+        assertEquals(3, filter.queueDepth("01"));
+
+        // and, when first one is done
+        promise.complete("ok");
+        verify(service, times(3)).apply(any());
+        assertEquals(2, filter.queueDepth("01"));
+        assertEquals(2, filter.totalQueueDepth());
+    }
+
+    @Test
+    void shouldRemoveIdleDestinationsLazily() {
+        filter = new CongestionControlFilter<>(2, r -> r);
+        given(service.apply(any())).willReturn(completedFuture("ok"));
+
+        // when
+        for (int i = 0; i < 2000; i++) {
+            filter.apply("req" + i, service);
+        }
+
+        // then
+        assertThat(filter.destinations()).isLessThan(2000);
+        assertEquals(0, filter.totalQueueDepth());
+        assertEquals("ok", filter.apply("req1", service).join());
+    }
+
+}
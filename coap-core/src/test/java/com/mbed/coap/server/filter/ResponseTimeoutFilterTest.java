@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,10 @@ import static java.time.Duration.ofMinutes;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import com.mbed.coap.exception.CoapTimeoutException;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.utils.MockTimer;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
@@ -64,6 +67,19 @@ class ResponseTimeoutFilterTest {
         assertTrue(servicePromise.isCompletedExceptionally());
     }
 
+    @Test
+    void shouldReportTimeoutToStatistics() {
+        CoapStatistics statistics = mock(CoapStatistics.class);
+        filter = new ResponseTimeoutFilter<>(timer, req -> ofMinutes(2), statistics);
+        filter.apply("req", s -> new CompletableFuture<>());
+
+        // when
+        timer.runAll();
+
+        // then
+        verify(statistics).timeout();
+    }
+
     @Test
     void shouldForwardResult() {
         final CompletableFuture<String> servicePromise = CompletableFuture.completedFuture("OK");
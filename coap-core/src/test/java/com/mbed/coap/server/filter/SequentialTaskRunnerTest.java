@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -61,4 +61,40 @@ class SequentialTaskRunnerTest {
         assertFalse(resp2.isDone());
         assertTrue(resp3.isCompletedExceptionally());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRunTasksConcurrentlyUpToMaxRunning() {
+        queue = new SequentialTaskRunner<>(3, 2);
+        CompletableFuture<String> promise1 = new CompletableFuture<>();
+        CompletableFuture<String> promise2 = new CompletableFuture<>();
+
+        // given
+        CompletableFuture<String> resp = queue.add(() -> promise1);
+        CompletableFuture<String> resp2 = queue.add(() -> promise2);
+        CompletableFuture<String> resp3 = queue.add(() -> completedFuture("ok3"));
+        assertFalse(resp3.isDone());
+
+        // when
+        promise2.complete("ok2");
+
+        // then
+        assertEquals("ok2", resp2.getNow(null));
+        assertEquals("ok3", resp3.getNow(null));
+        assertFalse(resp.isDone());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void shouldNotAcceptTasksWhenRetired() {
+        CompletableFuture<String> promise1 = new CompletableFuture<>();
+        queue.add(() -> promise1);
+        assertFalse(queue.retireIfEmpty());
+
+        // when
+        promise1.complete("ok1");
+
+        // then
+        assertTrue(queue.retireIfEmpty());
+        assertNull(queue.add(() -> completedFuture("ok2")));
+    }
+}
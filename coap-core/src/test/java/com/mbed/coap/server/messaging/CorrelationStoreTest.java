@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.messaging;
+
+import static com.mbed.coap.packet.Opaque.variableUInt;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static protocolTests.utils.CoapPacketBuilder.LOCAL_1_5683;
+import static protocolTests.utils.CoapPacketBuilder.LOCAL_5683;
+import com.mbed.coap.packet.Opaque;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CorrelationStoreTest {
+    private final CorrelationStore<String> store = new CorrelationStore<>(2);
+
+    @Test
+    void shouldStoreByToken() {
+        assertNull(store.put(LOCAL_5683, variableUInt(1001), "a"));
+        assertNull(store.put(LOCAL_1_5683, variableUInt(1001), "b"));
+        assertEquals("a", store.put(LOCAL_5683, variableUInt(1001), "c"));
+        assertEquals(2, store.size());
+
+        assertEquals("c", store.remove(LOCAL_5683, variableUInt(1001)));
+        assertNull(store.remove(LOCAL_5683, variableUInt(1001)));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void shouldDistinguishTokensWithDifferentLength() {
+        store.put(LOCAL_5683, Opaque.EMPTY, "empty");
+        store.put(LOCAL_5683, Opaque.of((byte) 0), "0");
+        store.put(LOCAL_5683, Opaque.of((byte) 0, (byte) 0), "00");
+        store.put(LOCAL_5683, 0, "mid");
+
+        assertEquals(4, store.size());
+        assertEquals("00", store.remove(LOCAL_5683, Opaque.of((byte) 0, (byte) 0)));
+        assertEquals("empty", store.remove(LOCAL_5683, Opaque.EMPTY));
+        assertEquals("mid", store.remove(LOCAL_5683, 0));
+        assertEquals("0", store.remove(LOCAL_5683, Opaque.of((byte) 0)));
+    }
+
+    @Test
+    void shouldStoreByMessageId() {
+        assertNull(store.putIfAbsent(LOCAL_5683, 12, "a"));
+        assertEquals("a", store.putIfAbsent(LOCAL_5683, 12, "b"));
+
+        assertFalse(store.remove(LOCAL_5683, 12, "b"));
+        assertTrue(store.remove(LOCAL_5683, 12, "a"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldGrowAndKeepAllEntries() {
+        for (int i = 0; i < 10_000; i++) {
+            store.put(LOCAL_5683, i, "v" + i);
+        }
+        assertEquals(10_000, store.size());
+
+        for (int i = 0; i < 10_000; i += 2) {
+            assertEquals("v" + i, store.remove(LOCAL_5683, i));
+        }
+        for (int i = 1; i < 10_000; i += 2) {
+            assertEquals("v" + i, store.remove(LOCAL_5683, i));
+        }
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldRemoveAllForPeer() {
+        for (int i = 0; i < 100; i++) {
+            store.put(LOCAL_5683, variableUInt(i), "a" + i);
+            store.put(LOCAL_1_5683, variableUInt(i), "b" + i);
+        }
+        List<String> removed = new ArrayList<>();
+
+        assertEquals(100, store.removeAll(LOCAL_5683, removed::add));
+
+        assertEquals(100, removed.size());
+        assertThat(removed).allMatch(it -> it.startsWith("a"));
+        assertEquals(100, store.size());
+        assertEquals("b13", store.remove(LOCAL_1_5683, variableUInt(13)));
+    }
+
+    @Test
+    void shouldRemoveAllForPeerAfterSingleRemovals() {
+        for (int i = 0; i < 100; i++) {
+            store.put(LOCAL_5683, variableUInt(i), "a" + i);
+            store.put(LOCAL_5683, i, "m" + i);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            store.remove(LOCAL_5683, variableUInt(i));
+            store.remove(LOCAL_5683, i, "m" + i);
+        }
+        List<String> removed = new ArrayList<>();
+
+        assertEquals(132, store.removeAll(LOCAL_5683, removed::add));
+
+        assertThat(removed).doesNotContain("a0", "m0", "a99", "m99").contains("a1", "m98");
+        assertEquals(0, store.size());
+        assertEquals(0, store.removeAll(LOCAL_5683, removed::add));
+    }
+
+    @Test
+    void shouldIterateOverAllValues() {
+        store.put(LOCAL_5683, 1, "a");
+        store.put(LOCAL_1_5683, variableUInt(2), "b");
+        List<String> values = new ArrayList<>();
+
+        store.forEach(values::add);
+
+        assertThat(values).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void shouldFailForTooLongToken() {
+        assertThrows(IllegalArgumentException.class, () -> store.put(LOCAL_5683, Opaque.of("123456789"), "a"));
+    }
+}
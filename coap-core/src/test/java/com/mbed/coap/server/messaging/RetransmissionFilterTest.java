@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package com.mbed.coap.server.messaging;
 
 import static java.time.Duration.ZERO;
 import static java.time.Duration.ofSeconds;
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -28,11 +29,15 @@ import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.BDDMockito.verifyNoMoreInteractions;
 import com.mbed.coap.exception.CoapTimeoutException;
+import com.mbed.coap.server.CoapStatistics;
 import com.mbed.coap.transmission.RetransmissionBackOff;
 import com.mbed.coap.utils.MockTimer;
 import com.mbed.coap.utils.Service;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,7 +47,7 @@ import org.mockito.Mockito;
 class RetransmissionFilterTest {
 
     private final MockTimer timer = new MockTimer();
-    private final RetransmissionBackOff backoff = new DoubleRetransmissionBackOff();
+    private final DoubleRetransmissionBackOff backoff = new DoubleRetransmissionBackOff();
 
     private final RetransmissionFilter<String, String> filter = new RetransmissionFilter<>(timer, backoff, r -> !r.startsWith("NON"));
     private final Service<String, String> service = Mockito.mock(Service.class);
@@ -77,6 +82,7 @@ class RetransmissionFilterTest {
         // then
         assertEquals("resp1", resp.join());
         verify(service).apply(any());
+        assertEquals(1, backoff.lastTransmissions);
     }
 
     @Test
@@ -120,6 +126,7 @@ class RetransmissionFilterTest {
         // then
         assertEquals("resp1", resp.join());
         verify(service, times(2)).apply(any());
+        assertEquals(2, backoff.lastTransmissions);
     }
 
     @Test
@@ -135,9 +142,43 @@ class RetransmissionFilterTest {
         verify(service, times(2)).apply(any());
     }
 
+    @Test
+    void shouldReportRetransmissionsAndTimeout() {
+        List<String> events = new ArrayList<>();
+        CoapStatistics statistics = new CoapStatistics() {
+            @Override
+            public void retransmission(int attempt) {
+                events.add("retransmission:" + attempt);
+            }
+
+            @Override
+            public void timeout() {
+                events.add("timeout");
+            }
+        };
+        resp = new RetransmissionFilter<String, String>(timer, backoff, __ -> true, __ -> null, statistics).then(service).apply("REQ1");
+
+        // when
+        timer.runAll();
+        timer.runAll();
+        timer.runAll();
+
+        // then
+        assertThatThrownBy(resp::join).hasCauseExactlyInstanceOf(CoapTimeoutException.class);
+        assertEquals(asList("retransmission:2", "retransmission:3", "timeout"), events);
+        verify(service, times(3)).apply(any());
+    }
+
     // - non-retryable message
 
     static class DoubleRetransmissionBackOff implements RetransmissionBackOff {
+        private int lastTransmissions;
+
+        @Override
+        public void onResponse(InetSocketAddress peerAddress, int transmissions, Duration rtt) {
+            lastTransmissions = transmissions;
+        }
+
         @Override
         public Duration next(int attemptCounter) {
             switch (attemptCounter) {
@@ -16,17 +16,16 @@
  */
 package com.mbed.coap.server.messaging;
 
+import com.mbed.coap.packet.Opaque;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import nl.jqno.equalsverifier.Warning;
 import org.junit.jupiter.api.Test;
 
 
-public class PiggybackedCorrelationTest {
+public class TransactionIdTest {
 
     @Test
     public void equalsAndHashTest() throws Exception {
-        EqualsVerifier.forClass(PiggybackedCorrelation.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass().verify();
-
-        EqualsVerifier.forClass(TransactionId.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass().verify();
+        EqualsVerifier.forClass(TransactionId.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass().withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2")).verify();
     }
 }
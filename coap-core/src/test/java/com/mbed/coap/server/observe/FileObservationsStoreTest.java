@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.observe;
+
+import static com.mbed.coap.packet.CoapRequest.get;
+import static com.mbed.coap.packet.CoapResponse.ok;
+import static com.mbed.coap.packet.Opaque.variableUInt;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.packet.SeparateResponse;
+import com.mbed.coap.utils.IpPortAddress;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileObservationsStoreTest {
+    private static final InetSocketAddress PEER = IpPortAddress.local(5683).toInetSocketAddress();
+
+    @TempDir
+    Path tempDir;
+    private Path file;
+    private FileObservationsStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = tempDir.resolve("observations.log");
+        store = FileObservationsStore.open(file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void shouldAddAndRemove() {
+        store.add(get("/test").token(1).build());
+        store.add(get("/test2").token(2).build());
+        store.add(get("/test3").token(Opaque.EMPTY).build());
+
+        assertEquals(Optional.of("/test"), store.resolveUriPath(notification(variableUInt(1))));
+        assertEquals(Optional.of("/test3"), store.resolveUriPath(notification(Opaque.EMPTY)));
+        assertEquals(Optional.empty(), store.resolveUriPath(notification(variableUInt(3))));
+
+        store.remove(notification(variableUInt(1)));
+        assertFalse(store.contains(variableUInt(1)));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void shouldReloadAfterRestart() throws IOException {
+        store.add(get("/test").token(1).build());
+        store.add(get("/test2").token(2).build());
+        store.add(get("/test").token(0x0102030405060708L).build());
+        store.remove(notification(variableUInt(2)));
+        store.close();
+
+        store = FileObservationsStore.open(file);
+
+        assertEquals(2, store.size());
+        assertEquals(Optional.of("/test"), store.resolveUriPath(notification(variableUInt(1))));
+        assertEquals(Optional.of("/test"), store.resolveUriPath(notification(variableUInt(0x0102030405060708L))));
+        assertFalse(store.contains(variableUInt(2)));
+    }
+
+    @Test
+    void shouldIgnorePartiallyWrittenRecord() throws IOException {
+        store.add(get("/test").token(1).build());
+        store.close();
+        long size = Files.size(file);
+        Files.write(file, new byte[]{1, 3, 0}, StandardOpenOption.APPEND);
+
+        store = FileObservationsStore.open(file);
+
+        assertEquals(1, store.size());
+        assertEquals(size, Files.size(file));
+        store.add(get("/test2").token(2).build());
+        store.close();
+
+        store = FileObservationsStore.open(file);
+        assertEquals(Optional.of("/test2"), store.resolveUriPath(notification(variableUInt(2))));
+    }
+
+    @Test
+    void shouldCompactLog() throws IOException {
+        for (int i = 0; i < 5000; i++) {
+            store.add(get("/test/" + (i % 10)).token(i).build());
+        }
+        for (int i = 0; i < 4990; i++) {
+            store.remove(notification(variableUInt(i)));
+        }
+
+        store.compact();
+        assertTrue(Files.size(file) < 200);
+        store.close();
+
+        store = FileObservationsStore.open(file);
+        assertEquals(10, store.size());
+        assertEquals(Optional.of("/test/5"), store.resolveUriPath(notification(variableUInt(4995))));
+    }
+
+    @Test
+    void shouldKeepAppendingAfterCompaction() throws IOException {
+        store.add(get("/test").token(1).build());
+        store.add(get("/test2").token(2).build());
+        store.remove(notification(variableUInt(1)));
+
+        store.compact();
+        store.add(get("/test3").token(3).build());
+        store.close();
+
+        store = FileObservationsStore.open(file);
+        assertEquals(2, store.size());
+        assertEquals(Optional.of("/test3"), store.resolveUriPath(notification(variableUInt(3))));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void shouldReloadLogLargerThanReadBuffer() throws IOException {
+        String longPath = "/" + new String(new char[200]).replace('\0', 'a');
+        for (int i = 0; i < 2000; i++) {
+            store.add(get(longPath + i).token(i).build());
+        }
+        store.close();
+        assertTrue(Files.size(file) > 256 * 1024);
+
+        store = FileObservationsStore.open(file);
+
+        assertEquals(2000, store.size());
+        assertEquals(Optional.of(longPath + 1999), store.resolveUriPath(notification(variableUInt(1999))));
+    }
+
+    private static SeparateResponse notification(Opaque token) {
+        return ok("").toSeparate(token, PEER);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,11 +27,13 @@ import static com.mbed.coap.packet.Opaque.variableUInt;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import com.mbed.coap.packet.CoapRequest;
@@ -41,7 +43,9 @@ import com.mbed.coap.packet.SeparateResponse;
 import com.mbed.coap.utils.IpPortAddress;
 import com.mbed.coap.utils.Service;
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,6 +56,7 @@ class ObserversManagerTest {
     private ObserversManager obsMgr = new ObserversManager();
     private static final InetSocketAddress PEER_1 = IpPortAddress.local(15683).toInetSocketAddress();
     private static final InetSocketAddress PEER_2 = IpPortAddress.local(25683).toInetSocketAddress();
+    private static final InetSocketAddress PEER_3 = IpPortAddress.local(35683).toInetSocketAddress();
 
     @BeforeEach
     void setUp() {
@@ -198,6 +203,117 @@ class ObserversManagerTest {
         assertEquals(1, obsMgr.size());
     }
 
+    @Test
+    public void broadcastObservation_renderOncePerRepresentation() {
+        // given
+        obsMgr.apply(get("/test").token(13).observe().accept(CT_TEXT_PLAIN).from(PEER_1), okResource);
+        obsMgr.apply(get("/test").token(1312).observe().accept(CT_TEXT_PLAIN).from(PEER_2), okResource);
+        obsMgr.apply(get("/test").token(1313).observe().accept(CT_APPLICATION_XML).from(PEER_3), okResource);
+        AtomicInteger renders = new AtomicInteger();
+
+        // when
+        obsMgr.broadcastObservation("/test", req -> {
+            renders.incrementAndGet();
+            return okResource.apply(req);
+        });
+
+        // then
+        assertEquals(2, renders.get());
+        verify(outboundObservation).apply(eq(ok().payload("OK", CT_TEXT_PLAIN).observe(1).toSeparate(variableUInt(13), PEER_1)));
+        verify(outboundObservation).apply(eq(ok().payload("OK", CT_TEXT_PLAIN).observe(1).toSeparate(variableUInt(1312), PEER_2)));
+        verify(outboundObservation).apply(eq(ok().payload("<r>OK</r>").contentFormat(CT_APPLICATION_XML).observe(1).toSeparate(variableUInt(1313), PEER_3)));
+    }
+
+    @Test
+    public void broadcastObservation_limitInFlightNotifications() {
+        // given
+        obsMgr = new ObserversManager(1);
+        obsMgr.init(outboundObservation);
+        CompletableFuture<Boolean> delivery = new CompletableFuture<>();
+        given(outboundObservation.apply(any())).willReturn(delivery, completedFuture(true));
+        obsMgr.subscribe(get("/test").token(13).observe().from(PEER_1), ok("OK!"));
+        obsMgr.subscribe(get("/test").token(1312).observe().from(PEER_2), ok("OK!"));
+
+        // when
+        obsMgr.broadcastObservation("/test", __ -> ok("OK 1").toFuture());
+
+        // then
+        verify(outboundObservation).apply(any());
+        assertEquals(1, obsMgr.inFlightNotifications());
+
+        // and, when first is delivered
+        delivery.complete(true);
+        verify(outboundObservation, times(2)).apply(any());
+        assertEquals(0, obsMgr.inFlightNotifications());
+    }
+
+    @Test
+    public void broadcastObservation_replacePendingNotifications() {
+        // given
+        obsMgr = new ObserversManager(1);
+        obsMgr.init(outboundObservation);
+        CompletableFuture<Boolean> delivery = new CompletableFuture<>();
+        given(outboundObservation.apply(any())).willReturn(delivery, completedFuture(true));
+        obsMgr.subscribe(get("/test").token(13).observe().from(PEER_1), ok("OK!"));
+        obsMgr.subscribe(get("/test").token(1312).observe().from(PEER_2), ok("OK!"));
+
+        // when
+        obsMgr.broadcastObservation("/test", __ -> ok("OK 1").toFuture());
+        obsMgr.broadcastObservation("/test", __ -> ok("OK 2").toFuture());
+        delivery.complete(true);
+
+        // then, second notification for first resource change is skipped
+        verify(outboundObservation, times(3)).apply(any());
+        verify(outboundObservation).apply(eq(ok("OK 2").observe(2).toSeparate(variableUInt(13), PEER_1)));
+        verify(outboundObservation).apply(eq(ok("OK 2").observe(2).toSeparate(variableUInt(1312), PEER_2)));
+    }
+
+    @Test
+    public void broadcastObservation_dropOlderChange_whenRenderedAfterNewerOne() {
+        // given
+        obsMgr.subscribe(get("/test").token(13).observe().from(PEER_1), ok("OK!"));
+        obsMgr.subscribe(get("/test").token(1312).observe().from(PEER_2), ok("OK!"));
+        CompletableFuture<CoapResponse> render1 = new CompletableFuture<>();
+        CompletableFuture<CoapResponse> render2 = new CompletableFuture<>();
+
+        // when
+        obsMgr.broadcastObservation("/test", __ -> render1);
+        obsMgr.broadcastObservation("/test", __ -> render2);
+        render2.complete(ok("OK 2").build());
+        render1.complete(ok("OK 1").build());
+
+        // then
+        verify(outboundObservation, times(2)).apply(any());
+        verify(outboundObservation).apply(eq(ok("OK 2").observe(2).toSeparate(variableUInt(13), PEER_1)));
+        verify(outboundObservation).apply(eq(ok("OK 2").observe(2).toSeparate(variableUInt(1312), PEER_2)));
+    }
+
+    @Test
+    public void broadcastObservation_releaseInFlightSlot_whenSendingFailsSynchronously() {
+        // given
+        obsMgr = new ObserversManager(1);
+        obsMgr.init(outboundObservation);
+        given(outboundObservation.apply(any())).willThrow(new IllegalStateException("closed")).willReturn(completedFuture(true));
+        obsMgr.subscribe(get("/test").token(13).observe().from(PEER_1), ok("OK!"));
+        obsMgr.subscribe(get("/test").token(1312).observe().from(PEER_2), ok("OK!"));
+
+        // when
+        obsMgr.broadcastObservation("/test", __ -> ok("OK 1").toFuture());
+
+        // then
+        verify(outboundObservation, times(2)).apply(any());
+        assertEquals(0, obsMgr.inFlightNotifications());
+
+        // and, following broadcast is not stalled
+        obsMgr.broadcastObservation("/test", __ -> ok("OK 2").toFuture());
+        verify(outboundObservation, times(4)).apply(any());
+    }
+
+    @Test
+    public void shouldFailToCreate_withInvalidMaxInFlightNotifications() {
+        assertThrows(IllegalArgumentException.class, () -> new ObserversManager(0));
+    }
+
     private static final Service<CoapRequest, CoapResponse> okResource = req -> {
         switch (req.options().getAccept().shortValue()) {
             case CT_TEXT_PLAIN:
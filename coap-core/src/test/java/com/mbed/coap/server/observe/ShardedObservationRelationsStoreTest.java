@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.observe;
+
+import static com.mbed.coap.packet.CoapRequest.fetch;
+import static com.mbed.coap.packet.CoapRequest.get;
+import static com.mbed.coap.packet.MediaTypes.CT_APPLICATION_JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.mbed.coap.packet.BlockSize;
+import com.mbed.coap.packet.CoapRequest;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.transport.TransportContext;
+import com.mbed.coap.utils.IpPortAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+
+class ShardedObservationRelationsStoreTest {
+    private static final InetSocketAddress PEER_1 = IpPortAddress.local(15683).toInetSocketAddress();
+    private static final InetSocketAddress PEER_2 = IpPortAddress.local(25683).toInetSocketAddress();
+    private final ShardedObservationRelationsStore store = new ShardedObservationRelationsStore(4);
+
+    @Test
+    void shouldStoreRelations() {
+        store.put("/test", relation(get("/test").token(1).observe().from(PEER_1)));
+        store.put("/test", relation(get("/test").token(2).observe().from(PEER_2)));
+        store.put("/test2", relation(get("/test2").token(3).observe().from(PEER_1)));
+
+        assertEquals(3, store.size());
+        assertThat(store.findAll("/test")).extracting(ObservationRelation::getPeerAddress).containsExactlyInAnyOrder(PEER_1, PEER_2);
+        assertThat(store.uriPaths()).containsExactlyInAnyOrder("/test", "/test2");
+        assertThat(store.findAll("/foo")).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceRelationFromSamePeer() {
+        store.put("/test", relation(get("/test").token(1).observe().from(PEER_1)));
+        store.put("/test", relation(get("/test").token(2).observe().from(PEER_1)));
+
+        assertEquals(1, store.size());
+        assertEquals(relation(get("/test").token(2).observe().from(PEER_1)), store.findAll("/test").get(0));
+    }
+
+    @Test
+    void shouldRemoveRelations() {
+        store.put("/test", relation(get("/test").token(1).observe().from(PEER_1)));
+        store.put("/test", relation(get("/test").token(2).observe().from(PEER_2)));
+
+        store.remove("/test", PEER_1);
+        store.remove("/test", PEER_1);
+        store.remove("/foo", PEER_2);
+        assertEquals(1, store.size());
+
+        store.remove("/test", PEER_2);
+        assertEquals(0, store.size());
+        assertThat(store.uriPaths()).isEmpty();
+    }
+
+    @Test
+    void shouldClear() {
+        store.put("/test", relation(get("/test").token(1).observe().from(PEER_1)));
+        store.put("/test2", relation(get("/test2").token(2).observe().from(PEER_2)));
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertThat(store.findAll("/test")).isEmpty();
+    }
+
+    @Test
+    void shouldRecreateSubscribingRequest() {
+        CoapRequest req = get("/test").token(1).observe().accept(CT_APPLICATION_JSON).query("p=1").blockSize(BlockSize.S_64).from(PEER_1);
+        CoapRequest fetchReq = fetch("/test").token(2).observe().payload("{\"a\":1}").from(PEER_2);
+        CoapRequest nonConfirmableReq = get("/test").token(3).observe().addContext(TransportContext.NON_CONFIRMABLE, true).from(PEER_2);
+
+        assertEquals(req, relation(req).toRequest());
+        assertEquals(fetchReq, relation(fetchReq).toRequest());
+        assertEquals(nonConfirmableReq, relation(nonConfirmableReq).toRequest());
+    }
+
+    @Test
+    void shouldNotKeepReceivedPacket() {
+        byte[] packet = {1, 2, 3, 4, 5, 6, 7, 8};
+        CoapRequest req = fetch("/test").token(Opaque.wrap(packet, 1, 2)).observe().payload(Opaque.wrap(packet, 4, 3)).from(PEER_1);
+
+        ObservationRelation relation = relation(req);
+        packet[1] = 0;
+        packet[4] = 0;
+
+        assertEquals(Opaque.of((byte) 2, (byte) 3), relation.getToken());
+        assertEquals(Opaque.of((byte) 5, (byte) 6, (byte) 7), relation.getPayload());
+    }
+
+    @Test
+    void shouldFailWithIllegalConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedObservationRelationsStore(0));
+    }
+
+    private static ObservationRelation relation(CoapRequest req) {
+        return ObservationRelation.from(req);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transmission;
+
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.mbed.coap.utils.IpPortAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CocoaRetransmissionBackOffTest {
+    private static final InetSocketAddress PEER_1 = IpPortAddress.local(15683).toInetSocketAddress();
+    private static final InetSocketAddress PEER_2 = IpPortAddress.local(25683).toInetSocketAddress();
+    private static final InetSocketAddress PEER_3 = IpPortAddress.local(35683).toInetSocketAddress();
+
+    private long nowNanos = 0;
+    private final CocoaRetransmissionBackOff backOff = new CocoaRetransmissionBackOff(4, 100, () -> nowNanos, new Random());
+
+    @Test
+    void shouldUseDefaultTimeoutForUnknownPeer() {
+        RetransmissionBackOff exchange = backOff.forPeer(PEER_1);
+
+        assertBetween(2000, 3000, exchange.next(1));
+        assertBetween(4000, 6000, exchange.next(2));
+        assertEquals(ZERO, exchange.next(6));
+        assertEquals(ofSeconds(2), backOff.rto(PEER_1));
+        assertThrows(IllegalArgumentException.class, () -> exchange.next(0));
+    }
+
+    @Test
+    void shouldEstimateTimeoutFromStrongRtt() {
+        // when
+        for (int i = 0; i < 20; i++) {
+            backOff.onResponse(PEER_1, 1, ofMillis(100));
+        }
+
+        // then
+        assertBetween(100, 200, backOff.rto(PEER_1));
+        RetransmissionBackOff exchange = backOff.forPeer(PEER_1);
+        assertBetween(100, 300, exchange.next(1));
+        // variable back-off factor for short RTO is 3
+        assertBetween(300, 900, exchange.next(2));
+
+        // and other peers are not affected
+        assertEquals(ofSeconds(2), backOff.rto(PEER_2));
+    }
+
+    @Test
+    void shouldEstimateTimeoutFromWeakRtt() {
+        // when
+        for (int i = 0; i < 20; i++) {
+            backOff.onResponse(PEER_1, 2, ofSeconds(5));
+        }
+
+        // then
+        assertBetween(5000, 6000, backOff.rto(PEER_1));
+    }
+
+    @Test
+    void shouldIgnoreRttAfterManyRetransmissions() {
+        backOff.onResponse(PEER_1, 4, ofSeconds(20));
+
+        assertEquals(ofSeconds(2), backOff.rto(PEER_1));
+        assertEquals(0, backOff.size());
+    }
+
+    @Test
+    void shouldAgeShortTimeout() {
+        for (int i = 0; i < 20; i++) {
+            backOff.onResponse(PEER_1, 1, ofMillis(100));
+        }
+        long rto = backOff.rto(PEER_1).toMillis();
+
+        // when
+        nowNanos += ofSeconds(10).toNanos();
+
+        // then
+        assertEquals(2 * rto, backOff.rto(PEER_1).toMillis(), 1);
+    }
+
+    @Test
+    void shouldEvictOldPeers() {
+        CocoaRetransmissionBackOff smallBackOff = new CocoaRetransmissionBackOff(4, 2, () -> nowNanos, new Random());
+
+        smallBackOff.onResponse(PEER_1, 1, ofMillis(100));
+        smallBackOff.onResponse(PEER_2, 1, ofMillis(100));
+        smallBackOff.onResponse(PEER_3, 1, ofMillis(100));
+
+        assertTrue(smallBackOff.size() <= 2);
+        assertEquals(ofSeconds(2), smallBackOff.rto(PEER_1));
+    }
+
+    @Test
+    void shouldUseDefaultTimeoutWithoutPeerAddress() {
+        backOff.onResponse(null, 1, ofMillis(100));
+
+        assertBetween(2000, 3000, backOff.forPeer(null).next(1));
+        assertBetween(2000, 3000, backOff.next(1));
+    }
+
+    private static void assertBetween(long minMillis, long maxMillis, Duration actual) {
+        assertTrue(actual.toMillis() >= minMillis && actual.toMillis() <= maxMillis, "Expected between " + minMillis + " and " + maxMillis + " but was " + actual.toMillis());
+    }
+}
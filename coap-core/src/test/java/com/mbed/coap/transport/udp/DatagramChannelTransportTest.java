@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transport.udp;
+
+import static com.mbed.coap.transport.InMemoryCoapTransport.localAddressFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static protocolTests.utils.CoapPacketBuilder.LOCAL_5683;
+import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
+import com.mbed.coap.packet.CoapPacket;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DatagramChannelTransportTest {
+
+    private final DatagramChannelTransport client = DatagramChannelTransport.udp(0);
+    private DatagramChannelTransport server;
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void sendAndReceive() throws Exception {
+        server = DatagramChannelTransport.builder().receiveBufferSize(64 * 1024).sendBufferSize(64 * 1024).build();
+        server.start();
+        client.start();
+        InetSocketAddress serverAddress = localAddressFrom(server.getLocalSocketAddress());
+
+        // #1
+        CompletableFuture<CoapPacket> receive = server.receive();
+        assertFalse(receive.isDone());
+        client.sendPacket(newCoapPacket(serverAddress).get().uriPath("/test").mid(1).build()).get();
+        assertEquals("/test", receive.get(1, TimeUnit.SECONDS).headers().getUriPath());
+
+        // #2, packets wait in socket buffer
+        client.sendPacket(newCoapPacket(serverAddress).get().uriPath("/test").mid(2).build()).get();
+        client.sendPacket(newCoapPacket(serverAddress).get().uriPath("/test").mid(3).build()).get();
+
+        assertEquals(2, server.receive().get(1, TimeUnit.SECONDS).getMessageId());
+        assertEquals(3, server.receive().get(1, TimeUnit.SECONDS).getMessageId());
+        assertFalse(server.receive().isDone());
+    }
+
+    @Test
+    void receiveWithMultipleReaders() throws Exception {
+        server = DatagramChannelTransport.builder().readers(4).build();
+        server.start();
+        client.start();
+        InetSocketAddress serverAddress = localAddressFrom(server.getLocalSocketAddress());
+        assertThat(server.getNumberOfChannels()).isIn(1, 4);
+
+        for (int mid = 0; mid < 100; mid++) {
+            client.sendPacket(newCoapPacket(serverAddress).get().uriPath("/test").mid(mid).build()).get();
+        }
+
+        Set<Integer> receivedMids = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            receivedMids.add(server.receive().get(1, TimeUnit.SECONDS).getMessageId());
+        }
+        assertEquals(100, receivedMids.size());
+    }
+
+    @Test
+    void receiveAllWithMultipleReaders() throws Exception {
+        server = DatagramChannelTransport.builder().readers(2).build();
+        server.start();
+        client.start();
+        InetSocketAddress serverAddress = localAddressFrom(server.getLocalSocketAddress());
+        Set<Integer> receivedMids = ConcurrentHashMap.newKeySet();
+        CountDownLatch latch = new CountDownLatch(100);
+
+        CompletableFuture<Void> receiving = server.receiveAll(packet -> {
+            receivedMids.add(packet.getMessageId());
+            latch.countDown();
+        });
+        for (int mid = 0; mid < 100; mid++) {
+            client.sendPacket(newCoapPacket(serverAddress).get().uriPath("/test").mid(mid).build()).get();
+        }
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(100, receivedMids.size());
+        assertFalse(receiving.isDone());
+
+        server.stop();
+        assertTrue(receiving.isDone());
+    }
+
+    @Test
+    void reportParseFailure() throws Exception {
+        server = DatagramChannelTransport.builder().build();
+        CountDownLatch parseFailures = new CountDownLatch(1);
+        server.setParseFailureListener(parseFailures::countDown);
+        server.start();
+        InetSocketAddress serverAddress = localAddressFrom(server.getLocalSocketAddress());
+
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.send(new DatagramPacket(new byte[]{0x00}, 1, serverAddress));
+        }
+
+        assertTrue(parseFailures.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shareSingleChannelWhenReusePortIsDisabled() throws IOException {
+        server = DatagramChannelTransport.builder().readers(3).reusePort(false).build();
+        server.start();
+
+        assertEquals(1, server.getNumberOfChannels());
+    }
+
+    @Test
+    void failWhenNotRunning() throws IOException {
+        assertThatThrownBy(() -> client.sendPacket0(newCoapPacket(LOCAL_5683).get().mid(1).build()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(client::receive).isInstanceOf(IllegalStateException.class);
+
+        client.start();
+        CompletableFuture<CoapPacket> receive = client.receive();
+        client.stop();
+
+        assertThat(receive).isCompletedExceptionally();
+        assertThatThrownBy(client::receive).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldValidateBuilderArguments() {
+        assertThatThrownBy(() -> DatagramChannelTransport.builder().readers(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DatagramChannelTransport.builder().maxPacketSize(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
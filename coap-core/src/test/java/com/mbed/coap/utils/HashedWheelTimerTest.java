@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.utils;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(Duration.ofMillis(1), 8);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void shouldSchedule() {
+        Runnable task = mock(Runnable.class);
+        Runnable task2 = mock(Runnable.class);
+
+        timer.schedule(Duration.ofMillis(3), task);
+        timer.schedule(Duration.ofMillis(1), task2);
+
+        verify(task, timeout(200)).run();
+        verify(task2, timeout(200)).run();
+    }
+
+    @Test
+    void shouldScheduleAfterMultipleWheelRounds() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // wheel covers 8ms
+        timer.schedule(Duration.ofMillis(30), latch::countDown);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 30);
+    }
+
+    @Test
+    void shouldCancel() throws InterruptedException {
+        Runnable task = mock(Runnable.class);
+
+        Runnable cancel = timer.schedule(Duration.ofMillis(10), task);
+        cancel.run();
+
+        Thread.sleep(20);
+        verify(task, never()).run();
+        await().until(() -> timer.pendingTimeouts() == 0);
+    }
+
+    @Test
+    void shouldContinueAfterFailingTask() {
+        Runnable task = mock(Runnable.class);
+
+        timer.schedule(Duration.ofMillis(1), () -> {
+            throw new IllegalStateException("failed");
+        });
+        timer.schedule(Duration.ofMillis(2), task);
+
+        verify(task, timeout(200)).run();
+    }
+
+    @Test
+    void shouldFailToScheduleWhenStopped() {
+        timer.stop();
+
+        assertThrows(IllegalStateException.class, () -> timer.schedule(Duration.ofMillis(1), mock(Runnable.class)));
+    }
+
+    @Test
+    void shouldValidateArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(Duration.ZERO, 8));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer(Duration.ofMillis(1), 0));
+    }
+}
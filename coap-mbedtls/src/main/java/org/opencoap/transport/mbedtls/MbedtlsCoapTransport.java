@@ -21,7 +21,6 @@ import com.mbed.coap.exception.CoapException;
 import com.mbed.coap.packet.CoapPacket;
 import com.mbed.coap.packet.CoapSerializer;
 import com.mbed.coap.transport.CoapTransport;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
@@ -95,8 +94,7 @@ public class MbedtlsCoapTransport implements CoapTransport {
     static CoapPacket deserializeCoap(Packet<ByteBuffer> packet) {
         if (packet.getBuffer().remaining() > 0) {
             try {
-                ByteArrayInputStream bufInput = toInputStream(packet.getBuffer());
-                CoapPacket coapPacket = CoapSerializer.deserialize(packet.getPeerAddress(), bufInput);
+                CoapPacket coapPacket = CoapSerializer.deserialize(packet.getPeerAddress(), packet.getBuffer().duplicate());
                 coapPacket.setTransportContext(toTransportContext(packet.getSessionContext()));
                 return coapPacket;
             } catch (CoapException e) {
@@ -106,10 +104,6 @@ public class MbedtlsCoapTransport implements CoapTransport {
         return null;
     }
 
-    private static ByteArrayInputStream toInputStream(ByteBuffer byteBuffer) {
-        return new ByteArrayInputStream(byteBuffer.array(), byteBuffer.position(), byteBuffer.remaining());
-    }
-
     @Override
     public InetSocketAddress getLocalSocketAddress() {
         return new InetSocketAddress("0.0." + "0.0", dtlsTransport.localPort());
@@ -170,6 +170,22 @@ class MbedtlsCoapTransportTest {
         assertEquals(coap, coap2);
     }
 
+    @Test
+    void deserialize_coap_from_direct_bytebuffer_packet() {
+        // given
+        CoapPacket coap = CoapPacketBuilder.newCoapPacket(localhost(5684)).mid(13).get().uriPath("/test").context(TransportContext.EMPTY).build();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(200);
+        buffer.put(CoapSerializer.serialize(coap));
+        buffer.flip();
+        Packet<ByteBuffer> packet = new Packet<>(buffer, localhost(5684));
+
+        // when
+        CoapPacket coap2 = MbedtlsCoapTransport.deserializeCoap(packet);
+
+        //then
+        assertEquals(coap, coap2);
+    }
+
     private static ByteBuffer toByteBuffer(String s) {
         return ByteBuffer.wrap(s.getBytes());
     }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.metrics.micrometer;
+
+import com.mbed.coap.server.CoapStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.IntSupplier;
+
+/**
+ * Binds CoAP server statistics to Micrometer meters.
+ */
+public class MicrometerCoapStatistics implements CoapStatistics {
+    public static final String DEFAULT_PREFIX = "coap.server";
+    // retransmissions with higher attempt are counted together
+    private static final int MAX_TRACKED_ATTEMPT = 8;
+
+    private final MeterRegistry registry;
+    private final String prefix;
+    private final Counter packetsIn;
+    private final Counter packetsOut;
+    private final Counter parseFailures;
+    private final Counter[] retransmissions = new Counter[MAX_TRACKED_ATTEMPT + 1];
+    private final Counter timeouts;
+    private final Counter duplicates;
+    private final Counter congestionRejections;
+    private final Counter abandonedBlockTransfers;
+    private final Counter deadConnections;
+    private final Counter notificationsIn;
+    private final Counter notificationsOut;
+
+    public MicrometerCoapStatistics(MeterRegistry registry) {
+        this(registry, DEFAULT_PREFIX);
+    }
+
+    public MicrometerCoapStatistics(MeterRegistry registry, String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+
+        packetsIn = registry.counter(prefix + ".packets", "direction", "in");
+        packetsOut = registry.counter(prefix + ".packets", "direction", "out");
+        parseFailures = registry.counter(prefix + ".parse.failures");
+        for (int attempt = 2; attempt <= MAX_TRACKED_ATTEMPT; attempt++) {
+            String attemptTag = attempt < MAX_TRACKED_ATTEMPT ? String.valueOf(attempt) : MAX_TRACKED_ATTEMPT + "+";
+            retransmissions[attempt] = registry.counter(prefix + ".retransmissions", "attempt", attemptTag);
+        }
+        timeouts = registry.counter(prefix + ".timeouts");
+        duplicates = registry.counter(prefix + ".duplicates");
+        congestionRejections = registry.counter(prefix + ".congestion.rejections");
+        abandonedBlockTransfers = registry.counter(prefix + ".block.transfers.abandoned");
+        deadConnections = registry.counter(prefix + ".connections.dead");
+        notificationsIn = registry.counter(prefix + ".notifications", "direction", "in");
+        notificationsOut = registry.counter(prefix + ".notifications", "direction", "out");
+    }
+
+    @Override
+    public void packetReceived() {
+        packetsIn.increment();
+    }
+
+    @Override
+    public void packetSent() {
+        packetsOut.increment();
+    }
+
+    @Override
+    public void parseFailure() {
+        parseFailures.increment();
+    }
+
+    @Override
+    public void retransmission(int attempt) {
+        retransmissions[Math.max(2, Math.min(attempt, MAX_TRACKED_ATTEMPT))].increment();
+    }
+
+    @Override
+    public void timeout() {
+        timeouts.increment();
+    }
+
+    @Override
+    public void duplicate() {
+        duplicates.increment();
+    }
+
+    @Override
+    public void congestionRejection() {
+        congestionRejections.increment();
+    }
+
+    @Override
+    public void blockTransferAbandoned() {
+        abandonedBlockTransfers.increment();
+    }
+
+    @Override
+    public void deadConnection() {
+        deadConnections.increment();
+    }
+
+    @Override
+    public void notificationReceived() {
+        notificationsIn.increment();
+    }
+
+    @Override
+    public void notificationSent() {
+        notificationsOut.increment();
+    }
+
+    @Override
+    public void gauge(String name, IntSupplier value) {
+        Gauge.builder(prefix + "." + name, value::getAsInt).register(registry);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,36 +15,73 @@
  */
 package org.opencoap.coap.metrics.micrometer;
 
+import static com.mbed.coap.utils.Validations.require;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import com.mbed.coap.packet.Code;
 import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
+import com.mbed.coap.packet.Method;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
+import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.config.MeterFilter;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
-import java.util.Arrays;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
+/**
+ * Measures request latency with a timer tagged by method, status, route and throwable.
+ * <p>
+ * Timers are registered once and cached per route, so the hot path does no meter lookup. Number of distinct routes is
+ * bounded by <i>maxRoutes</i>, requests to any further route are reported with route tag {@value #OTHER_ROUTE}.
+ * The same filter measures client side requests when used as server's <i>outboundFilter</i>, see {@link #outboundBuilder()}.
+ */
 public class MicrometerMetricsFilter implements Filter.SimpleFilter<CoapRequest, CoapResponse> {
+    public static final String DEFAULT_OUTBOUND_METRIC_NAME = "coap.client.requests";
+    public static final String OTHER_ROUTE = "OTHER";
+    static final String NOT_AVAILABLE = "n/a";
+    private static final int CODES = Code.values().length;
+    private static final int METHODS = Method.values().length;
+
     private final MeterRegistry registry;
+    private final Clock clock;
     private final String metricName;
     private final Function<String, String> resolveRoute;
+    private final int maxRoutes;
+    private final int maxResolvedPaths;
+    // uri-path -> timers of resolved route
+    private final ConcurrentHashMap<String, RouteTimers> resolvedPaths = new ConcurrentHashMap<>();
+    // route -> timers
+    private final ConcurrentHashMap<String, RouteTimers> routes = new ConcurrentHashMap<>();
+    private final RouteTimers otherRoute;
 
     public static MicrometerMetricsFilterBuilder builder() {
         return new MicrometerMetricsFilterBuilder();
     }
 
-    MicrometerMetricsFilter(MeterRegistry registry, String metricName, DistributionStatisticConfig distributionStatisticConfig, Function<String, String> resolveRoute) {
+    public static MicrometerMetricsFilterBuilder outboundBuilder() {
+        return new MicrometerMetricsFilterBuilder().metricName(DEFAULT_OUTBOUND_METRIC_NAME);
+    }
+
+    MicrometerMetricsFilter(MeterRegistry registry, String metricName, DistributionStatisticConfig distributionStatisticConfig, Function<String, String> resolveRoute, int maxRoutes) {
         this.registry = registry;
+        this.clock = registry.config().clock();
         this.metricName = metricName;
         this.resolveRoute = resolveRoute;
+        this.maxRoutes = maxRoutes;
+        this.maxResolvedPaths = maxRoutes * 4;
+        this.otherRoute = new RouteTimers(OTHER_ROUTE);
 
+        configureDistribution(registry, metricName, distributionStatisticConfig);
+    }
+
+    static void configureDistribution(MeterRegistry registry, String metricName, DistributionStatisticConfig distributionStatisticConfig) {
         registry.config().meterFilter(new MeterFilter() {
             @Override
             public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
@@ -57,38 +94,106 @@ public class MicrometerMetricsFilter implements Filter.SimpleFilter<CoapRequest,
         });
     }
 
+    static String throwableName(Throwable err) {
+        String name = err.getClass().getCanonicalName();
+        return name != null ? name : err.getClass().getName();
+    }
+
     @Override
     public CompletableFuture<CoapResponse> apply(CoapRequest req, Service<CoapRequest, CoapResponse> service) {
-        Timer.Sample timer = Timer.start();
+        long startTime = clock.monotonicTime();
 
-        return service.apply(req).whenComplete((resp, err) -> {
-            Timer metric = registry.timer(metricName, requestTags(req, resp, err));
-            timer.stop(metric);
-        });
+        return service.apply(req).whenComplete((resp, err) ->
+                timer(req, resp, err).record(clock.monotonicTime() - startTime, NANOSECONDS)
+        );
     }
 
-    private List<Tag> requestTags(CoapRequest req, CoapResponse resp, Throwable err) {
-        return Arrays.asList(
-                Tag.of("method", req.getMethod().name()),
-                Tag.of("status", resp != null ? resp.getCode().codeToString() : "n/a"),
-                Tag.of("route", getRoute(req)),
-                Tag.of("throwable", err != null ? err.getClass().getCanonicalName() : "n/a")
-        );
+    private Timer timer(CoapRequest req, CoapResponse resp, Throwable err) {
+        RouteTimers routeTimers = getRoute(req);
+        if (err != null) {
+            return routeTimers.failure(req.getMethod(), err);
+        }
+        return routeTimers.success(req.getMethod(), resp != null ? resp.getCode() : null);
     }
 
-    private String getRoute(CoapRequest req) {
+    private RouteTimers getRoute(CoapRequest req) {
         String uriPath = req.options().getUriPath();
         uriPath = uriPath != null ? uriPath : "/";
 
-        return resolveRoute.apply(uriPath);
+        RouteTimers routeTimers = resolvedPaths.get(uriPath);
+        if (routeTimers == null) {
+            routeTimers = boundedRoute(resolveRoute.apply(uriPath));
+            if (resolvedPaths.size() < maxResolvedPaths) {
+                resolvedPaths.putIfAbsent(uriPath, routeTimers);
+            }
+        }
+        return routeTimers;
+    }
+
+    private RouteTimers boundedRoute(String route) {
+        RouteTimers routeTimers = routes.get(route);
+        if (routeTimers != null) {
+            return routeTimers;
+        }
+        if (routes.size() >= maxRoutes) {
+            return otherRoute;
+        }
+        return routes.computeIfAbsent(route, RouteTimers::new);
+    }
+
+    int routes() {
+        return routes.size();
+    }
+
+    private final class RouteTimers {
+        private final String route;
+        // index: method * (CODES + 1) + code, last code slot is for missing response
+        private final AtomicReferenceArray<Timer> successTimers = new AtomicReferenceArray<>(METHODS * (CODES + 1));
+        private final ConcurrentHashMap<Class<?>, AtomicReferenceArray<Timer>> failureTimers = new ConcurrentHashMap<>();
+
+        RouteTimers(String route) {
+            this.route = route;
+        }
+
+        Timer success(Method method, Code code) {
+            int index = method.ordinal() * (CODES + 1) + (code != null ? code.ordinal() : CODES);
+            Timer timer = successTimers.get(index);
+            if (timer == null) {
+                timer = register(method, code != null ? code.codeToString() : NOT_AVAILABLE, NOT_AVAILABLE);
+                successTimers.lazySet(index, timer);
+            }
+            return timer;
+        }
+
+        Timer failure(Method method, Throwable err) {
+            AtomicReferenceArray<Timer> timers = failureTimers.computeIfAbsent(err.getClass(), __ -> new AtomicReferenceArray<>(METHODS));
+            Timer timer = timers.get(method.ordinal());
+            if (timer == null) {
+                timer = register(method, NOT_AVAILABLE, throwableName(err));
+                timers.lazySet(method.ordinal(), timer);
+            }
+            return timer;
+        }
+
+        private Timer register(Method method, String status, String throwable) {
+            // registry returns the same instance for the same id, so a racing registration is harmless
+            return Timer.builder(metricName)
+                    .tag("method", method.name())
+                    .tag("status", status)
+                    .tag("route", route)
+                    .tag("throwable", throwable)
+                    .register(registry);
+        }
     }
 
     public static class MicrometerMetricsFilterBuilder {
         public String DEFAULT_METRIC_NAME = "coap.server.requests";
+        public static final int DEFAULT_MAX_ROUTES = 1000;
         private MeterRegistry registry;
         private String metricName;
         private DistributionStatisticConfig distributionStatisticConfig;
         private Function<String, String> resolveRoute = Function.identity();
+        private int maxRoutes = DEFAULT_MAX_ROUTES;
 
         MicrometerMetricsFilterBuilder() {
         }
@@ -113,6 +218,12 @@ public class MicrometerMetricsFilter implements Filter.SimpleFilter<CoapRequest,
             return this;
         }
 
+        public MicrometerMetricsFilterBuilder maxRoutes(int maxRoutes) {
+            require(maxRoutes > 0, "maxRoutes must be positive");
+            this.maxRoutes = maxRoutes;
+            return this;
+        }
+
         public MicrometerMetricsFilter build() {
             if (this.registry == null) {
                 this.registry = new LoggingMeterRegistry();
@@ -126,7 +237,7 @@ public class MicrometerMetricsFilter implements Filter.SimpleFilter<CoapRequest,
                 this.distributionStatisticConfig = DistributionStatisticConfig.builder().percentiles(0.5, 0.9, 0.95, 0.99).build();
             }
 
-            return new MicrometerMetricsFilter(this.registry, this.metricName, this.distributionStatisticConfig, resolveRoute);
+            return new MicrometerMetricsFilter(this.registry, this.metricName, this.distributionStatisticConfig, resolveRoute, maxRoutes);
         }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.metrics.micrometer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.opencoap.coap.metrics.micrometer.MicrometerMetricsFilter.NOT_AVAILABLE;
+import static org.opencoap.coap.metrics.micrometer.MicrometerMetricsFilter.configureDistribution;
+import static org.opencoap.coap.metrics.micrometer.MicrometerMetricsFilter.throwableName;
+import com.mbed.coap.packet.Code;
+import com.mbed.coap.packet.SeparateResponse;
+import com.mbed.coap.utils.Filter;
+import com.mbed.coap.utils.Service;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Measures delivery time of observation notifications, from sending until acknowledgement (or until it is written
+ * to transport for non-confirmable notifications). Timer is tagged by status, delivered flag and throwable.
+ * <p>
+ * Usage: <code>CoapServer.builder().notificationFilter(MicrometerNotificationMetricsFilter.builder().registry(registry).build())</code>
+ */
+public class MicrometerNotificationMetricsFilter implements Filter.SimpleFilter<SeparateResponse, Boolean> {
+    public static final String DEFAULT_METRIC_NAME = "coap.server.notifications";
+    private static final int CODES = Code.values().length;
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final String metricName;
+    // index: code * 2 + (delivered ? 1 : 0)
+    private final AtomicReferenceArray<Timer> deliveryTimers = new AtomicReferenceArray<>(CODES * 2);
+    private final ConcurrentHashMap<Class<?>, Timer> failureTimers = new ConcurrentHashMap<>();
+
+    public static MicrometerNotificationMetricsFilterBuilder builder() {
+        return new MicrometerNotificationMetricsFilterBuilder();
+    }
+
+    MicrometerNotificationMetricsFilter(MeterRegistry registry, String metricName, DistributionStatisticConfig distributionStatisticConfig) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        this.metricName = metricName;
+
+        configureDistribution(registry, metricName, distributionStatisticConfig);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> apply(SeparateResponse notification, Service<SeparateResponse, Boolean> service) {
+        long startTime = clock.monotonicTime();
+
+        return service.apply(notification).whenComplete((delivered, err) ->
+                timer(notification.getCode(), delivered, err).record(clock.monotonicTime() - startTime, NANOSECONDS)
+        );
+    }
+
+    private Timer timer(Code code, Boolean delivered, Throwable err) {
+        if (err != null) {
+            return failureTimers.computeIfAbsent(err.getClass(), __ -> register(NOT_AVAILABLE, NOT_AVAILABLE, throwableName(err)));
+        }
+
+        boolean isDelivered = Boolean.TRUE.equals(delivered);
+        int index = code.ordinal() * 2 + (isDelivered ? 1 : 0);
+        Timer timer = deliveryTimers.get(index);
+        if (timer == null) {
+            timer = register(code.codeToString(), Boolean.toString(isDelivered), NOT_AVAILABLE);
+            deliveryTimers.lazySet(index, timer);
+        }
+        return timer;
+    }
+
+    private Timer register(String status, String delivered, String throwable) {
+        return Timer.builder(metricName)
+                .tag("status", status)
+                .tag("delivered", delivered)
+                .tag("throwable", throwable)
+                .register(registry);
+    }
+
+    public static class MicrometerNotificationMetricsFilterBuilder {
+        private MeterRegistry registry;
+        private String metricName = DEFAULT_METRIC_NAME;
+        private DistributionStatisticConfig distributionStatisticConfig;
+
+        MicrometerNotificationMetricsFilterBuilder() {
+        }
+
+        public MicrometerNotificationMetricsFilterBuilder registry(MeterRegistry registry) {
+            this.registry = registry;
+            return this;
+        }
+
+        public MicrometerNotificationMetricsFilterBuilder metricName(String metricName) {
+            this.metricName = metricName;
+            return this;
+        }
+
+        public MicrometerNotificationMetricsFilterBuilder distributionStatisticConfig(DistributionStatisticConfig distributionStatisticConfig) {
+            this.distributionStatisticConfig = distributionStatisticConfig;
+            return this;
+        }
+
+        public MicrometerNotificationMetricsFilter build() {
+            if (this.registry == null) {
+                this.registry = new LoggingMeterRegistry();
+            }
+
+            if (this.distributionStatisticConfig == null) {
+                this.distributionStatisticConfig = DistributionStatisticConfig.builder().percentiles(0.5, 0.9, 0.95, 0.99).build();
+            }
+
+            return new MicrometerNotificationMetricsFilter(this.registry, this.metricName, this.distributionStatisticConfig);
+        }
+    }
+}
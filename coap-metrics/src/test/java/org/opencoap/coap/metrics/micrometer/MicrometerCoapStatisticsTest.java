@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.metrics.micrometer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import com.mbed.coap.server.CoapStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MicrometerCoapStatisticsTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerCoapStatistics statistics = new MicrometerCoapStatistics(registry);
+
+    @Test
+    void shouldCountPackets() {
+        statistics.packetReceived();
+        statistics.packetReceived();
+        statistics.packetSent();
+        statistics.parseFailure();
+
+        assertEquals(2, registry.get("coap.server.packets").tag("direction", "in").counter().count());
+        assertEquals(1, registry.get("coap.server.packets").tag("direction", "out").counter().count());
+        assertEquals(1, registry.get("coap.server.parse.failures").counter().count());
+    }
+
+    @Test
+    void shouldCountRetransmissionsPerAttempt() {
+        statistics.retransmission(2);
+        statistics.retransmission(3);
+        statistics.retransmission(3);
+        statistics.retransmission(20);
+        statistics.timeout();
+
+        assertEquals(1, registry.get("coap.server.retransmissions").tag("attempt", "2").counter().count());
+        assertEquals(2, registry.get("coap.server.retransmissions").tag("attempt", "3").counter().count());
+        assertEquals(1, registry.get("coap.server.retransmissions").tag("attempt", "8+").counter().count());
+        assertEquals(1, registry.get("coap.server.timeouts").counter().count());
+    }
+
+    @Test
+    void shouldCountAbandonedBlockTransfers() {
+        statistics.blockTransferAbandoned();
+
+        assertEquals(1, registry.get("coap.server.block.transfers.abandoned").counter().count());
+    }
+
+    @Test
+    void shouldCountDeadConnections() {
+        statistics.deadConnection();
+        statistics.deadConnection();
+
+        assertEquals(2, registry.get("coap.server.connections.dead").counter().count());
+    }
+
+    @Test
+    void shouldRegisterGauge() {
+        AtomicInteger exchanges = new AtomicInteger(3);
+
+        statistics.gauge(CoapStatistics.GAUGE_EXCHANGES, exchanges::get);
+
+        assertEquals(3, registry.get("coap.server.exchanges").gauge().value());
+        exchanges.set(5);
+        assertEquals(5, registry.get("coap.server.exchanges").gauge().value());
+    }
+}
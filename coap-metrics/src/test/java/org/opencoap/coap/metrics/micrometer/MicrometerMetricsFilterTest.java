@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,11 +23,13 @@ import static com.mbed.coap.utils.FutureHelpers.failedFuture;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
 import com.mbed.coap.utils.Service;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.concurrent.ExecutionException;
@@ -133,4 +135,50 @@ class MicrometerMetricsFilterTest {
                 .timer().count()
         );
     }
+
+    @Test
+    public void shouldReuseRegisteredTimer() {
+        okService.apply(get("/test/1")).join();
+        Timer timer = registry.find("coap.server.requests").tag("route", "/test/1").timer();
+
+        okService.apply(get("/test/1")).join();
+        okService.apply(get("/test/1")).join();
+
+        assertSame(timer, registry.find("coap.server.requests").tag("route", "/test/1").timer());
+        assertEquals(3, timer.count());
+    }
+
+    @Test
+    public void shouldBoundNumberOfRoutes() {
+        MicrometerMetricsFilter boundedFilter = MicrometerMetricsFilter.builder().registry(registry).maxRoutes(2).build();
+        Service<CoapRequest.Builder, CoapResponse> svc = REQUEST_BUILDER_FILTER.andThen(boundedFilter).then(__ -> ok("OK").toFuture());
+
+        svc.apply(get("/a")).join();
+        svc.apply(get("/b")).join();
+        svc.apply(get("/c")).join();
+        svc.apply(get("/d")).join();
+        svc.apply(get("/a")).join();
+
+        assertEquals(2, boundedFilter.routes());
+        assertEquals(2, registry.find("coap.server.requests").tag("route", "/a").timer().count());
+        assertEquals(1, registry.find("coap.server.requests").tag("route", "/b").timer().count());
+        assertEquals(2, registry.find("coap.server.requests").tag("route", MicrometerMetricsFilter.OTHER_ROUTE).timer().count());
+
+        assertThrows(IllegalArgumentException.class, () -> MicrometerMetricsFilter.builder().maxRoutes(0));
+    }
+
+    @Test
+    public void shouldRegisterOutboundTimerMetric() {
+        MicrometerMetricsFilter outboundFilter = MicrometerMetricsFilter.outboundBuilder().registry(registry).build();
+        Service<CoapRequest.Builder, CoapResponse> client = REQUEST_BUILDER_FILTER.andThen(outboundFilter).then(__ -> ok("OK").toFuture());
+
+        client.apply(get("/test/1")).join();
+
+        assertNull(registry.find("coap.server.requests").timer());
+        assertEquals(1, registry.find("coap.client.requests")
+                .tag("route", "/test/1")
+                .tag("status", "205")
+                .timer().count()
+        );
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.metrics.micrometer;
+
+import static com.mbed.coap.packet.CoapResponse.ok;
+import static com.mbed.coap.utils.FutureHelpers.failedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.packet.SeparateResponse;
+import com.mbed.coap.utils.Service;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class MicrometerNotificationMetricsFilterTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerNotificationMetricsFilter filter = MicrometerNotificationMetricsFilter.builder().registry(registry).build();
+    private final SeparateResponse notification = ok("21C").toSeparate(Opaque.ofBytes(1, 2), new InetSocketAddress("localhost", 5683));
+
+    @Test
+    public void shouldRegisterDeliveryTimer() {
+        Service<SeparateResponse, Boolean> delivered = filter.then(__ -> CompletableFuture.completedFuture(true));
+        Service<SeparateResponse, Boolean> notDelivered = filter.then(__ -> CompletableFuture.completedFuture(false));
+
+        assertTrue(delivered.apply(notification).join());
+        delivered.apply(notification).join();
+        notDelivered.apply(notification).join();
+
+        assertEquals(2, registry.find("coap.server.notifications")
+                .tag("status", "205")
+                .tag("delivered", "true")
+                .tag("throwable", "n/a")
+                .timer().count()
+        );
+        assertEquals(1, registry.find("coap.server.notifications")
+                .tag("status", "205")
+                .tag("delivered", "false")
+                .timer().count()
+        );
+    }
+
+    @Test
+    public void shouldRegisterFailureTimer() {
+        Service<SeparateResponse, Boolean> failing = filter.then(__ -> failedFuture(new Exception("timeout")));
+
+        assertThrows(Exception.class, () -> failing.apply(notification).join());
+
+        assertEquals(1, registry.find("coap.server.notifications")
+                .tag("status", "n/a")
+                .tag("throwable", "java.lang.Exception")
+                .timer().count()
+        );
+    }
+}
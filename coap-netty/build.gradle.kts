@@ -7,6 +7,7 @@ description = "coap-netty"
 
 dependencies {
     api(project(":coap-core"))
+    api(project(":coap-tcp"))
     api("io.netty:netty-handler:4.2.15.Final")
 
     testImplementation("org.junit.jupiter:junit-jupiter-api:6.1.1")
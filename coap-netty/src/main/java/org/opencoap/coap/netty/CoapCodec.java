@@ -16,12 +16,11 @@
 package org.opencoap.coap.netty;
 
 import static java.util.Objects.requireNonNull;
+import com.mbed.coap.exception.CoapException;
 import com.mbed.coap.packet.CoapPacket;
 import com.mbed.coap.packet.CoapSerializer;
 import com.mbed.coap.transport.TransportContext;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.DatagramPacket;
@@ -35,11 +34,19 @@ public final class CoapCodec extends MessageToMessageCodec<DatagramPacket, CoapP
 
     private final Function<DatagramPacket, TransportContext> contextResolver;
     private final BiFunction<CoapPacket, ChannelHandlerContext, DatagramPacket> coapToDatagramConverter;
+    private final Runnable parseFailureListener;
 
     public static final Function<DatagramPacket, TransportContext> EMPTY_RESOLVER = __ -> TransportContext.EMPTY;
     public static final BiFunction<CoapPacket, ChannelHandlerContext, DatagramPacket> DEFAULT_CONVERTER = (coapPacket, ctx) -> {
-        ByteBuf buf = ctx.alloc().buffer(coapPacket.getPayload().size() + 128);
-        CoapSerializer.serialize(coapPacket, new ByteBufOutputStream(buf));
+        int size = CoapSerializer.serializedSize(coapPacket);
+        ByteBuf buf = ctx.alloc().buffer(size, size);
+        try {
+            CoapSerializer.serialize(coapPacket, buf.internalNioBuffer(0, size));
+        } catch (RuntimeException ex) {
+            buf.release();
+            throw ex;
+        }
+        buf.writerIndex(size);
         return new DatagramPacket(buf, coapPacket.getRemoteAddress());
     };
 
@@ -48,13 +55,29 @@ public final class CoapCodec extends MessageToMessageCodec<DatagramPacket, CoapP
     }
 
     public CoapCodec(Function<DatagramPacket, TransportContext> contextResolver, BiFunction<CoapPacket, ChannelHandlerContext, DatagramPacket> coapToDatagramConverter) {
+        this(contextResolver, coapToDatagramConverter, () -> {
+        });
+    }
+
+    /**
+     * @param parseFailureListener called for every received datagram that could not be parsed
+     */
+    public CoapCodec(Function<DatagramPacket, TransportContext> contextResolver, BiFunction<CoapPacket, ChannelHandlerContext, DatagramPacket> coapToDatagramConverter,
+            Runnable parseFailureListener) {
         this.contextResolver = requireNonNull(contextResolver);
         this.coapToDatagramConverter = requireNonNull(coapToDatagramConverter);
+        this.parseFailureListener = requireNonNull(parseFailureListener);
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, DatagramPacket msg, List<Object> out) throws Exception {
-        CoapPacket coap = CoapSerializer.deserialize(msg.sender(), new ByteBufInputStream(msg.content()));
+        CoapPacket coap;
+        try {
+            coap = CoapSerializer.deserialize(msg.sender(), msg.content().nioBuffer());
+        } catch (CoapException e) {
+            parseFailureListener.run();
+            throw e;
+        }
         coap.setTransportContext(contextResolver.apply(msg));
 
         out.add(coap);
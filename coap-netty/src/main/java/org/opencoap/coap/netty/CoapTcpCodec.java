@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static java.util.Objects.requireNonNull;
+import com.mbed.coap.exception.CoapException;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.CoapTcpFrameDecoder;
+import com.mbed.coap.packet.CoapTcpPacketSerializer;
+import com.mbed.coap.transport.TransportContext;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageCodec;
+import io.netty.handler.codec.TooLongFrameException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Codec for CoAP over TCP (RFC 8323) frames, with length taken from message header. Stateful, one instance per connection.
+ */
+public final class CoapTcpCodec extends ByteToMessageCodec<CoapPacket> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoapTcpCodec.class);
+
+    private final CoapTcpFrameDecoder frameDecoder;
+    private final Function<Channel, TransportContext> contextResolver;
+    private final Runnable parseFailureListener;
+
+    public CoapTcpCodec(int maxFrameSize, Function<Channel, TransportContext> contextResolver) {
+        this(maxFrameSize, contextResolver, () -> {
+        });
+    }
+
+    /**
+     * @param parseFailureListener called for every received frame that is too long or could not be parsed
+     */
+    public CoapTcpCodec(int maxFrameSize, Function<Channel, TransportContext> contextResolver, Runnable parseFailureListener) {
+        this.frameDecoder = new CoapTcpFrameDecoder(maxFrameSize);
+        this.contextResolver = contextResolver;
+        this.parseFailureListener = requireNonNull(parseFailureListener);
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        // view on cumulated bytes, decoder consumes it only when whole frame is available
+        ByteBuffer buffer = in.nioBuffer(in.readerIndex(), in.readableBytes());
+        int start = buffer.position();
+        try {
+            CoapPacket coap = frameDecoder.decode((InetSocketAddress) ctx.channel().remoteAddress(), buffer);
+            in.skipBytes(buffer.position() - start);
+            if (coap != null) {
+                coap.setTransportContext(contextResolver.apply(ctx.channel()));
+                out.add(coap);
+            }
+        } catch (CoapException e) {
+            parseFailureListener.run();
+            in.skipBytes(in.readableBytes());
+            if (buffer.position() == start) {
+                // too long frame is rejected from its header, before it is consumed
+                throw new TooLongFrameException(e.getMessage());
+            }
+            // frame boundaries are known, but its content is malformed
+            LOGGER.warn("[{}] Closing connection, due to parsing error: {}", ctx.channel().remoteAddress(), e.toString());
+            ctx.close();
+        }
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, CoapPacket msg, ByteBuf out) throws Exception {
+        CoapTcpPacketSerializer.writeTo(new ByteBufOutputStream(out), msg);
+    }
+}
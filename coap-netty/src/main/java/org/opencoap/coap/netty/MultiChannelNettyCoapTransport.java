@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static com.mbed.coap.utils.Validations.require;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.transport.CoapTransport;
+import com.mbed.coap.transport.TransportContext;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.socket.DatagramPacket;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Datagram transport that binds multiple netty channels to the same local address (SO_REUSEPORT) and exposes them
+ * as a single transport.
+ * <p>
+ * Unlike {@link com.mbed.coap.server.CoapServerBuilder#buildGroup(int)}, that creates independent servers, a single
+ * {@link com.mbed.coap.server.CoapServer} is built on top of this transport, so it has one correlation layer
+ * (exchanges, duplicate detection, observations) for all channels. A response can be received by any channel,
+ * no matter which one has sent the request. Every channel is registered to event loop from bootstrap's group, so
+ * with multiple event loops, traffic is handled by multiple threads.
+ * <p>
+ * Outgoing packets are sharded by peer address, all packets for the same peer are sent through the same channel.
+ * Incoming packets from all channels are pushed to {@link #receiveAll(Consumer)} consumer, or queued for
+ * {@link #receive()}.
+ */
+public final class MultiChannelNettyCoapTransport implements CoapTransport {
+
+    private final NettyCoapTransport[] transports;
+    private final ReceiveQueue receiveQueue = new ReceiveQueue();
+    private CompletableFuture<Void> closed;
+
+    public MultiChannelNettyCoapTransport(Bootstrap bootstrap, Function<DatagramPacket, TransportContext> contextResolver, int channels) {
+        this(bootstrap, contextResolver, CoapCodec.DEFAULT_CONVERTER, channels);
+    }
+
+    public MultiChannelNettyCoapTransport(Bootstrap bootstrap, Function<DatagramPacket, TransportContext> contextResolver,
+            BiFunction<CoapPacket, ChannelHandlerContext, DatagramPacket> coapToDatagramConverter, int channels) {
+        require(channels > 0, "Number of channels must be positive");
+        requireNonNull(bootstrap);
+        this.transports = new NettyCoapTransport[channels];
+        for (int i = 0; i < channels; i++) {
+            transports[i] = new NettyCoapTransport(bootstrap, contextResolver, coapToDatagramConverter);
+        }
+    }
+
+    /**
+     * Binds all channels. When it is not possible to bind all channels to the same local address (for example
+     * SO_REUSEPORT is not enabled), transport is stopped and IllegalStateException is thrown.
+     */
+    @Override
+    public void start() {
+        int started = 0;
+        boolean success = false;
+        try {
+            for (NettyCoapTransport transport : transports) {
+                transport.start();
+                started++;
+                if (!transport.getLocalSocketAddress().equals(transports[0].getLocalSocketAddress())) {
+                    throw new IllegalStateException("All channels must bind to the same address, is SO_REUSEPORT enabled?");
+                }
+            }
+            CompletableFuture<?>[] channelsClosed = Arrays.stream(transports)
+                    .map(transport -> transport.receiveAll(receiveQueue::received))
+                    .toArray(CompletableFuture[]::new);
+            closed = CompletableFuture.allOf(channelsClosed);
+            closed.thenRun(receiveQueue::close);
+            success = true;
+        } finally {
+            // netty may rethrow checked exceptions from bind
+            if (!success) {
+                for (int i = 0; i < started; i++) {
+                    transports[i].stop();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        for (NettyCoapTransport transport : transports) {
+            transport.stop();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendPacket(CoapPacket packet) {
+        return transports[shard(packet.getRemoteAddress())].sendPacket(packet);
+    }
+
+    private int shard(InetSocketAddress peerAddress) {
+        if (transports.length == 1) {
+            return 0;
+        }
+        return Math.floorMod(peerAddress.hashCode(), transports.length);
+    }
+
+    @Override
+    public CompletableFuture<CoapPacket> receive() {
+        return receiveQueue.receive();
+    }
+
+    /**
+     * Consumer is called concurrently from event loops of all channels.
+     *
+     * @return future that completes when all channels are closed
+     */
+    @Override
+    public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        receiveQueue.setConsumer(consumer);
+        return closed;
+    }
+
+    @Override
+    public InetSocketAddress getLocalSocketAddress() {
+        return transports[0].getLocalSocketAddress();
+    }
+
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        for (NettyCoapTransport transport : transports) {
+            transport.setParseFailureListener(parseFailureListener);
+        }
+    }
+
+    public List<Channel> getChannels() {
+        return Arrays.stream(transports).map(NettyCoapTransport::getChannel).collect(toList());
+    }
+}
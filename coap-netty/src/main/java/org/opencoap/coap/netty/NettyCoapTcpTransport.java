@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static com.mbed.coap.utils.FutureHelpers.failedFuture;
+import static com.mbed.coap.utils.Validations.require;
+import static java.util.Objects.requireNonNull;
+import static org.opencoap.coap.netty.NettyUtils.toCompletableFuture;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.transport.CoapTcpListener;
+import com.mbed.coap.transport.CoapTcpTransport;
+import com.mbed.coap.transport.TransportContext;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server side CoAP over TCP or TLS (RFC 8323) transport, handling many connections on netty event loops.
+ * Event loop groups and channel type (for example epoll) are configured by given {@link ServerBootstrap}.
+ * <p>
+ * Outgoing packets are routed to connection by remote address. Flushes are coalesced per connection,
+ * and connections without any traffic for <i>idleTimeout</i> are closed.
+ */
+public final class NettyCoapTcpTransport implements CoapTcpTransport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyCoapTcpTransport.class);
+    private static final CoapTcpListener NO_LISTENER = new CoapTcpListener() {
+        @Override
+        public void onDisconnected(InetSocketAddress remoteAddress) {
+        }
+
+        @Override
+        public void onConnected(InetSocketAddress remoteAddress) {
+        }
+    };
+
+    private final ServerBootstrap bootstrap;
+    private final SslContext sslContext;
+    private final Duration idleTimeout;
+    private final int maxFrameSize;
+    private final int explicitFlushAfterFlushes;
+    private final Function<Channel, TransportContext> contextResolver;
+    private final Map<InetSocketAddress, Channel> connections = new ConcurrentHashMap<>();
+    private final ConnectionHandler connectionHandler = new ConnectionHandler();
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+    private final ReceiveQueue receiveQueue = new ReceiveQueue();
+    private volatile CoapTcpListener listener = NO_LISTENER;
+    private volatile Runnable parseFailureListener = () -> {
+    };
+    private Channel serverChannel;
+
+    public static Builder builder(ServerBootstrap bootstrap) {
+        return new Builder(bootstrap);
+    }
+
+    private NettyCoapTcpTransport(Builder builder) {
+        this.bootstrap = builder.bootstrap;
+        this.sslContext = builder.sslContext;
+        this.idleTimeout = builder.idleTimeout;
+        this.maxFrameSize = builder.maxFrameSize;
+        this.explicitFlushAfterFlushes = builder.explicitFlushAfterFlushes;
+        this.contextResolver = builder.contextResolver;
+        closed.thenRun(receiveQueue::close);
+    }
+
+    @Override
+    public void start() {
+        bootstrap.childHandler(new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel channel) {
+                init(channel);
+            }
+        });
+        serverChannel = bootstrap.bind().syncUninterruptibly().channel();
+        serverChannel.closeFuture().addListener(__ -> closed.complete(null));
+    }
+
+    void init(Channel channel) {
+        ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addLast("flush-consolidation", new FlushConsolidationHandler(explicitFlushAfterFlushes, true));
+        if (sslContext != null) {
+            pipeline.addLast("ssl", sslContext.newHandler(channel.alloc()));
+        }
+        if (!idleTimeout.isZero()) {
+            pipeline.addLast("idle", new IdleStateHandler(0, 0, idleTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        pipeline
+                .addLast("coap-tcp-codec", new CoapTcpCodec(maxFrameSize, contextResolver, () -> parseFailureListener.run()))
+                .addLast("coap-connection", connectionHandler);
+    }
+
+    @Override
+    public void stop() {
+        connections.values().forEach(Channel::close);
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+        }
+        closed.complete(null);
+    }
+
+    @Override
+    public void setListener(CoapTcpListener listener) {
+        this.listener = requireNonNull(listener);
+    }
+
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        this.parseFailureListener = requireNonNull(parseFailureListener);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> sendPacket(CoapPacket packet) {
+        Channel channel = connections.get(packet.getRemoteAddress());
+        if (channel == null) {
+            return failedFuture(new IOException("No connection with: " + packet.getRemoteAddress()));
+        }
+
+        ChannelPromise channelPromise = channel.newPromise();
+        channel.writeAndFlush(packet, channelPromise);
+        return toCompletableFuture(channelPromise).thenApply(__ -> true);
+    }
+
+    @Override
+    public CompletableFuture<CoapPacket> receive() {
+        return receiveQueue.receive();
+    }
+
+    @Override
+    public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        receiveQueue.setConsumer(consumer);
+        return closed;
+    }
+
+    @Override
+    public InetSocketAddress getLocalSocketAddress() {
+        return (InetSocketAddress) serverChannel.localAddress();
+    }
+
+    @Override
+    public void closeConnection(InetSocketAddress remoteAddress) {
+        Channel channel = connections.get(remoteAddress);
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return number of open connections
+     */
+    public int connections() {
+        return connections.size();
+    }
+
+    @Sharable
+    class ConnectionHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            // channel may be already active when handler is added
+            if (ctx.channel().isActive()) {
+                connected(ctx.channel());
+            }
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            connected(ctx.channel());
+            ctx.fireChannelActive();
+        }
+
+        private void connected(Channel channel) {
+            InetSocketAddress remoteAddress = (InetSocketAddress) channel.remoteAddress();
+            if (connections.putIfAbsent(remoteAddress, channel) == null) {
+                listener.onConnected(remoteAddress);
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            InetSocketAddress remoteAddress = (InetSocketAddress) ctx.channel().remoteAddress();
+            if (remoteAddress != null && connections.remove(remoteAddress, ctx.channel())) {
+                listener.onDisconnected(remoteAddress);
+            }
+            ctx.fireChannelInactive();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            receiveQueue.received((CoapPacket) msg);
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+            if (evt instanceof IdleStateEvent) {
+                LOGGER.debug("[{}] Closing idle connection", ctx.channel().remoteAddress());
+                ctx.close();
+            } else {
+                ctx.fireUserEventTriggered(evt);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            LOGGER.warn("[{}] Closing connection: {}", ctx.channel().remoteAddress(), cause.toString());
+            ctx.close();
+        }
+    }
+
+    public static class Builder {
+        private final ServerBootstrap bootstrap;
+        private SslContext sslContext;
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private int maxFrameSize = 65_536;
+        private int explicitFlushAfterFlushes = FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES;
+        private Function<Channel, TransportContext> contextResolver = __ -> TransportContext.EMPTY;
+
+        private Builder(ServerBootstrap bootstrap) {
+            this.bootstrap = requireNonNull(bootstrap);
+        }
+
+        /**
+         * Enables TLS, with server side ssl context.
+         */
+        public Builder sslContext(SslContext sslContext) {
+            require(!sslContext.isClient(), "Server ssl context is required");
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * Sets time after which connection without any read or write is closed, zero disables it.
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            require(!idleTimeout.isNegative(), "idleTimeout must not be negative");
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Sets maximum size of incoming message, connection that sends larger message is closed.
+         */
+        public Builder maxFrameSize(int maxFrameSize) {
+            require(maxFrameSize > 0, "maxFrameSize must be positive");
+            this.maxFrameSize = maxFrameSize;
+            return this;
+        }
+
+        /**
+         * Sets number of pending flushes after which socket is flushed even while reading is in progress.
+         */
+        public Builder explicitFlushAfterFlushes(int explicitFlushAfterFlushes) {
+            require(explicitFlushAfterFlushes > 0, "explicitFlushAfterFlushes must be positive");
+            this.explicitFlushAfterFlushes = explicitFlushAfterFlushes;
+            return this;
+        }
+
+        public Builder contextResolver(Function<Channel, TransportContext> contextResolver) {
+            this.contextResolver = requireNonNull(contextResolver);
+            return this;
+        }
+
+        public NettyCoapTcpTransport build() {
+            return new NettyCoapTcpTransport(this);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import io.netty.channel.unix.UnixChannelOption;
 import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public final class NettyCoapTransport implements CoapTransport {
@@ -39,6 +40,9 @@ public final class NettyCoapTransport implements CoapTransport {
     private final Function<DatagramPacket, TransportContext> contextResolver;
     private final BiFunction<CoapPacket, ChannelHandlerContext, DatagramPacket> coapToDatagramConverter;
     private CompletableFuture<CoapPacket> receivePromise = new CompletableFuture<>();
+    private volatile Consumer<CoapPacket> receiveConsumer;
+    private volatile Runnable parseFailureListener = () -> {
+    };
 
     public NettyCoapTransport(Bootstrap bootstrap, Function<DatagramPacket, TransportContext> contextResolver) {
         this(bootstrap, contextResolver, CoapCodec.DEFAULT_CONVERTER);
@@ -75,7 +79,7 @@ public final class NettyCoapTransport implements CoapTransport {
     void init(Channel channel) {
         this.channel = channel;
         this.channel.pipeline()
-                .addLast("coap-codec", new CoapCodec(contextResolver, coapToDatagramConverter))
+                .addLast("coap-codec", new CoapCodec(contextResolver, coapToDatagramConverter, () -> parseFailureListener.run()))
                 .addLast("coap-inbound", new CoapInbound());
     }
 
@@ -99,11 +103,25 @@ public final class NettyCoapTransport implements CoapTransport {
         return receivePromise;
     }
 
+    @Override
+    public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+        receiveConsumer = requireNonNull(consumer);
+
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        channel.closeFuture().addListener(__ -> closed.complete(null));
+        return closed;
+    }
+
     @Override
     public InetSocketAddress getLocalSocketAddress() {
         return (InetSocketAddress) channel.localAddress();
     }
 
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        this.parseFailureListener = requireNonNull(parseFailureListener);
+    }
+
     public Channel getChannel() {
         return channel;
     }
@@ -112,7 +130,10 @@ public final class NettyCoapTransport implements CoapTransport {
 
         @Override
         public void channelRead(ChannelHandlerContext ctx, Object msg) {
-            if (!receivePromise.complete((CoapPacket) msg)) {
+            Consumer<CoapPacket> consumer = receiveConsumer;
+            if (consumer != null) {
+                consumer.accept((CoapPacket) msg);
+            } else if (!receivePromise.complete((CoapPacket) msg)) {
                 ctx.fireChannelRead(msg);
             }
         }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static com.mbed.coap.utils.FutureHelpers.failedFuture;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import com.mbed.coap.packet.CoapPacket;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Hands received packets over to transport's reader: pushes them to {@code receiveAll} consumer once it is set,
+ * or completes pending {@code receive} promise, queuing packets in between. Packets can be received concurrently
+ * from many event loops.
+ */
+final class ReceiveQueue {
+    private final Queue<CoapPacket> queue = new ArrayDeque<>();
+    private CompletableFuture<CoapPacket> promise;
+    private volatile Consumer<CoapPacket> consumer;
+    private boolean isClosed;
+
+    CompletableFuture<CoapPacket> receive() {
+        synchronized (queue) {
+            CoapPacket packet = queue.poll();
+            if (packet != null) {
+                return completedFuture(packet);
+            }
+            if (isClosed) {
+                return failedFuture(new IOException("Transport is closed"));
+            }
+            promise = new CompletableFuture<>();
+            return promise;
+        }
+    }
+
+    /**
+     * Passes already queued packets to consumer, and following packets are pushed to it directly.
+     */
+    void setConsumer(Consumer<CoapPacket> consumer) {
+        requireNonNull(consumer);
+        synchronized (queue) {
+            queue.forEach(consumer);
+            queue.clear();
+            // set only after queued packets are passed, under the same lock that received() queues with
+            this.consumer = consumer;
+        }
+    }
+
+    void received(CoapPacket packet) {
+        Consumer<CoapPacket> currentConsumer = consumer;
+        if (currentConsumer == null) {
+            synchronized (queue) {
+                currentConsumer = consumer;
+                if (currentConsumer == null) {
+                    if (promise == null || !promise.complete(packet)) {
+                        queue.add(packet);
+                    }
+                    return;
+                }
+            }
+        }
+        currentConsumer.accept(packet);
+    }
+
+    /**
+     * Fails pending and following receive promises, already queued packets can still be received.
+     */
+    void close() {
+        synchronized (queue) {
+            isClosed = true;
+            if (promise != null) {
+                promise.completeExceptionally(new IOException("Transport is closed"));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static com.mbed.coap.utils.Bytes.opaqueOfRandom;
+import static com.mbed.coap.utils.Networks.localhost;
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.CoapTcpPacketSerializer;
+import com.mbed.coap.transport.TransportContext;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import java.net.SocketAddress;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CoapTcpCodecTest {
+    private final EmbeddedChannel channel = new EmbeddedChannel() {
+        @Override
+        protected SocketAddress remoteAddress0() {
+            return localhost(5684);
+        }
+    };
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.close().await();
+    }
+
+    static CoapPacket tcpPacket(int payloadSize) {
+        CoapPacket coap = newCoapPacket(localhost(5684)).token(1234).post().uriPath("/test").payload(opaqueOfRandom(payloadSize)).build();
+        coap.setMessageType(null);
+        return coap;
+    }
+
+    static byte[] serialize(CoapPacket coap) throws Exception {
+        return CoapTcpPacketSerializer.serialize(coap);
+    }
+
+    @Test
+    void shouldDecodeFramesSplitAndCoalesced() throws Exception {
+        channel.pipeline().addLast(new CoapTcpCodec(100_000, __ -> TransportContext.EMPTY));
+        byte[] frame1 = serialize(tcpPacket(10));
+        byte[] frame2 = serialize(tcpPacket(300));
+        byte[] frame3 = serialize(tcpPacket(70_000 - 2000));
+
+        // header split
+        channel.writeInbound(wrappedBuffer(frame1, 0, 1));
+        assertNull(channel.readInbound());
+        channel.writeInbound(wrappedBuffer(frame1, 1, frame1.length - 1));
+        assertArrayEquals(frame1, serialize(channel.readInbound()));
+
+        // two frames in one read, second one split
+        channel.writeInbound(wrappedBuffer(frame2, Arrays.copyOfRange(frame3, 0, 100)));
+        assertArrayEquals(frame2, serialize(channel.readInbound()));
+        assertNull(channel.readInbound());
+        channel.writeInbound(wrappedBuffer(frame3, 100, frame3.length - 100));
+        assertArrayEquals(frame3, serialize(channel.readInbound()));
+    }
+
+    @Test
+    void shouldFailWhenFrameIsTooLong() throws Exception {
+        channel.pipeline().addLast(new CoapTcpCodec(100, __ -> TransportContext.EMPTY));
+
+        assertThrows(DecoderException.class, () -> channel.writeInbound(wrappedBuffer(serialize(tcpPacket(200)))));
+    }
+
+    @Test
+    void shouldCloseOnParsingError() {
+        channel.pipeline().addLast(new CoapTcpCodec(100, __ -> TransportContext.EMPTY));
+
+        // token length 9 is invalid
+        channel.writeInbound(wrappedBuffer(new byte[]{0x09, 0x45, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+
+        assertNull(channel.readInbound());
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void shouldEncode() throws Exception {
+        channel.pipeline().addLast(new CoapTcpCodec(100, __ -> TransportContext.EMPTY));
+        CoapPacket coap = tcpPacket(1000);
+
+        channel.writeAndFlush(coap).get();
+
+        ByteBuf encoded = channel.readOutbound();
+        assertArrayEquals(serialize(coap), ByteBufUtil.getBytes(encoded));
+        encoded.release();
+    }
+}
@@ -21,12 +21,16 @@ import static com.mbed.coap.transport.udp.DatagramSocketTransport.udp;
 import static com.mbed.coap.utils.Assertions.assertEquals;
 import static com.mbed.coap.utils.Networks.localhost;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opencoap.coap.netty.CoapCodec.EMPTY_RESOLVER;
+import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
 import com.mbed.coap.client.CoapClient;
+import com.mbed.coap.packet.CoapPacket;
 import com.mbed.coap.server.CoapServer;
 import com.mbed.coap.server.CoapServerGroup;
 import com.mbed.coap.server.RouterService;
+import com.mbed.coap.transport.udp.DatagramSocketTransport;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
@@ -39,7 +43,13 @@ import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.unix.UnixChannelOption;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.condition.EnabledOnOs;
@@ -75,6 +85,72 @@ public class MultiChannelNettyTest {
         assertFalse(coapServer.isRunning());
     }
 
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void testEpollSingleServerOnMultipleChannels() throws Exception {
+        bootstrap = createEpollBootstrap();
+        MultiChannelNettyCoapTransport transport = new MultiChannelNettyCoapTransport(bootstrap, EMPTY_RESOLVER, THREADS);
+        CoapServer coapServer = CoapServer.builder()
+                .route(RouterService.builder()
+                        .get("/test", __ -> ok("OK").toFuture())
+                )
+                .transport(transport)
+                .build()
+                .start();
+        assertTrue(transport.getChannels().size() == THREADS);
+
+        int port = coapServer.getLocalSocketAddress().getPort();
+        verifyClients(Collections.nCopies(THREADS, port));
+
+        // server acting as a client, responses are correlated no matter which channel receives them
+        CoapServer peer = CoapServer.builder()
+                .route(RouterService.builder()
+                        .get("/peer", __ -> ok("PEER").toFuture())
+                )
+                .transport(udp())
+                .build()
+                .start();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(ok("PEER"), coapServer.clientService().apply(get("/peer").address(localhost(peer.getLocalSocketAddress().getPort())).build()).get());
+        }
+
+        peer.stop();
+        coapServer.stop();
+        assertFalse(coapServer.isRunning());
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void shouldReceiveFromAllChannelsWithPullStyle() throws Exception {
+        bootstrap = createEpollBootstrap();
+        MultiChannelNettyCoapTransport transport = new MultiChannelNettyCoapTransport(bootstrap, EMPTY_RESOLVER, THREADS);
+        transport.start();
+        DatagramSocketTransport client = udp();
+        client.start();
+
+        Set<Integer> receivedMids = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            client.sendPacket(newCoapPacket(localhost(transport.getLocalSocketAddress().getPort())).mid(i).get().build()).get();
+        }
+        for (int i = 0; i < 10; i++) {
+            receivedMids.add(transport.receive().get(5, TimeUnit.SECONDS).getMessageId());
+        }
+        assertTrue(receivedMids.size() == 10);
+
+        CompletableFuture<CoapPacket> pendingReceive = transport.receive();
+        transport.stop();
+        client.stop();
+        assertThrows(ExecutionException.class, () -> pendingReceive.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failToStartMultipleChannelsWithoutReusePort() {
+        bootstrap = createNioBootstrap();
+        MultiChannelNettyCoapTransport transport = new MultiChannelNettyCoapTransport(bootstrap, EMPTY_RESOLVER, THREADS);
+
+        assertThrows(IllegalStateException.class, transport::start);
+    }
+
     private void verifyClients(List<Integer> serverPorts) throws Exception {
         // verify that all channels are working
         for (int i = 0; i < THREADS; i++) {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static com.mbed.coap.utils.Networks.localhost;
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opencoap.coap.netty.CoapTcpCodecTest.serialize;
+import static org.opencoap.coap.netty.CoapTcpCodecTest.tcpPacket;
+import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.transport.CoapTcpListener;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NettyCoapTcpTransportTest {
+    private final NettyCoapTcpTransport transport = NettyCoapTcpTransport.builder(new ServerBootstrap()).idleTimeout(Duration.ZERO).build();
+    private final List<String> events = new ArrayList<>();
+    private final EmbeddedChannel channel = new EmbeddedChannel() {
+        @Override
+        protected SocketAddress remoteAddress0() {
+            return localhost(5684);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        transport.setListener(new CoapTcpListener() {
+            @Override
+            public void onDisconnected(InetSocketAddress remoteAddress) {
+                events.add("disconnected " + remoteAddress.getPort());
+            }
+
+            @Override
+            public void onConnected(InetSocketAddress remoteAddress) {
+                events.add("connected " + remoteAddress.getPort());
+            }
+        });
+        transport.init(channel);
+    }
+
+    @Test
+    void shouldNotifyAboutConnectionAndDisconnection() {
+        assertEquals(asList("connected 5684"), events);
+        assertEquals(1, transport.connections());
+
+        channel.close();
+
+        assertEquals(asList("connected 5684", "disconnected 5684"), events);
+        assertEquals(0, transport.connections());
+    }
+
+    @Test
+    void shouldReceive() throws Exception {
+        CoapPacket coap = tcpPacket(10);
+
+        CompletableFuture<CoapPacket> receive = transport.receive();
+        channel.writeInbound(wrappedBuffer(serialize(coap)));
+
+        assertArrayEquals(serialize(coap), serialize(receive.get()));
+        assertEquals(localhost(5684), receive.get().getRemoteAddress());
+        assertFalse(transport.receive().isDone());
+    }
+
+    @Test
+    void shouldReceiveAll() throws Exception {
+        List<CoapPacket> received = new ArrayList<>();
+        CoapPacket coap1 = tcpPacket(10);
+        CoapPacket coap2 = tcpPacket(20);
+
+        CompletableFuture<Void> receiving = transport.receiveAll(received::add);
+        channel.writeInbound(wrappedBuffer(serialize(coap1), serialize(coap2)));
+
+        assertEquals(2, received.size());
+        assertArrayEquals(serialize(coap2), serialize(received.get(1)));
+        assertFalse(receiving.isDone());
+
+        transport.stop();
+        assertTrue(receiving.isDone());
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void shouldSendToConnection() throws Exception {
+        CoapPacket coap = tcpPacket(100);
+
+        CompletableFuture<Boolean> sent = transport.sendPacket(coap);
+        channel.runPendingTasks();
+
+        assertTrue(sent.get());
+        ByteBuf encoded = channel.readOutbound();
+        assertArrayEquals(serialize(coap), ByteBufUtil.getBytes(encoded));
+        encoded.release();
+    }
+
+    @Test
+    void shouldFailToSendWithoutConnection() {
+        CoapPacket coap = newCoapPacket(localhost(1_5684)).token(1).post().uriPath("/test").build();
+
+        assertThrows(ExecutionException.class, () -> transport.sendPacket(coap).get());
+    }
+
+    @Test
+    void shouldFailToBuildWithInvalidArguments() {
+        NettyCoapTcpTransport.Builder builder = NettyCoapTcpTransport.builder(new ServerBootstrap());
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxFrameSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.idleTimeout(Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.explicitFlushAfterFlushes(0));
+    }
+}
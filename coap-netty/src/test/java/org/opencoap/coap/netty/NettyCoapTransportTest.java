@@ -16,14 +16,18 @@
 package org.opencoap.coap.netty;
 
 import static com.mbed.coap.utils.Networks.localhost;
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opencoap.coap.netty.CoapCodec.EMPTY_RESOLVER;
 import static org.opencoap.coap.netty.CoapCodecTest.encodeToBuf;
 import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
 import com.mbed.coap.packet.CoapPacket;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.channel.socket.DatagramPacket;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.Test;
@@ -48,4 +52,26 @@ public class NettyCoapTransportTest {
         assertFalse(transport.receive().isDone());
     }
 
+    @Test
+    void should_receive_all() {
+        NettyCoapTransport transport = new NettyCoapTransport(null, EMPTY_RESOLVER);
+        transport.init(channel);
+        List<CoapPacket> received = new ArrayList<>();
+
+        // when
+        CompletableFuture<Void> receiving = transport.receiveAll(received::add);
+        CoapPacket coap1 = newCoapPacket(123).get().uriPath("/test").build();
+        CoapPacket coap2 = newCoapPacket(124).get().uriPath("/test").build();
+        channel.writeInbound(new DatagramPacket(encodeToBuf(coap1), localhost(5684)));
+        channel.writeInbound(new DatagramPacket(encodeToBuf(coap2), localhost(5684)));
+
+        // then
+        assertEquals(asList(coap1, coap2), received);
+        assertFalse(receiving.isDone());
+
+        // and
+        channel.close();
+        assertTrue(receiving.isDone());
+    }
+
 }
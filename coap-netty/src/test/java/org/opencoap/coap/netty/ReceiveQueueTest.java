@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opencoap.coap.netty;
+
+import static com.mbed.coap.utils.Networks.localhost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.mbed.coap.packet.CoapPacket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ReceiveQueueTest {
+    private final ReceiveQueue receiveQueue = new ReceiveQueue();
+    private final CoapPacket packet1 = new CoapPacket(localhost(5683));
+    private final CoapPacket packet2 = new CoapPacket(localhost(5684));
+
+    @Test
+    void shouldCompletePendingReceiveOrQueue() throws Exception {
+        CompletableFuture<CoapPacket> receive = receiveQueue.receive();
+        assertFalse(receive.isDone());
+
+        receiveQueue.received(packet1);
+        receiveQueue.received(packet2);
+
+        assertSame(packet1, receive.get());
+        assertSame(packet2, receiveQueue.receive().get());
+    }
+
+    @Test
+    void shouldPassQueuedPacketsToConsumer() {
+        List<CoapPacket> consumed = new CopyOnWriteArrayList<>();
+        receiveQueue.received(packet1);
+
+        receiveQueue.setConsumer(consumed::add);
+        receiveQueue.received(packet2);
+
+        assertEquals(2, consumed.size());
+        assertSame(packet1, consumed.get(0));
+        assertSame(packet2, consumed.get(1));
+    }
+
+    @Test
+    void shouldNotLosePacketsReceivedConcurrentlyWithSettingConsumer() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            ReceiveQueue receiveQueue = new ReceiveQueue();
+            List<CoapPacket> consumed = new CopyOnWriteArrayList<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread receiver = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 1000; i++) {
+                    receiveQueue.received(packet1);
+                }
+            });
+            receiver.start();
+            started.await();
+
+            receiveQueue.setConsumer(consumed::add);
+            receiver.join(TimeUnit.SECONDS.toMillis(5));
+
+            assertEquals(1000, consumed.size());
+        }
+    }
+
+    @Test
+    void shouldFailReceiveWhenClosed() {
+        CompletableFuture<CoapPacket> receive = receiveQueue.receive();
+
+        receiveQueue.close();
+
+        assertTrue(receive.isCompletedExceptionally());
+        assertThrows(ExecutionException.class, () -> receiveQueue.receive().get());
+    }
+}
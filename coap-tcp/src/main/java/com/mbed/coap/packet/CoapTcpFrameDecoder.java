@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.packet;
+
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.exception.CoapException;
+import com.mbed.coap.exception.CoapMessageFormatException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * Resumable, non-blocking decoder for CoAP over TCP frames (RFC 8323).
+ * <p>
+ * Only frame header (Len, TKL and Extended Length) is read to determine frame size. Frame is parsed once, when
+ * it is fully buffered. Length of a partially received frame is remembered, so that header is not parsed again
+ * on every read. Instance keeps state of a single connection and is not thread safe.
+ */
+public final class CoapTcpFrameDecoder {
+    private final int maxFrameSize;
+    private long pendingFrameLength = -1;
+
+    public CoapTcpFrameDecoder(int maxFrameSize) {
+        require(maxFrameSize > 0);
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * Decodes next frame from buffer (in read mode).
+     * <p>
+     * When buffer contains whole frame, frame is consumed and parsed. Otherwise, buffer's position is not changed
+     * and null is returned; caller should append more received data to buffer (for example with
+     * {@link ByteBuffer#compact()}) and call this method again.
+     *
+     * @param remoteAddress remote address
+     * @param buffer buffer with received data
+     * @return decoded packet or null if frame is not complete yet
+     * @throws CoapMessageFormatException if frame exceeds maximum size, buffer's position is not changed
+     * @throws CoapException if frame can not be parsed
+     */
+    public CoapPacket decode(InetSocketAddress remoteAddress, ByteBuffer buffer) throws CoapException {
+        if (pendingFrameLength < 0) {
+            long frameLength = CoapTcpPacketSerializer.frameLength(buffer);
+            if (frameLength < 0) {
+                return null;
+            }
+            if (frameLength > maxFrameSize) {
+                throw new CoapMessageFormatException("Frame length " + frameLength + " exceeds maximum " + maxFrameSize);
+            }
+            pendingFrameLength = frameLength;
+        }
+        if (buffer.remaining() < pendingFrameLength) {
+            return null;
+        }
+
+        // copy, so that received buffer can be reused while decoded packet holds views on frame
+        byte[] frame = new byte[(int) pendingFrameLength];
+        buffer.get(frame);
+        pendingFrameLength = -1;
+        return CoapTcpPacketSerializer.deserialize(remoteAddress, ByteBuffer.wrap(frame));
+    }
+
+    /**
+     * @return number of bytes of a partially received frame (including already buffered ones), or -1 if unknown
+     */
+    public long pendingFrameLength() {
+        return pendingFrameLength;
+    }
+
+    /**
+     * Forgets partially received frame, for example after connection is reset.
+     */
+    public void reset() {
+        pendingFrameLength = -1;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -26,6 +26,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 /**
@@ -50,6 +52,7 @@ public final class CoapTcpPacketSerializer {
     /**
      * Returns CoapPacket only if able to deserialize whole packet. Otherwise returns empty Optional.
      * Client is responsible to restore stream position if deserialization failed.
+     * For non-blocking reads prefer {@link CoapTcpFrameDecoder}, which does not re-parse partial frames.
      *
      * @param remoteAddress - remote addres from which packet is received
      * @param inputStream - stream to read data
@@ -66,6 +69,109 @@ public final class CoapTcpPacketSerializer {
         }
     }
 
+    /**
+     * Reads only frame header (Len, TKL and Extended Length) and returns length of whole frame that starts at buffer's
+     * position. Buffer's position is not changed.
+     *
+     * @param buffer buffer with received data
+     * @return frame length in bytes (header, token, options and payload), or -1 if buffer does not contain whole header yet
+     */
+    public static long frameLength(ByteBuffer buffer) {
+        int pos = buffer.position();
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int len1AndTKL = buffer.get(pos) & 0xFF;
+        int len1 = (len1AndTKL >> 4) & 0x0F;
+        int tokenLength = len1AndTKL & 0x0F;
+        int extLenSize = extendedLengthSize(len1);
+
+        if (buffer.remaining() < 1 + extLenSize) {
+            return -1;
+        }
+        long len;
+        switch (len1) {
+            case 15:
+                len = (buffer.getInt(pos + 1) & 0xFFFFFFFFL) + 65805;
+                break;
+            case 14:
+                len = (buffer.getShort(pos + 1) & 0xFFFF) + 269;
+                break;
+            case 13:
+                len = (buffer.get(pos + 1) & 0xFF) + 13;
+                break;
+            default:
+                len = len1;
+        }
+        return 1 + extLenSize + 1 + tokenLength + len;
+    }
+
+    private static int extendedLengthSize(int len1) {
+        switch (len1) {
+            case 15:
+                return 4;
+            case 14:
+                return 2;
+            case 13:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * De-serialize CoAP over TCP message from buffer that contains exactly one whole frame, see
+     * {@link #frameLength(ByteBuffer)}. Consumes all remaining bytes. When buffer is backed by an accessible array,
+     * option values and payload are views on that array, so buffer's content must not be modified afterwards.
+     *
+     * @param remoteAddress remote address
+     * @param frame buffer, positioned at the beginning of frame and limited to its end
+     * @return CoapPacket instance
+     * @throws CoapException if can not parse
+     */
+    public static CoapPacket deserialize(InetSocketAddress remoteAddress, ByteBuffer frame) throws CoapException {
+        try {
+            int len1AndTKL = PacketUtils.read8(frame);
+            int len1 = (len1AndTKL >> 4) & 0x0F;
+            int tokenLength = len1AndTKL & 0x0F;
+            int extLenSize = extendedLengthSize(len1);
+            if (frame.remaining() < extLenSize) {
+                throw new BufferUnderflowException();
+            }
+            frame.position(frame.position() + extLenSize);
+
+            int codeOrMethod = PacketUtils.read8(frame);
+            if (tokenLength > 8) {
+                throw new CoapException("Token length invalid, should be in range 0..8");
+            }
+            Opaque token = Opaque.read(frame, tokenLength);
+
+            CoapPacket pkt = new CoapPacket(remoteAddress);
+            parseAndSetCodeOrMethod(pkt, codeOrMethod);
+            pkt.setMessageType(null); //override default
+            pkt.setToken(token);
+
+            HeaderOptions options;
+            if (pkt.getCode() != null && pkt.getCode().isSignaling()) {
+                options = new SignallingHeaderOptions(pkt.getCode());
+            } else {
+                options = new HeaderOptions();
+            }
+            boolean hasPayloadMarker = options.deserialize(frame);
+            pkt.setHeaderOptions(options);
+
+            if (hasPayloadMarker) {
+                pkt.setPayload(Opaque.readView(frame, frame.remaining()));
+            }
+            return pkt;
+
+        } catch (BufferUnderflowException ex) {
+            throw new CoapException("Unexpected end of message", ex);
+        } catch (IllegalArgumentException ex) {
+            throw new CoapException(ex);
+        }
+    }
+
     private static CoapPacket deserialize0(InetSocketAddress remoteAddress, EofInputStream is) throws IOException, CoapException {
         CoapPacketParsingContext pktContext = deserializeHeader(remoteAddress, is);
         CoapPacket pkt = pktContext.getCoapPacket();
@@ -17,7 +17,6 @@
 package com.mbed.coap.packet;
 
 import static com.mbed.coap.utils.Validations.require;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -28,6 +27,7 @@ public class SignallingHeaderOptions extends HeaderOptions {
 
     private static final byte SIGN_OPTION_2 = 2;
     private static final byte SIGN_OPTION_4 = 4;
+    private static final int[] OPTION_NUMBERS = optionNumbers(HeaderOptions.OPTION_NUMBERS, SIGN_OPTION_2, SIGN_OPTION_4);
     private final Code code;
     private Opaque signallingOption2;
     private Opaque signallingOption4;
@@ -54,16 +54,24 @@ public class SignallingHeaderOptions extends HeaderOptions {
     }
 
     @Override
-    List<RawOption> getRawOptions() {
-        List<RawOption> l = super.getRawOptions();
-        if (signallingOption2 != null) {
-            l.add(new RawOption(SIGN_OPTION_2, signallingOption2));
+    protected boolean isLazilyDecodable(int type, int len) {
+        return type != SIGN_OPTION_2 && type != SIGN_OPTION_4 && super.isLazilyDecodable(type, len);
+    }
+
+    @Override
+    int[] optionNumbers() {
+        return OPTION_NUMBERS;
+    }
+
+    @Override
+    void writeOption(int optNumber, OptionsWriter writer) {
+        super.writeOption(optNumber, writer);
+        if (optNumber == SIGN_OPTION_2 && signallingOption2 != null) {
+            writer.write(SIGN_OPTION_2, signallingOption2);
         }
-        if (signallingOption4 != null) {
-            l.add(new RawOption(SIGN_OPTION_4, signallingOption4));
+        if (optNumber == SIGN_OPTION_4 && signallingOption4 != null) {
+            writer.write(SIGN_OPTION_4, signallingOption4);
         }
-
-        return l;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2025 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -16,6 +16,8 @@
  */
 package com.mbed.coap.server;
 
+import static com.mbed.coap.utils.Timer.toTimer;
+import static com.mbed.coap.utils.Validations.require;
 import static java.util.Objects.requireNonNull;
 import com.mbed.coap.client.CoapClient;
 import com.mbed.coap.packet.BlockSize;
@@ -28,6 +30,7 @@ import com.mbed.coap.packet.SeparateResponse;
 import com.mbed.coap.server.block.BlockWiseIncomingFilter;
 import com.mbed.coap.server.block.BlockWiseNotificationFilter;
 import com.mbed.coap.server.block.BlockWiseOutgoingFilter;
+import com.mbed.coap.server.block.BlockWiseStorage;
 import com.mbed.coap.server.filter.CongestionControlFilter;
 import com.mbed.coap.server.messaging.Capabilities;
 import com.mbed.coap.server.messaging.CapabilitiesStorage;
@@ -35,18 +38,31 @@ import com.mbed.coap.server.messaging.CapabilitiesStorageImpl;
 import com.mbed.coap.server.messaging.CoapTcpDispatcher;
 import com.mbed.coap.server.messaging.PayloadSizeVerifier;
 import com.mbed.coap.server.messaging.TcpExchangeFilter;
+import com.mbed.coap.server.messaging.TcpKeepAlive;
 import com.mbed.coap.server.observe.NotificationsReceiver;
 import com.mbed.coap.server.observe.ObservationsStore;
 import com.mbed.coap.transport.CoapTcpTransport;
+import com.mbed.coap.transport.CoapTransport;
 import com.mbed.coap.transport.LoggingCoapTransport;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
+import com.mbed.coap.utils.Timer;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class CoapServerBuilderForTcp {
     private CoapTcpTransport coapTransport;
@@ -54,10 +70,19 @@ public class CoapServerBuilderForTcp {
     private int maxMessageSize = 1152; //default
     private CapabilitiesStorage csmStorage;
     private int maxIncomingBlockTransferSize = 10_000_000; //default to 10 MB
+    private BlockWiseStorage blockWiseStorage = BlockWiseStorage.inMemory();
+    private Predicate<CoapRequest> streamedBlockTransfer = __ -> false;
+    private Duration blockTransferTimeout = BlockWiseIncomingFilter.DEFAULT_TRANSFER_TIMEOUT;
+    private long maxInFlightBlockTransferBytes = Long.MAX_VALUE;
+    private Timer timer;
+    private Duration keepAliveIdleTimeout;
+    private Duration keepAlivePingTimeout;
     private int maxQueueSize = 100;
+    private CoapStatistics statistics = CoapStatistics.NULL;
     private BlockSize blockSize;
     private Filter.SimpleFilter<CoapRequest, CoapResponse> outboundFilter = Filter.identity();
     private Filter.SimpleFilter<CoapRequest, CoapResponse> routeFilter = Filter.identity();
+    private Filter.SimpleFilter<SeparateResponse, Boolean> notificationFilter = Filter.identity();
     private NotificationsReceiver notificationsReceiver = NotificationsReceiver.REJECT_ALL;
     private ObservationsStore observationsStore = ObservationsStore.ALWAYS_EMPTY;
     private Boolean isTransportLoggingEnabled = true;
@@ -67,10 +92,6 @@ public class CoapServerBuilderForTcp {
         csmStorage = new CapabilitiesStorageImpl();
     }
 
-    private CapabilitiesStorage capabilities() {
-        return csmStorage;
-    }
-
     public final CoapServerBuilderForTcp blockSize(BlockSize blockSize) {
         this.blockSize = blockSize;
         return this;
@@ -110,6 +131,65 @@ public class CoapServerBuilderForTcp {
         return this;
     }
 
+    public CoapServerBuilderForTcp blockWiseStorage(BlockWiseStorage blockWiseStorage) {
+        this.blockWiseStorage = requireNonNull(blockWiseStorage);
+        return this;
+    }
+
+    /**
+     * Incoming block-wise transfers matching predicate (tested with the last block) are not combined into request
+     * payload, instead it is available with {@link BlockWiseIncomingFilter#STREAMED_PAYLOAD} transport context.
+     */
+    public CoapServerBuilderForTcp streamedBlockTransfer(Predicate<CoapRequest> streamedBlockTransfer) {
+        this.streamedBlockTransfer = requireNonNull(streamedBlockTransfer);
+        return this;
+    }
+
+    /**
+     * Sets timer for expiring incomplete incoming block-wise transfers and for keep-alive, by default tasks are
+     * scheduled on a single thread executor, that is stopped when server stops. Timer is not stopped when server stops.
+     */
+    public CoapServerBuilderForTcp timer(Timer timer) {
+        this.timer = requireNonNull(timer);
+        return this;
+    }
+
+    /**
+     * Enables keep-alive: connection that did not receive anything for <i>idleTimeout</i> is sent 7.02 (Ping), and if
+     * nothing is received within <i>pingTimeout</i> after that, connection is closed and its pending exchanges fail.
+     */
+    public CoapServerBuilderForTcp keepAlive(Duration idleTimeout, Duration pingTimeout) {
+        require(!idleTimeout.isNegative() && !idleTimeout.isZero(), "idleTimeout must be positive");
+        require(!pingTimeout.isNegative() && !pingTimeout.isZero(), "pingTimeout must be positive");
+        this.keepAliveIdleTimeout = idleTimeout;
+        this.keepAlivePingTimeout = pingTimeout;
+        return this;
+    }
+
+    /**
+     * Sets time after which incomplete incoming block-wise transfer, that did not receive any block, is dropped.
+     */
+    public CoapServerBuilderForTcp blockTransferTimeout(Duration blockTransferTimeout) {
+        require(!blockTransferTimeout.isNegative() && !blockTransferTimeout.isZero(), "blockTransferTimeout must be positive");
+        this.blockTransferTimeout = blockTransferTimeout;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of bytes held by all incomplete incoming block-wise transfers together,
+     * further blocks are rejected with 5.03 (Service Unavailable). Unlimited by default.
+     */
+    public CoapServerBuilderForTcp maxInFlightBlockTransferBytes(long maxInFlightBlockTransferBytes) {
+        require(maxInFlightBlockTransferBytes >= 0, "maxInFlightBlockTransferBytes must not be negative");
+        this.maxInFlightBlockTransferBytes = maxInFlightBlockTransferBytes;
+        return this;
+    }
+
+    public CoapServerBuilderForTcp statistics(CoapStatistics statistics) {
+        this.statistics = requireNonNull(statistics);
+        return this;
+    }
+
     public CoapServerBuilderForTcp queueMaxSize(int maxQueueSize) {
         this.maxQueueSize = maxQueueSize;
         return this;
@@ -120,6 +200,11 @@ public class CoapServerBuilderForTcp {
         return this;
     }
 
+    public CoapServerBuilderForTcp notificationFilter(Filter.SimpleFilter<SeparateResponse, Boolean> notificationFilter) {
+        this.notificationFilter = requireNonNull(notificationFilter);
+        return this;
+    }
+
     public CoapServerBuilderForTcp notificationsReceiver(NotificationsReceiver notificationsReceiver) {
         this.notificationsReceiver = requireNonNull(notificationsReceiver);
         if (observationsStore.equals(ObservationsStore.ALWAYS_EMPTY)) {
@@ -153,35 +238,110 @@ public class CoapServerBuilderForTcp {
         return CoapClient.create(target, build().start(), r -> r.getCode() == Code.C703_PONG);
     }
 
+    /**
+     * Builds client that spreads requests over a pool of connections to the target, each connection with own transport,
+     * CSM storage and exchanges. Requests are assigned to a connection by token, and fail over to other connection
+     * when assigned one is disconnected. Configured transport and CSM storage are not used. Gauges are registered once,
+     * with values summed over all connections.
+     *
+     * @param target destination address
+     * @param connections number of connections
+     * @param transportFactory creates transport for every connection
+     * @return client
+     */
+    public CoapClient buildPooledClient(InetSocketAddress target, int connections, Supplier<CoapTcpTransport> transportFactory) throws IOException {
+        require(connections > 0, "connections must be positive");
+
+        List<TcpConnectionPool.PooledConnection> pooledConnections = new ArrayList<>(connections);
+        List<CoapServer> servers = new ArrayList<>(connections);
+        Map<String, List<IntSupplier>> gauges = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                TcpConnectionPool.PooledConnection connection = new TcpConnectionPool.PooledConnection(transportFactory.get());
+                servers.add(build(connection, new CapabilitiesStorageImpl(), gauges).start());
+                pooledConnections.add(connection);
+            }
+        } catch (IOException | RuntimeException e) {
+            servers.forEach(CoapServer::stop);
+            throw e;
+        }
+        registerGauges(gauges);
+
+        TcpConnectionPool pool = new TcpConnectionPool(pooledConnections, servers);
+        return CoapClient.create(target, pool, pool::close, r -> r.getCode() == Code.C703_PONG);
+    }
+
     public CoapServer build() {
-        Service<CoapPacket, Boolean> sender = (isTransportLoggingEnabled ? LoggingCoapTransport.wrap(coapTransport) : coapTransport)::sendPacket;
+        Map<String, List<IntSupplier>> gauges = new LinkedHashMap<>();
+        CoapServer server = build(coapTransport, csmStorage, gauges);
+        registerGauges(gauges);
+        return server;
+    }
+
+    private void registerGauges(Map<String, List<IntSupplier>> gauges) {
+        gauges.forEach((name, values) -> statistics.gauge(name, values.size() == 1 ? values.get(0) : () -> {
+            int sum = 0;
+            for (IntSupplier value : values) {
+                sum += value.getAsInt();
+            }
+            return sum;
+        }));
+        // shared by all connections
+        statistics.gauge(CoapStatistics.GAUGE_OBSERVATIONS, observationsStore::size);
+    }
+
+    private static void addGauge(Map<String, List<IntSupplier>> gauges, String name, IntSupplier value) {
+        gauges.computeIfAbsent(name, __ -> new ArrayList<>()).add(value);
+    }
+
+    private CoapServer build(CoapTcpTransport coapTransport, CapabilitiesStorage csmStorage, Map<String, List<IntSupplier>> gauges) {
+        final ScheduledExecutorService timerExecutor = this.timer == null ? Executors.newSingleThreadScheduledExecutor() : null;
+        final Timer timer = timerExecutor != null ? toTimer(timerExecutor) : this.timer;
+        final CoapStatistics statistics = this.statistics;
+        coapTransport.setParseFailureListener(statistics::parseFailure);
+        CoapTransport transport = isTransportLoggingEnabled ? LoggingCoapTransport.wrap(coapTransport) : coapTransport;
+        Service<CoapPacket, Boolean> sender = packet -> {
+            statistics.packetSent();
+            return transport.sendPacket(packet);
+        };
 
         // NOTIFICATION
-        Service<SeparateResponse, Boolean> sendNotification = new NotificationValidator()
-                .andThen(new BlockWiseNotificationFilter(capabilities()))
+        Service<SeparateResponse, Boolean> sendNotification = notificationFilter
+                .andThen(new NotificationValidator())
+                .andThenMap(notification -> {
+                    statistics.notificationSent();
+                    return notification;
+                })
+                .andThen(new BlockWiseNotificationFilter(csmStorage))
                 .andThenMap(CoapTcpPacketConverter::toCoapPacket)
                 .andThen(new PayloadSizeVerifier<>(csmStorage))
                 .then(sender);
 
         // INBOUND
+        BlockWiseIncomingFilter blockWiseIncomingFilter = new BlockWiseIncomingFilter(csmStorage, maxIncomingBlockTransferSize, blockWiseStorage, streamedBlockTransfer,
+                timer, blockTransferTimeout, maxInFlightBlockTransferBytes, statistics);
         Service<CoapRequest, CoapResponse> inboundService = new RescueFilter()
                 .andThenIf(hasRoute(), new CriticalOptionVerifier(recognizedCustomOptions))
-                .andThenIf(hasRoute(), new BlockWiseIncomingFilter(capabilities(), maxIncomingBlockTransferSize))
+                .andThenIf(hasRoute(), blockWiseIncomingFilter)
                 .andThen(routeFilter)
                 .then(route);
 
         // OUTBOUND
         TcpExchangeFilter exchangeFilter = new TcpExchangeFilter();
+        CongestionControlFilter<InetSocketAddress, CoapRequest, CoapResponse> congestionControlFilter = new CongestionControlFilter<>(maxQueueSize, 1, CoapRequest::getPeerAddress, statistics);
         Service<CoapRequest, CoapResponse> outboundService = outboundFilter
                 .andThen(new ObserveRequestFilter(observationsStore::add))
-                .andThen(new CongestionControlFilter<>(maxQueueSize, CoapRequest::getPeerAddress))
-                .andThen(new BlockWiseOutgoingFilter(capabilities(), maxIncomingBlockTransferSize))
+                .andThen(congestionControlFilter)
+                .andThen(new BlockWiseOutgoingFilter(csmStorage, maxIncomingBlockTransferSize))
                 .andThen(exchangeFilter)
                 .andThenMap(CoapTcpPacketConverter::toCoapPacket)
                 .then(sender);
 
-        Function<SeparateResponse, Boolean> inboundObservation = new ObservationHandler(notificationsReceiver, observationsStore)
-                .andThen(it -> it.getNow(true));
+        ObservationHandler observationHandler = new ObservationHandler(notificationsReceiver, observationsStore);
+        Function<SeparateResponse, Boolean> inboundObservation = notification -> {
+            statistics.notificationReceived();
+            return observationHandler.apply(notification).getNow(true);
+        };
 
         CoapTcpDispatcher dispatcher = new CoapTcpDispatcher(
                 sender,
@@ -192,9 +352,34 @@ public class CoapServerBuilderForTcp {
                 inboundObservation
         );
 
-        coapTransport.setListener(dispatcher);
+        TcpKeepAlive keepAlive = null;
+        if (keepAliveIdleTimeout != null) {
+            keepAlive = new TcpKeepAlive(timer, keepAliveIdleTimeout, keepAlivePingTimeout, sender, dispatcher, coapTransport::closeConnection, statistics);
+            coapTransport.setListener(keepAlive);
+            addGauge(gauges, CoapStatistics.GAUGE_CONNECTIONS, keepAlive::connections);
+        } else {
+            coapTransport.setListener(dispatcher);
+        }
+        final TcpKeepAlive finalKeepAlive = keepAlive;
+
+        addGauge(gauges, CoapStatistics.GAUGE_EXCHANGES, exchangeFilter::transactions);
+        addGauge(gauges, CoapStatistics.GAUGE_QUEUED_REQUESTS, congestionControlFilter::totalQueueDepth);
+        addGauge(gauges, CoapStatistics.GAUGE_BLOCK_TRANSFERS, blockWiseIncomingFilter::transfers);
+        addGauge(gauges, CoapStatistics.GAUGE_BLOCK_TRANSFER_BYTES, () -> (int) Math.min(blockWiseIncomingFilter.inFlightBytes(), Integer.MAX_VALUE));
 
-        return new CoapServer(coapTransport, dispatcher::handle, outboundService, sendNotification, Function::identity);
+        return new CoapServer(coapTransport, packet -> {
+            statistics.packetReceived();
+            if (finalKeepAlive == null || !finalKeepAlive.handle(packet)) {
+                dispatcher.handle(packet);
+            }
+        }, outboundService, sendNotification, () -> {
+            if (finalKeepAlive != null) {
+                finalKeepAlive.stop();
+            }
+            if (timerExecutor != null) {
+                timerExecutor.shutdown();
+            }
+        });
     }
 
     private boolean hasRoute() {
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server;
+
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.CoapRequest;
+import com.mbed.coap.packet.CoapResponse;
+import com.mbed.coap.transport.CoapTcpListener;
+import com.mbed.coap.transport.CoapTcpTransport;
+import com.mbed.coap.utils.Service;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Spreads outgoing requests to a single destination over a pool of connections. Every connection has its own
+ * CoapServer stack, with own CSM storage and exchanges. Request is assigned to a connection by its token (requests
+ * without token are distributed in round-robin fashion). When assigned connection is disconnected, next connected one
+ * is used instead.
+ */
+final class TcpConnectionPool implements Service<CoapRequest, CoapResponse>, Closeable {
+    private final CoapServer[] servers;
+    private final PooledConnection[] connections;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    TcpConnectionPool(List<PooledConnection> connections, List<CoapServer> servers) {
+        require(!connections.isEmpty() && connections.size() == servers.size());
+        this.connections = connections.toArray(new PooledConnection[0]);
+        this.servers = servers.toArray(new CoapServer[0]);
+    }
+
+    @Override
+    public CompletableFuture<CoapResponse> apply(CoapRequest request) {
+        return servers[select(request)].clientService().apply(request);
+    }
+
+    int select(CoapRequest request) {
+        int index = request.getToken().isEmpty()
+                ? Math.floorMod(roundRobin.getAndIncrement(), connections.length)
+                : Math.floorMod(request.getToken().hashCode(), connections.length);
+
+        for (int i = 0; i < connections.length; i++) {
+            int candidate = (index + i) % connections.length;
+            if (connections[candidate].isConnected()) {
+                return candidate;
+            }
+        }
+        // none is connected, let assigned connection fail (or reconnect)
+        return index;
+    }
+
+    int connected() {
+        int count = 0;
+        for (PooledConnection connection : connections) {
+            if (connection.isConnected()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        for (CoapServer server : servers) {
+            server.stop();
+        }
+    }
+
+    /**
+     * Transport decorator that tracks connection state.
+     */
+    static final class PooledConnection implements CoapTcpTransport {
+        private final CoapTcpTransport transport;
+        private volatile boolean isConnected;
+
+        PooledConnection(CoapTcpTransport transport) {
+            this.transport = transport;
+        }
+
+        boolean isConnected() {
+            return isConnected;
+        }
+
+        @Override
+        public void setListener(CoapTcpListener listener) {
+            transport.setListener(new CoapTcpListener() {
+                @Override
+                public void onDisconnected(InetSocketAddress remoteAddress) {
+                    isConnected = false;
+                    listener.onDisconnected(remoteAddress);
+                }
+
+                @Override
+                public void onConnected(InetSocketAddress remoteAddress) {
+                    isConnected = true;
+                    listener.onConnected(remoteAddress);
+                }
+            });
+        }
+
+        @Override
+        public void start() throws IOException {
+            transport.start();
+        }
+
+        @Override
+        public void stop() {
+            isConnected = false;
+            transport.stop();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> sendPacket(CoapPacket coapPacket) {
+            return transport.sendPacket(coapPacket);
+        }
+
+        @Override
+        public CompletableFuture<CoapPacket> receive() {
+            return transport.receive();
+        }
+
+        @Override
+        public CompletableFuture<Void> receiveAll(Consumer<CoapPacket> consumer) {
+            return transport.receiveAll(consumer);
+        }
+
+        @Override
+        public void closeConnection(InetSocketAddress remoteAddress) {
+            transport.closeConnection(remoteAddress);
+        }
+
+        @Override
+        public void setParseFailureListener(Runnable parseFailureListener) {
+            transport.setParseFailureListener(parseFailureListener);
+        }
+
+        @Override
+        public InetSocketAddress getLocalSocketAddress() {
+            return transport.getLocalSocketAddress();
+        }
+    }
+}
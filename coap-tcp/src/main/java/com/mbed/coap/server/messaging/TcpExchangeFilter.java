@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -19,25 +19,25 @@ package com.mbed.coap.server.messaging;
 import com.mbed.coap.packet.CoapRequest;
 import com.mbed.coap.packet.CoapResponse;
 import com.mbed.coap.packet.Code;
+import com.mbed.coap.packet.Opaque;
 import com.mbed.coap.packet.SeparateResponse;
 import com.mbed.coap.utils.Filter;
 import com.mbed.coap.utils.Service;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 public class TcpExchangeFilter implements Filter<CoapRequest, CoapResponse, CoapRequest, Boolean> {
 
-    private final ConcurrentMap<TransactionId, CompletableFuture<CoapResponse>> transactions = new ConcurrentHashMap<>();
+    private final CorrelationStore<CompletableFuture<CoapResponse>> transactions = new CorrelationStore<>();
 
     @Override
     public CompletableFuture<CoapResponse> apply(CoapRequest request, Service<CoapRequest, Boolean> service) {
-        TransactionId tid = new TransactionId(request.getToken(), request.getPeerAddress());
+        Opaque token = request.getToken();
+        InetSocketAddress peerAddress = request.getPeerAddress();
 
         CompletableFuture<CoapResponse> promise = new CompletableFuture<>();
-        transactions.put(tid, promise);
+        transactions.put(peerAddress, token, promise);
 
         CompletableFuture<Boolean> servicePromise = service.apply(request);
         servicePromise.whenComplete((resp, ex) -> {
@@ -48,7 +48,7 @@ public class TcpExchangeFilter implements Filter<CoapRequest, CoapResponse, Coap
 
         promise.whenComplete((__, ex) -> {
             servicePromise.cancel(false);
-            transactions.remove(tid, promise);
+            transactions.remove(peerAddress, token, promise);
         });
 
         return promise;
@@ -60,8 +60,7 @@ public class TcpExchangeFilter implements Filter<CoapRequest, CoapResponse, Coap
             return true;
         }
 
-        TransactionId tid = new TransactionId(resp.getToken(), resp.getPeerAddress());
-        CompletableFuture<CoapResponse> promise = transactions.remove(tid);
+        CompletableFuture<CoapResponse> promise = transactions.remove(resp.getPeerAddress(), resp.getToken());
         if (promise != null) {
             return promise.complete(resp.asResponse());
         } else {
@@ -70,15 +69,7 @@ public class TcpExchangeFilter implements Filter<CoapRequest, CoapResponse, Coap
     }
 
     private void removeTransactions(InetSocketAddress remoteAddress) {
-        for (TransactionId transId : transactions.keySet()) {
-            if (transId.hasRemoteAddress(remoteAddress)) {
-
-                CompletableFuture<CoapResponse> promise = transactions.remove(transId);
-                if (promise != null) {
-                    promise.completeExceptionally(new IOException("Socket closed"));
-                }
-            }
-        }
+        transactions.removeAll(remoteAddress, promise -> promise.completeExceptionally(new IOException("Socket closed")));
     }
 
     public int transactions() {
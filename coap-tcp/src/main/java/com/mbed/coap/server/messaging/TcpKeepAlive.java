@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.messaging;
+
+import static com.mbed.coap.utils.FutureHelpers.logError;
+import static com.mbed.coap.utils.Validations.require;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.Code;
+import com.mbed.coap.packet.Opaque;
+import com.mbed.coap.server.CoapStatistics;
+import com.mbed.coap.transport.CoapTcpListener;
+import com.mbed.coap.utils.Service;
+import com.mbed.coap.utils.Timer;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keep-alive for CoAP over TCP connections. Connection that did not receive anything for <i>idleTimeout</i> is
+ * sent 7.02 (Ping). If nothing is received within <i>pingTimeout</i> after that, connection is considered dead:
+ * it is closed and its state (capabilities, pending exchanges) is released by notifying listener about disconnection.
+ * <p>
+ * Receiving only updates last activity time of a connection, checks are scheduled lazily on a timer, one per connection.
+ */
+public class TcpKeepAlive implements CoapTcpListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TcpKeepAlive.class);
+
+    private final Map<InetSocketAddress, Connection> connections = new ConcurrentHashMap<>();
+    private final Timer timer;
+    private final long idleTimeoutNanos;
+    private final long pingTimeoutNanos;
+    private final Service<CoapPacket, Boolean> sender;
+    private final CoapTcpListener listener;
+    private final Consumer<InetSocketAddress> closeConnection;
+    private final CoapStatistics statistics;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param statistics notified with {@link CoapStatistics#deadConnection()} when connection is closed as dead
+     */
+    public TcpKeepAlive(Timer timer, Duration idleTimeout, Duration pingTimeout, Service<CoapPacket, Boolean> sender,
+            CoapTcpListener listener, Consumer<InetSocketAddress> closeConnection, CoapStatistics statistics) {
+        this(timer, idleTimeout, pingTimeout, sender, listener, closeConnection, statistics, System::nanoTime);
+    }
+
+    TcpKeepAlive(Timer timer, Duration idleTimeout, Duration pingTimeout, Service<CoapPacket, Boolean> sender,
+            CoapTcpListener listener, Consumer<InetSocketAddress> closeConnection, CoapStatistics statistics, LongSupplier nanoTime) {
+        require(!idleTimeout.isNegative() && !idleTimeout.isZero(), "idleTimeout must be positive");
+        require(!pingTimeout.isNegative() && !pingTimeout.isZero(), "pingTimeout must be positive");
+        this.timer = timer;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.pingTimeoutNanos = pingTimeout.toNanos();
+        this.sender = sender;
+        this.listener = listener;
+        this.closeConnection = closeConnection;
+        this.statistics = statistics;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Updates connection's last activity time.
+     *
+     * @return true if packet is a response to keep-alive ping, and should not be processed further
+     */
+    public boolean handle(CoapPacket packet) {
+        Connection connection = connections.get(packet.getRemoteAddress());
+        if (connection == null) {
+            return false;
+        }
+        connection.lastActivityNanos = nanoTime.getAsLong();
+
+        Opaque pingToken = connection.pingToken;
+        return pingToken != null && packet.getCode() == Code.C703_PONG && pingToken.equals(packet.getToken());
+    }
+
+    @Override
+    public void onConnected(InetSocketAddress remoteAddress) {
+        Connection connection = new Connection(remoteAddress, nanoTime.getAsLong());
+        Connection previous = connections.put(remoteAddress, connection);
+        if (previous != null) {
+            previous.cancelCheck.run();
+        }
+        schedule(connection, idleTimeoutNanos);
+
+        listener.onConnected(remoteAddress);
+    }
+
+    /**
+     * Releases connection state. Listener is notified only about tracked connection, so not again about one that was
+     * already closed as dead.
+     */
+    @Override
+    public void onDisconnected(InetSocketAddress remoteAddress) {
+        Connection connection = connections.remove(remoteAddress);
+        if (connection != null) {
+            release(connection);
+        }
+    }
+
+    private void release(Connection connection) {
+        connection.cancelCheck.run();
+        listener.onDisconnected(connection.remoteAddress);
+    }
+
+    public void stop() {
+        connections.values().forEach(connection -> connection.cancelCheck.run());
+        connections.clear();
+    }
+
+    private void schedule(Connection connection, long delayNanos) {
+        connection.cancelCheck = timer.schedule(Duration.ofNanos(delayNanos), () -> check(connection));
+    }
+
+    private void check(Connection connection) {
+        if (connections.get(connection.remoteAddress) != connection) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        long lastActivity = connection.lastActivityNanos;
+
+        if (connection.pingToken != null) {
+            if (lastActivity - connection.pingSentNanos > 0) {
+                // peer is alive
+                connection.pingToken = null;
+            } else if (now - connection.pingSentNanos >= pingTimeoutNanos) {
+                onDeadConnection(connection);
+                return;
+            } else {
+                schedule(connection, pingTimeoutNanos - (now - connection.pingSentNanos));
+                return;
+            }
+        }
+
+        long idle = now - lastActivity;
+        if (idle >= idleTimeoutNanos) {
+            sendPing(connection, now);
+            schedule(connection, pingTimeoutNanos);
+        } else {
+            schedule(connection, idleTimeoutNanos - idle);
+        }
+    }
+
+    private void sendPing(Connection connection, long now) {
+        CoapPacket ping = new CoapPacket(connection.remoteAddress);
+        ping.setMessageType(null);
+        ping.setCode(Code.C702_PING);
+        // random full length token, so that it does not collide with tokens of application pings
+        byte[] token = new byte[8];
+        ThreadLocalRandom.current().nextBytes(token);
+        ping.setToken(Opaque.of(token));
+
+        connection.pingSentNanos = now;
+        connection.pingToken = ping.getToken();
+        sender.apply(ping).exceptionally(logError(LOGGER));
+    }
+
+    private void onDeadConnection(Connection connection) {
+        if (!connections.remove(connection.remoteAddress, connection)) {
+            return;
+        }
+        LOGGER.info("[{}] No response to keep-alive ping, closing connection", connection.remoteAddress);
+        statistics.deadConnection();
+        closeConnection.accept(connection.remoteAddress);
+        // release state, even if transport does not notify about disconnection
+        release(connection);
+    }
+
+    public int connections() {
+        return connections.size();
+    }
+
+    private static final class Connection {
+        private final InetSocketAddress remoteAddress;
+        private volatile long lastActivityNanos;
+        private volatile long pingSentNanos;
+        private volatile Opaque pingToken;
+        private volatile Runnable cancelCheck = () -> {
+        };
+
+        Connection(InetSocketAddress remoteAddress, long nowNanos) {
+            this.remoteAddress = remoteAddress;
+            this.lastActivityNanos = nowNanos;
+        }
+    }
+}
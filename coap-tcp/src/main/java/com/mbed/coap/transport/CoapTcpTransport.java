@@ -15,6 +15,16 @@
  */
 package com.mbed.coap.transport;
 
+import java.net.InetSocketAddress;
+
 public interface CoapTcpTransport extends CoapTransport {
     void setListener(CoapTcpListener listener);
+
+    /**
+     * Closes connection with given remote address, if it exists. Default implementation does nothing.
+     *
+     * @param remoteAddress remote address
+     */
+    default void closeConnection(InetSocketAddress remoteAddress) {
+    }
 }
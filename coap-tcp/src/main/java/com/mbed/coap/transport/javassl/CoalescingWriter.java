@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transport.javassl;
+
+import static com.mbed.coap.utils.Validations.require;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound queue of serialized frames, drained by a single writer thread. All frames that are pending (or arrive
+ * within max latency) are copied into one buffer and written with a single write and flush, as long as they fit into
+ * max batch size. Frame that does not fit starts next batch, and frame larger than max batch size is written on its
+ * own without copying, so that batch buffer never grows.
+ */
+final class CoalescingWriter {
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final byte[] batchBuffer;
+    private final int maxBatchBytes;
+    private final long maxLatencyNanos;
+    private final BatchSink sink;
+    private final ExecutorService writingWorker;
+    private volatile boolean isStopped;
+    // frame that did not fit into previous batch, accessed only by writer thread
+    private PendingWrite carriedOver;
+
+    CoalescingWriter(int maxBatchBytes, Duration maxLatency, BatchSink sink, ExecutorService writingWorker) {
+        require(maxBatchBytes > 0, "maxBatchBytes must be positive");
+        require(!maxLatency.isNegative(), "maxLatency can not be negative");
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.sink = sink;
+        this.writingWorker = writingWorker;
+        this.batchBuffer = new byte[maxBatchBytes];
+    }
+
+    void start() {
+        writingWorker.execute(this::writeLoop);
+    }
+
+    void stop() {
+        isStopped = true;
+        writingWorker.shutdownNow();
+        failPending();
+    }
+
+    CompletableFuture<Boolean> write(byte[] frame) {
+        PendingWrite pendingWrite = new PendingWrite(frame);
+        queue.add(pendingWrite);
+        if (isStopped) {
+            failPending();
+        }
+        return pendingWrite.promise;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        try {
+            while (!isStopped) {
+                collectBatch(batch);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (carriedOver != null) {
+            batch.add(carriedOver);
+            carriedOver = null;
+        }
+        fail(batch);
+        failPending();
+    }
+
+    private void collectBatch(List<PendingWrite> batch) throws InterruptedException {
+        PendingWrite next = carriedOver != null ? carriedOver : queue.take();
+        carriedOver = null;
+        long deadline = System.nanoTime() + maxLatencyNanos;
+        int batchBytes = 0;
+
+        while (next != null) {
+            if (!batch.isEmpty() && batchBytes + next.frame.length > maxBatchBytes) {
+                carriedOver = next;
+                return;
+            }
+            batch.add(next);
+            batchBytes += next.frame.length;
+            if (batchBytes >= maxBatchBytes) {
+                return;
+            }
+
+            next = queue.poll();
+            if (next == null && maxLatencyNanos > 0) {
+                next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        try {
+            if (batch.size() == 1) {
+                byte[] frame = batch.get(0).frame;
+                sink.write(frame, frame.length);
+            } else {
+                int length = 0;
+                for (PendingWrite pendingWrite : batch) {
+                    System.arraycopy(pendingWrite.frame, 0, batchBuffer, length, pendingWrite.frame.length);
+                    length += pendingWrite.frame.length;
+                }
+                sink.write(batchBuffer, length);
+            }
+
+            for (PendingWrite pendingWrite : batch) {
+                pendingWrite.promise.complete(true);
+            }
+        } catch (Exception ex) {
+            for (PendingWrite pendingWrite : batch) {
+                pendingWrite.promise.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private void failPending() {
+        List<PendingWrite> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        fail(pending);
+    }
+
+    private static void fail(List<PendingWrite> writes) {
+        for (PendingWrite pendingWrite : writes) {
+            pendingWrite.promise.completeExceptionally(new IOException("Transport stopped"));
+        }
+    }
+
+    interface BatchSink {
+        /**
+         * Writes first <i>length</i> bytes of batch and flushes it. Batch array is reused after this method returns.
+         */
+        void write(byte[] batch, int length) throws IOException;
+    }
+
+    private static final class PendingWrite {
+        private final byte[] frame;
+        private final CompletableFuture<Boolean> promise = new CompletableFuture<>();
+
+        private PendingWrite(byte[] frame) {
+            this.frame = frame;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -21,6 +21,7 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
@@ -34,6 +35,10 @@ public class SSLSocketClientTransport extends SocketClientTransport {
         super(destination, socketFactory, autoReconnect);
     }
 
+    public SSLSocketClientTransport(InetSocketAddress destination, SSLSocketFactory socketFactory, boolean autoReconnect, int maxBatchBytes, Duration maxBatchLatency) {
+        super(destination, socketFactory, autoReconnect, maxBatchBytes, maxBatchLatency);
+    }
+
     @Override
     protected void connect() throws IOException {
         SSLSocket sslSocket = (SSLSocket) socketFactory.createSocket(destination.getAddress(), destination.getPort());
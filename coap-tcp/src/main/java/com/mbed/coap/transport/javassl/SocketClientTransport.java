@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -16,12 +16,13 @@
  */
 package com.mbed.coap.transport.javassl;
 
+import static com.mbed.coap.utils.FutureHelpers.failedFuture;
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import com.mbed.coap.exception.CoapException;
 import com.mbed.coap.packet.CoapPacket;
 import com.mbed.coap.packet.CoapTcpPacketSerializer;
-import com.mbed.coap.transport.BlockingCoapTransport;
 import com.mbed.coap.transport.CoapTcpListener;
 import com.mbed.coap.transport.CoapTcpTransport;
 import com.mbed.coap.utils.ExecutorHelpers;
@@ -34,6 +35,7 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
@@ -41,7 +43,7 @@ import javax.net.SocketFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class SocketClientTransport extends BlockingCoapTransport implements CoapTcpTransport {
+public class SocketClientTransport implements CoapTcpTransport {
     private static final Logger LOGGER = LoggerFactory.getLogger(SocketClientTransport.class);
 
     protected final InetSocketAddress destination;
@@ -52,23 +54,49 @@ public class SocketClientTransport extends BlockingCoapTransport implements Coap
     private final ExecutorService readingWorker;
     protected final SocketFactory socketFactory;
     private final boolean autoReconnect;
+    private final CoalescingWriter coalescingWriter;
     private volatile boolean isRunning;
+    private volatile Runnable parseFailureListener = () -> {
+    };
 
     public SocketClientTransport(InetSocketAddress destination, SocketFactory socketFactory, boolean autoReconnect) {
         this(destination, socketFactory, autoReconnect, ExecutorHelpers.newSingleThreadExecutor("client-reader"));
     }
 
     public SocketClientTransport(InetSocketAddress destination, SocketFactory socketFactory, boolean autoReconnect, ExecutorService readingWorker) {
+        this(destination, socketFactory, autoReconnect, readingWorker, 0, null);
+    }
+
+    /**
+     * Creates transport that coalesces outgoing packets. Packets are queued and written by a dedicated thread, which
+     * drains all pending packets into a single buffer, so that a burst of packets is sent with one write and flush.
+     *
+     * @param maxBatchBytes maximum number of bytes written in a single batch
+     * @param maxBatchLatency maximum time to wait for more packets before writing a batch, with zero a batch is written
+     * as soon as queue is drained
+     */
+    public SocketClientTransport(InetSocketAddress destination, SocketFactory socketFactory, boolean autoReconnect, int maxBatchBytes, Duration maxBatchLatency) {
+        this(destination, socketFactory, autoReconnect, ExecutorHelpers.newSingleThreadExecutor("client-reader"), maxBatchBytes, requireNonNull(maxBatchLatency));
+    }
+
+    // without maxBatchLatency, packets are written directly by calling thread
+    private SocketClientTransport(InetSocketAddress destination, SocketFactory socketFactory, boolean autoReconnect, ExecutorService readingWorker,
+            int maxBatchBytes, Duration maxBatchLatency) {
         this.destination = destination;
         this.socketFactory = socketFactory;
         this.autoReconnect = autoReconnect;
         this.readingWorker = readingWorker;
+        this.coalescingWriter = maxBatchLatency == null ? null
+                : new CoalescingWriter(maxBatchBytes, maxBatchLatency, this::writeBatch, ExecutorHelpers.newSingleThreadExecutor("client-writer"));
     }
 
     @Override
     public void start() throws IOException {
         isRunning = true;
         connect();
+        if (coalescingWriter != null) {
+            coalescingWriter.start();
+        }
     }
 
     @Override
@@ -76,6 +104,11 @@ public class SocketClientTransport extends BlockingCoapTransport implements Coap
         this.listener = listener;
     }
 
+    @Override
+    public void setParseFailureListener(Runnable parseFailureListener) {
+        this.parseFailureListener = requireNonNull(parseFailureListener);
+    }
+
     protected void connect() throws IOException {
         socket = socketFactory.createSocket(destination.getAddress(), destination.getPort());
 
@@ -110,6 +143,7 @@ public class SocketClientTransport extends BlockingCoapTransport implements Coap
                         throw (IOException) e.getCause();
                     }
                     LOGGER.warn("Closing socket connection, due to parsing error: " + e.getMessage());
+                    parseFailureListener.run();
                     socket.close();
                 } catch (EOFException ex) {
                     socket.close();
@@ -138,17 +172,55 @@ public class SocketClientTransport extends BlockingCoapTransport implements Coap
     }
 
     @Override
+    public CompletableFuture<Boolean> sendPacket(CoapPacket coapPacket) {
+        try {
+            if (coalescingWriter == null) {
+                sendPacket0(coapPacket);
+                return completedFuture(true);
+            }
+            verifyDestination(coapPacket);
+            return coalescingWriter.write(CoapTcpPacketSerializer.serialize(coapPacket));
+        } catch (Exception ex) {
+            return failedFuture(ex);
+        }
+    }
+
+    /**
+     * Writes and flushes packet immediately, bypassing outbound queue.
+     */
     public void sendPacket0(CoapPacket coapPacket) throws CoapException, IOException {
+        verifyDestination(coapPacket);
+        synchronized (this) {
+            CoapTcpPacketSerializer.writeTo(outputStream, coapPacket);
+            outputStream.flush();
+        }
+    }
+
+    private void verifyDestination(CoapPacket coapPacket) {
         InetSocketAddress adr = coapPacket.getRemoteAddress();
         if (!adr.equals(this.destination)) {
             throw new IllegalStateException("No connection with: " + adr);
         }
+    }
+
+    private void writeBatch(byte[] batch, int length) throws IOException {
         synchronized (this) {
-            CoapTcpPacketSerializer.writeTo(outputStream, coapPacket);
+            outputStream.write(batch, 0, length);
             outputStream.flush();
         }
     }
 
+    @Override
+    public void closeConnection(InetSocketAddress remoteAddress) {
+        if (destination.equals(remoteAddress) && socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close socket: {}", e.toString());
+            }
+        }
+    }
+
     @Override
     public InetSocketAddress getLocalSocketAddress() {
         return (InetSocketAddress) socket.getLocalSocketAddress();
@@ -157,6 +229,9 @@ public class SocketClientTransport extends BlockingCoapTransport implements Coap
     @Override
     public void stop() {
         isRunning = false;
+        if (coalescingWriter != null) {
+            coalescingWriter.stop();
+        }
         try {
             listener.onDisconnected(destination);
             socket.close();
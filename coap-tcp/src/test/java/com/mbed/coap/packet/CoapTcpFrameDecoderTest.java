@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.packet;
+
+import static com.mbed.coap.utils.Bytes.opaqueOfRandom;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import com.mbed.coap.exception.CoapException;
+import com.mbed.coap.exception.CoapMessageFormatException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+import protocolTests.utils.CoapPacketBuilder;
+
+class CoapTcpFrameDecoderTest {
+    private final CoapTcpFrameDecoder decoder = new CoapTcpFrameDecoder(100_000);
+
+    @Test
+    void shouldDecodeFrameReceivedByteByByte() throws Exception {
+        byte[] frame = serialize(300);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        for (int i = 0; i < frame.length - 1; i++) {
+            buffer.put(frame[i]).flip();
+            assertNull(decoder.decode(null, buffer));
+            assertEquals(0, buffer.position());
+            buffer.compact();
+        }
+        assertEquals(frame.length, decoder.pendingFrameLength());
+
+        buffer.put(frame[frame.length - 1]).flip();
+        CoapPacket coap = decoder.decode(null, buffer);
+
+        assertArrayEquals(frame, CoapTcpPacketSerializer.serialize(coap));
+        assertEquals(0, buffer.remaining());
+        assertEquals(-1, decoder.pendingFrameLength());
+    }
+
+    @Test
+    void shouldDecodeCoalescedFrames() throws Exception {
+        byte[] frame1 = serialize(10);
+        byte[] frame2 = serialize(70_000);
+        ByteBuffer buffer = ByteBuffer.allocate(frame1.length + frame2.length);
+        buffer.put(frame1).put(frame2, 0, 100).flip();
+
+        assertArrayEquals(frame1, CoapTcpPacketSerializer.serialize(decoder.decode(null, buffer)));
+        assertNull(decoder.decode(null, buffer));
+
+        buffer.compact().put(frame2, 100, frame2.length - 100).flip();
+        CoapPacket coap = decoder.decode(null, buffer);
+        // buffer is reused, decoded packet must not be affected
+        buffer.clear();
+        buffer.put(new byte[buffer.capacity()]);
+
+        assertArrayEquals(frame2, CoapTcpPacketSerializer.serialize(coap));
+    }
+
+    @Test
+    void shouldFailWhenFrameIsTooLong() throws Exception {
+        CoapTcpFrameDecoder decoder = new CoapTcpFrameDecoder(100);
+
+        assertThrows(CoapMessageFormatException.class, () -> decoder.decode(null, ByteBuffer.wrap(serialize(200), 0, 5)));
+    }
+
+    @Test
+    void shouldFailWhenFrameIsMalformed() {
+        // token length 9
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{0x09, 0x45, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        assertThrows(CoapException.class, () -> decoder.decode(null, buffer));
+    }
+
+    private static byte[] serialize(int payloadSize) throws CoapException, IOException {
+        CoapPacket coap = CoapPacketBuilder.newCoapPacket().token(1234L).post().uriPath("/test").payload(opaqueOfRandom(payloadSize)).build();
+        coap.setMessageType(null);
+        return CoapTcpPacketSerializer.serialize(coap);
+    }
+}
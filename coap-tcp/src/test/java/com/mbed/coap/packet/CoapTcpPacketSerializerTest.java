@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2022-2023 java-coap contributors (https://github.com/open-coap/java-coap)
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
  * Copyright (C) 2011-2021 ARM Limited. All rights reserved.
  * SPDX-License-Identifier: Apache-2.0
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -34,6 +34,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -217,6 +218,65 @@ public class CoapTcpPacketSerializerTest {
     }
 
 
+    @Test
+    public void should_calculate_frame_length_from_header() throws CoapException, IOException {
+        for (int payloadSize : new int[]{0, 5, 20, 300, 70_000}) {
+            CoapPacket cp = CoapPacketBuilder.newCoapPacket().token(1234L).code(Code.C205_CONTENT).payload(opaqueOfRandom(payloadSize)).build();
+            byte[] rawCp = CoapTcpPacketSerializer.serialize(cp);
+
+            ByteBuffer buffer = ByteBuffer.wrap(rawCp, 0, 5);
+            assertEquals(rawCp.length, CoapTcpPacketSerializer.frameLength(buffer));
+            assertEquals(0, buffer.position());
+        }
+
+        assertEquals(-1, CoapTcpPacketSerializer.frameLength(ByteBuffer.allocate(0)));
+        // missing extended length
+        assertEquals(-1, CoapTcpPacketSerializer.frameLength(ByteBuffer.wrap(new byte[]{(byte) 0xE0, 0x01})));
+        assertEquals(65805 + 0xFFFFFFFFL + 6, CoapTcpPacketSerializer.frameLength(ByteBuffer.wrap(new byte[]{(byte) 0xF0, -1, -1, -1, -1})));
+    }
+
+    @Test
+    public void should_deserialize_from_buffer() throws CoapException, IOException {
+        CoapPacket cp = CoapPacketBuilder.newCoapPacket().token(1234L).code(Code.C204_CHANGED).uriPath("/test").payload("some test payload").build();
+        cp.setMessageType(null);
+        byte[] rawCp = CoapTcpPacketSerializer.serialize(cp);
+
+        CoapPacket cp2 = CoapTcpPacketSerializer.deserialize(null, ByteBuffer.wrap(rawCp));
+
+        assertSimilar(cp, cp2);
+        assertArrayEquals(rawCp, CoapTcpPacketSerializer.serialize(cp2));
+    }
+
+    @Test
+    public void should_deserialize_signalling_from_buffer() throws CoapException, IOException {
+        CoapPacket cp = new CoapPacket(null);
+        cp.setCode(Code.C701_CSM);
+        cp.setMessageType(null);
+        SignallingHeaderOptions headers = new SignallingHeaderOptions(cp.getCode());
+        cp.setHeaderOptions(headers);
+        SignalingOptions sign = new SignalingOptions();
+        sign.setMaxMessageSize(1152);
+        headers.putSignallingOptions(sign);
+
+        CoapPacket cp2 = CoapTcpPacketSerializer.deserialize(null, ByteBuffer.wrap(CoapTcpPacketSerializer.serialize(cp)));
+
+        assertEquals(1152, ((SignallingHeaderOptions) cp2.headers()).toSignallingOptions(Code.C701_CSM).getMaxMessageSize().intValue());
+        assertSimilar(cp, cp2);
+    }
+
+    @Test
+    public void should_fail_to_deserialize_truncated_buffer() throws CoapException, IOException {
+        CoapPacket cp = CoapPacketBuilder.newCoapPacket().token(1234L).code(Code.C204_CHANGED).uriPath("/test").build();
+        byte[] rawCp = CoapTcpPacketSerializer.serialize(cp);
+
+        assertThatThrownBy(() -> CoapTcpPacketSerializer.deserialize(null, ByteBuffer.wrap(rawCp, 0, 3)))
+                .isInstanceOf(CoapException.class)
+                .hasMessage("Unexpected end of message");
+        // token length 9
+        assertThrows(CoapException.class, () -> CoapTcpPacketSerializer.deserialize(null, ByteBuffer.wrap(new byte[]{0x09, 0x45, 1, 2, 3, 4, 5, 6, 7, 8, 9})));
+    }
+
+
     private void assertSimplePacketSerializationAndDeserilization(Opaque token, Opaque payload) throws CoapException, IOException {
         CoapPacket cp = new CoapPacket(null, null, "", null);
         cp.setToken(token);
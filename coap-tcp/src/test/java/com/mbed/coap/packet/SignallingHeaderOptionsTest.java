@@ -38,7 +38,10 @@ class SignallingHeaderOptionsTest {
 
     @Test
     public void equalsAndHashTest() throws Exception {
-        EqualsVerifier.forClass(SignallingHeaderOptions.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass().verify();
+        EqualsVerifier.forClass(SignallingHeaderOptions.class).suppress(Warning.NONFINAL_FIELDS).usingGetClass()
+                .withPrefabValues(Opaque.class, Opaque.of("1"), Opaque.of("2"))
+                .withPrefabValues(BasicHeaderOptions.PendingOptions.class, new BasicHeaderOptions.PendingOptions(new byte[0]), new BasicHeaderOptions.PendingOptions(new byte[1]))
+                .verify();
     }
 
 }
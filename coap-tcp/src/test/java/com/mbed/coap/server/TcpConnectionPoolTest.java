@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server;
+
+import static com.mbed.coap.packet.CoapRequest.get;
+import static com.mbed.coap.utils.Networks.localhost;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import com.mbed.coap.packet.CoapRequest;
+import com.mbed.coap.server.TcpConnectionPool.PooledConnection;
+import com.mbed.coap.transport.CoapTcpListener;
+import com.mbed.coap.transport.CoapTcpTransport;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class TcpConnectionPoolTest {
+    private final CoapTcpListener[] transportListeners = new CoapTcpListener[3];
+    private TcpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        PooledConnection[] connections = new PooledConnection[3];
+        for (int i = 0; i < 3; i++) {
+            CoapTcpTransport transport = mock(CoapTcpTransport.class);
+            connections[i] = new PooledConnection(transport);
+            connections[i].setListener(mock(CoapTcpListener.class));
+
+            ArgumentCaptor<CoapTcpListener> listener = ArgumentCaptor.forClass(CoapTcpListener.class);
+            verify(transport).setListener(listener.capture());
+            transportListeners[i] = listener.getValue();
+            transportListeners[i].onConnected(localhost(5684));
+        }
+        pool = new TcpConnectionPool(asList(connections), asList(mock(CoapServer.class), mock(CoapServer.class), mock(CoapServer.class)));
+    }
+
+    @Test
+    void shouldSpreadRequestsByToken() {
+        Set<Integer> used = new HashSet<>();
+        for (int token = 1; token <= 30; token++) {
+            CoapRequest req = get("/test").token(token).to(localhost(5684));
+
+            used.add(pool.select(req));
+            // same token, same connection
+            assertEquals(pool.select(req), pool.select(req));
+        }
+
+        assertEquals(3, used.size());
+    }
+
+    @Test
+    void shouldUseRoundRobinForRequestsWithoutToken() {
+        CoapRequest req = get("/test").to(localhost(5684));
+
+        assertEquals(0, pool.select(req));
+        assertEquals(1, pool.select(req));
+        assertEquals(2, pool.select(req));
+        assertEquals(0, pool.select(req));
+    }
+
+    @Test
+    void shouldFailOverWhenConnectionIsDisconnected() {
+        CoapRequest req = get("/test").token(1).to(localhost(5684));
+        int assigned = pool.select(req);
+
+        transportListeners[assigned].onDisconnected(localhost(5684));
+        assertEquals(2, pool.connected());
+        assertNotEquals(assigned, pool.select(req));
+
+        transportListeners[assigned].onConnected(localhost(5684));
+        assertEquals(assigned, pool.select(req));
+    }
+
+    @Test
+    void shouldKeepAssignedConnectionWhenNoneIsConnected() {
+        CoapRequest req = get("/test").token(1).to(localhost(5684));
+        int assigned = pool.select(req);
+
+        for (CoapTcpListener listener : transportListeners) {
+            listener.onDisconnected(localhost(5684));
+        }
+
+        assertEquals(0, pool.connected());
+        assertEquals(assigned, pool.select(req));
+    }
+}
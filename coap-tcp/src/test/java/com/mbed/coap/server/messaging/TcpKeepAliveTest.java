@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.server.messaging;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static protocolTests.utils.CoapPacketBuilder.LOCAL_5683;
+import static protocolTests.utils.CoapPacketBuilder.newCoapPacket;
+import com.mbed.coap.packet.CoapPacket;
+import com.mbed.coap.packet.Code;
+import com.mbed.coap.server.CoapStatistics;
+import com.mbed.coap.transport.CoapTcpListener;
+import com.mbed.coap.utils.MockTimer;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TcpKeepAliveTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final MockTimer timer = new MockTimer();
+    private final AtomicLong nanoTime = new AtomicLong(1000 * SECOND);
+    private final List<CoapPacket> sent = new ArrayList<>();
+    private final List<InetSocketAddress> closed = new ArrayList<>();
+    private final CoapTcpListener listener = mock(CoapTcpListener.class);
+    private final CoapStatistics statistics = mock(CoapStatistics.class);
+    private TcpKeepAlive keepAlive;
+
+    @BeforeEach
+    void setUp() {
+        keepAlive = new TcpKeepAlive(timer, Duration.ofSeconds(60), Duration.ofSeconds(10), packet -> {
+            sent.add(packet);
+            return completedFuture(true);
+        }, listener, closed::add, statistics, nanoTime::get);
+
+        keepAlive.onConnected(LOCAL_5683);
+        verify(listener).onConnected(LOCAL_5683);
+    }
+
+    @Test
+    void shouldNotPingActiveConnection() {
+        nanoTime.addAndGet(50 * SECOND);
+        keepAlive.handle(newCoapPacket(LOCAL_5683).get().build());
+
+        // first check, reschedules at last activity + idle timeout
+        nanoTime.addAndGet(10 * SECOND);
+        timer.runAll();
+
+        assertTrue(sent.isEmpty());
+        assertEquals(Duration.ofSeconds(50), timer.getLastScheduledDelay());
+    }
+
+    @Test
+    void shouldPingIdleConnectionAndConsumePong() {
+        nanoTime.addAndGet(60 * SECOND);
+        timer.runAll();
+
+        assertEquals(1, sent.size());
+        CoapPacket ping = sent.get(0);
+        assertEquals(Code.C702_PING, ping.getCode());
+        assertEquals(LOCAL_5683, ping.getRemoteAddress());
+        assertEquals(8, ping.getToken().size());
+        assertEquals(Duration.ofSeconds(10), timer.getLastScheduledDelay());
+
+        // pong
+        nanoTime.addAndGet(SECOND);
+        CoapPacket pong = newCoapPacket(LOCAL_5683).code(Code.C703_PONG).build();
+        pong.setToken(ping.getToken());
+        assertTrue(keepAlive.handle(pong));
+
+        nanoTime.addAndGet(9 * SECOND);
+        timer.runAll();
+        assertEquals(1, sent.size());
+        assertEquals(Duration.ofSeconds(51), timer.getLastScheduledDelay());
+        assertTrue(closed.isEmpty());
+        assertEquals(1, keepAlive.connections());
+    }
+
+    @Test
+    void shouldCloseDeadConnectionAndReleaseState() {
+        nanoTime.addAndGet(60 * SECOND);
+        timer.runAll();
+        assertEquals(1, sent.size());
+
+        nanoTime.addAndGet(10 * SECOND);
+        timer.runAll();
+
+        assertEquals(1, closed.size());
+        verify(listener).onDisconnected(LOCAL_5683);
+        assertEquals(0, keepAlive.connections());
+        verify(statistics).deadConnection();
+        assertTrue(timer.isEmpty());
+
+        // transport notifies about closed connection
+        keepAlive.onDisconnected(LOCAL_5683);
+        verify(listener).onDisconnected(LOCAL_5683);
+    }
+
+    @Test
+    void shouldCancelCheckWhenDisconnected() {
+        keepAlive.onDisconnected(LOCAL_5683);
+
+        assertTrue(timer.isEmpty());
+        assertEquals(0, keepAlive.connections());
+        verify(listener).onDisconnected(LOCAL_5683);
+    }
+
+    @Test
+    void shouldIgnorePacketsFromUnknownConnections() {
+        CoapPacket pong = newCoapPacket(new InetSocketAddress("localhost", 1_5683)).code(Code.C703_PONG).build();
+
+        assertFalse(keepAlive.handle(pong));
+        verify(listener, never()).onDisconnected(LOCAL_5683);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mbed.coap.transport.javassl;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.mbed.coap.utils.ExecutorHelpers;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CoalescingWriterTest {
+    private final List<byte[]> batches = new CopyOnWriteArrayList<>();
+    private CoalescingWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    void shouldWritePendingFramesInSingleBatch() throws Exception {
+        writer = new CoalescingWriter(1000, Duration.ZERO, (batch, length) -> batches.add(Arrays.copyOf(batch, length)), ExecutorHelpers.newSingleThreadExecutor("test-writer"));
+
+        CompletableFuture<Boolean> resp1 = writer.write(new byte[]{1, 2});
+        CompletableFuture<Boolean> resp2 = writer.write(new byte[]{3});
+        CompletableFuture<Boolean> resp3 = writer.write(new byte[]{4, 5, 6});
+        writer.start();
+
+        assertTrue(resp1.get(5, SECONDS));
+        assertTrue(resp2.get(5, SECONDS));
+        assertTrue(resp3.get(5, SECONDS));
+        assertEquals(1, batches.size());
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, batches.get(0));
+    }
+
+    @Test
+    void shouldLimitBatchSize() throws Exception {
+        writer = new CoalescingWriter(4, Duration.ZERO, (batch, length) -> batches.add(Arrays.copyOf(batch, length)), ExecutorHelpers.newSingleThreadExecutor("test-writer"));
+
+        writer.write(new byte[]{1, 2, 3});
+        writer.write(new byte[]{4, 5});
+        writer.write(new byte[]{6, 7});
+        CompletableFuture<Boolean> resp = writer.write(new byte[]{8});
+        writer.start();
+        resp.get(5, SECONDS);
+
+        assertEquals(3, batches.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, batches.get(0));
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, batches.get(1));
+        assertArrayEquals(new byte[]{8}, batches.get(2));
+    }
+
+    @Test
+    void shouldWriteFrameLargerThanBatchSizeOnItsOwn() throws Exception {
+        List<byte[]> writtenArrays = new CopyOnWriteArrayList<>();
+        writer = new CoalescingWriter(4, Duration.ZERO, (batch, length) -> {
+            writtenArrays.add(batch);
+            batches.add(Arrays.copyOf(batch, length));
+        }, ExecutorHelpers.newSingleThreadExecutor("test-writer"));
+        byte[] largeFrame = {2, 3, 4, 5, 6, 7};
+
+        writer.write(new byte[]{1});
+        writer.write(largeFrame);
+        CompletableFuture<Boolean> resp = writer.write(new byte[]{8});
+        writer.start();
+        resp.get(5, SECONDS);
+
+        assertEquals(3, batches.size());
+        assertArrayEquals(new byte[]{1}, batches.get(0));
+        assertSame(largeFrame, writtenArrays.get(1));
+        assertArrayEquals(new byte[]{8}, batches.get(2));
+    }
+
+    @Test
+    void shouldWaitForMoreFramesWithinLatency() throws Exception {
+        CountDownLatch secondWritten = new CountDownLatch(1);
+        writer = new CoalescingWriter(1000, Duration.ofSeconds(10), (batch, length) -> batches.add(Arrays.copyOf(batch, length)), ExecutorHelpers.newSingleThreadExecutor("test-writer"));
+        writer.start();
+
+        CompletableFuture<Boolean> resp1 = writer.write(new byte[]{1});
+        Thread.sleep(50);
+        CompletableFuture<Boolean> resp2 = writer.write(new byte[]{2});
+        resp2.thenRun(secondWritten::countDown);
+        // fill batch, so it is written without waiting for latency
+        writer.write(new byte[998]);
+
+        assertTrue(secondWritten.await(5, SECONDS));
+        assertTrue(resp1.isDone());
+        assertEquals(1, batches.size());
+        assertEquals(1000, batches.get(0).length);
+    }
+
+    @Test
+    void shouldFailWritesWhenSinkFails() {
+        writer = new CoalescingWriter(1000, Duration.ZERO, (batch, length) -> {
+            throw new IOException("test");
+        }, ExecutorHelpers.newSingleThreadExecutor("test-writer"));
+        writer.start();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> writer.write(new byte[]{1}).get(5, SECONDS));
+        assertEquals("test", ex.getCause().getMessage());
+    }
+
+    @Test
+    void shouldFailWritesAfterStop() {
+        writer = new CoalescingWriter(1000, Duration.ZERO, (batch, length) -> batches.add(Arrays.copyOf(batch, length)), ExecutorHelpers.newSingleThreadExecutor("test-writer"));
+        writer.start();
+        writer.stop();
+
+        assertThrows(ExecutionException.class, () -> writer.write(new byte[]{1}).get(5, SECONDS));
+    }
+}
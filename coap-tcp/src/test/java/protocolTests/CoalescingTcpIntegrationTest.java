@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2022-2026 java-coap contributors (https://github.com/open-coap/java-coap)
+ * SPDX-License-Identifier: Apache-2.0
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package protocolTests;
+
+import com.mbed.coap.client.CoapClient;
+import com.mbed.coap.packet.BlockSize;
+import com.mbed.coap.server.TcpCoapServer;
+import com.mbed.coap.transport.javassl.SocketClientTransport;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import javax.net.SocketFactory;
+
+public class CoalescingTcpIntegrationTest extends TcpIntegrationTest {
+
+    @Override
+    protected CoapClient buildClient(int port) throws IOException {
+        InetSocketAddress serverAddress = new InetSocketAddress(InetAddress.getLocalHost(), port);
+
+        return TcpCoapServer.builder()
+                .transport(new SocketClientTransport(serverAddress, SocketFactory.getDefault(), true, 16_384, Duration.ofMillis(1)))
+                .notificationsReceiver(receiver)
+                .blockSize(BlockSize.S_1024_BERT)
+                .maxIncomingBlockTransferSize(4000)
+                .maxMessageSize(2100)
+                .buildClient(serverAddress);
+    }
+}